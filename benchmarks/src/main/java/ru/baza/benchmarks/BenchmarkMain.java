@@ -0,0 +1,45 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа {@code benchmarks.jar}.
+ *
+ * <p>Принимает обычные параметры JMH и добавляет к ним значения по умолчанию,
+ * чтобы результаты разных коммитов можно было сравнивать:
+ * <ul>
+ *     <li>профилировщик аллокаций {@code -prof gc}, если профилировщики не заданы;</li>
+ *     <li>результаты в JSON ({@code -rf json -rff jmh-result.json}),
+ *         если формат не задан.</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -pl benchmarks -am package
+ * java -jar benchmarks/target/benchmarks.jar RuleEngineBenchmark -p rules=1000 -p facts=10000
+ * java -jar benchmarks/target/benchmarks.jar GeneticAlgorithmBenchmark -p populationSize=10000
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var commandLine = new CommandLineOptions(args);
+        var options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.baza.model.Fact;
+import ru.baza.model.SymbolTable;
+import ru.baza.model.WorkingMemory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хеширование и сопоставление {@link Fact}: {@code hashCode}/{@code equals}
+ * через {@link HashSet}, поиск упакованного ключа в {@link SymbolTable}
+ * и проверка принадлежности {@link WorkingMemory}.
+ *
+ * <p>Время указано на один факт-запрос; половина запросов попадает в набор.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(FactBenchmark.PROBES)
+public class FactBenchmark {
+
+    static final int PROBES = 1024;
+
+    @Param({"10", "10000", "1000000"})
+    int facts;
+
+    @Param("42")
+    long seed;
+
+    private Fact[] probes;
+    private HashSet<Fact> hashSet;
+    private WorkingMemory workingMemory;
+
+    @Setup
+    public void setUp() {
+        List<Fact> factList = SyntheticKnowledgeBase.generate(16, seed).facts(facts, seed + 1);
+        hashSet = new HashSet<>(factList);
+        workingMemory = WorkingMemory.of(factList);
+
+        var random = new SplittableRandom(seed + 2);
+        probes = new Fact[PROBES];
+        for (var i = 0; i < PROBES; i++) {
+            // Копии строк: equals сравнивает содержимое, а не ссылки
+            var fact = random.nextBoolean()
+                    ? factList.get(random.nextInt(factList.size()))
+                    : new Fact("missing" + i, "v" + i);
+            probes[i] = new Fact(new String(fact.name()), new String(fact.value()));
+        }
+    }
+
+    @Benchmark
+    public void hashCodes(Blackhole blackhole) {
+        for (var probe : probes) {
+            blackhole.consume(probe.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void hashSetContains(Blackhole blackhole) {
+        for (var probe : probes) {
+            blackhole.consume(hashSet.contains(probe));
+        }
+    }
+
+    @Benchmark
+    public void lookupKey(Blackhole blackhole) {
+        for (var probe : probes) {
+            blackhole.consume(SymbolTable.GLOBAL.lookupKey(probe));
+        }
+    }
+
+    @Benchmark
+    public void workingMemoryContains(Blackhole blackhole) {
+        for (var probe : probes) {
+            blackhole.consume(workingMemory.contains(probe));
+        }
+    }
+}
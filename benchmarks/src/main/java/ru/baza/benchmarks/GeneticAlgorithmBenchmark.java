@@ -0,0 +1,146 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.baza.GAConfig;
+import ru.baza.GAInteger;
+import ru.baza.GAReal;
+import ru.baza.primitive.DoubleGeneticAlgorithm;
+import ru.baza.primitive.IntGeneticAlgorithm;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одно поколение генетического алгоритма: оценка, отбор, кроссовер
+ * и мутация для всей популяции.
+ *
+ * <p>Сравниваются упакованные {@link GAInteger}/{@link GAReal}
+ * и примитивные {@link IntGeneticAlgorithm}/{@link DoubleGeneticAlgorithm}
+ * в последовательном и параллельном ({@link ForkJoinPool#commonPool()})
+ * режимах. Все варианты минимизируют одну и ту же функцию x² + 4
+ * на одном диапазоне; популяция эволюционирует от вызова к вызову,
+ * как при обычном запуске.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class GeneticAlgorithmBenchmark {
+
+    @Param({"50", "10000", "1000000"})
+    int populationSize;
+
+    @Param("42")
+    long seed;
+
+    private IntegerGeneration gaInteger;
+    private List<Integer> integerPopulation;
+
+    private RealGeneration gaReal;
+    private List<Double> realPopulation;
+
+    private IntGeneticAlgorithm intSequential;
+    private IntGeneticAlgorithm intParallel;
+    private DoubleGeneticAlgorithm doubleSequential;
+    private DoubleGeneticAlgorithm doubleParallel;
+
+    @Setup
+    public void setUp() {
+        var integerConfig = GAInteger.defaultConfig().toBuilder()
+                .populationSize(populationSize)
+                .seed(seed)
+                .build();
+        gaInteger = new IntegerGeneration(integerConfig);
+        integerPopulation = gaInteger.initPopulation(populationSize, 100, -100);
+
+        var realConfig = GAReal.defaultConfig().toBuilder()
+                .populationSize(populationSize)
+                .seed(seed)
+                .build();
+        gaReal = new RealGeneration(realConfig);
+        realPopulation = gaReal.initPopulation(populationSize, 10.0, -10.0);
+
+        intSequential = new IntGeneticAlgorithm(integerConfig, x -> (double) x * x + 4);
+        intParallel = new IntGeneticAlgorithm(integerConfig, x -> (double) x * x + 4);
+        intParallel.parallel(ForkJoinPool.commonPool());
+        doubleSequential = new DoubleGeneticAlgorithm(realConfig, x -> x * x + 4);
+        doubleParallel = new DoubleGeneticAlgorithm(realConfig, x -> x * x + 4);
+        doubleParallel.parallel(ForkJoinPool.commonPool());
+        for (var ga : List.of(intSequential, intParallel, doubleSequential, doubleParallel)) {
+            ga.initialize();
+        }
+    }
+
+    /** Поколение {@link GAInteger}: {@code List<Integer>} и кеш приспособленности. */
+    @Benchmark
+    public List<Integer> gaInteger() {
+        return integerPopulation = gaInteger.generation(integerPopulation);
+    }
+
+    /** Поколение {@link GAReal}: {@code List<Double>}. */
+    @Benchmark
+    public List<Double> gaReal() {
+        return realPopulation = gaReal.generation(realPopulation);
+    }
+
+    @Benchmark
+    public double intSequential() {
+        intSequential.evolve();
+        return intSequential.bestFitness();
+    }
+
+    @Benchmark
+    public double intParallel() {
+        intParallel.evolve();
+        return intParallel.bestFitness();
+    }
+
+    @Benchmark
+    public double doubleSequential() {
+        doubleSequential.evolve();
+        return doubleSequential.bestFitness();
+    }
+
+    @Benchmark
+    public double doubleParallel() {
+        doubleParallel.evolve();
+        return doubleParallel.bestFitness();
+    }
+
+    /** Открывает защищённый шаг эволюции {@link GAInteger}. */
+    static final class IntegerGeneration extends GAInteger {
+
+        IntegerGeneration(GAConfig config) {
+            super(config);
+        }
+
+        List<Integer> generation(List<Integer> population) {
+            return evolve(population, population.size());
+        }
+    }
+
+    /** Открывает защищённый шаг эволюции {@link GAReal}. */
+    static final class RealGeneration extends GAReal {
+
+        RealGeneration(GAConfig config) {
+            super(config);
+        }
+
+        List<Double> generation(List<Double> population) {
+            return evolve(population, population.size());
+        }
+    }
+}
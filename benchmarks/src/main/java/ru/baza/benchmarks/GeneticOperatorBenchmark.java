@@ -0,0 +1,239 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.baza.GAConfig;
+import ru.baza.GAInteger;
+import ru.baza.GAReal;
+import ru.baza.primitive.DoubleGeneticAlgorithm;
+import ru.baza.primitive.IntGeneticAlgorithm;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Отдельные операторы генетического алгоритма — кроссовер, мутация
+ * и fitness-функция — для упакованных ({@link GAInteger}, {@link GAReal})
+ * и примитивных ({@link IntGeneticAlgorithm}, {@link DoubleGeneticAlgorithm})
+ * хромосом.
+ *
+ * <p>Время указано на одну особь. Упакованная fitness-функция вызывается
+ * напрямую, без {@link ru.baza.FitnessCache}; примитивная — через
+ * {@code evaluate(index)} по популяции из {@value #OPERATIONS} особей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(GeneticOperatorBenchmark.OPERATIONS)
+public class GeneticOperatorBenchmark {
+
+    static final int OPERATIONS = 1024;
+
+    @Param("42")
+    long seed;
+
+    private IntegerOperators gaInteger;
+    private RealOperators gaReal;
+    private IntOperators intOperators;
+    private DoubleOperators doubleOperators;
+    private RandomGenerator random;
+
+    private Integer[] boxedInts;
+    private Double[] boxedDoubles;
+    private int[] ints;
+    private double[] doubles;
+
+    @Setup
+    public void setUp() {
+        var integerConfig = GAInteger.defaultConfig().toBuilder().seed(seed).build();
+        var realConfig = GAReal.defaultConfig().toBuilder().seed(seed).build();
+        gaInteger = new IntegerOperators(integerConfig);
+        gaReal = new RealOperators(realConfig);
+        intOperators = new IntOperators(integerConfig);
+        doubleOperators = new DoubleOperators(realConfig);
+        intOperators.initialize();
+        doubleOperators.initialize();
+        random = new SplittableRandom(seed + 1);
+
+        var values = new SplittableRandom(seed + 2);
+        boxedInts = new Integer[OPERATIONS + 1];
+        boxedDoubles = new Double[OPERATIONS + 1];
+        ints = new int[OPERATIONS + 1];
+        doubles = new double[OPERATIONS + 1];
+        for (var i = 0; i <= OPERATIONS; i++) {
+            ints[i] = values.nextInt(-100, 101);
+            doubles[i] = values.nextDouble(-10, 10);
+            boxedInts[i] = ints[i];
+            boxedDoubles[i] = doubles[i];
+        }
+    }
+
+    @Benchmark
+    public void gaIntegerCrossover(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaInteger.crossover(boxedInts[i], boxedInts[i + 1]));
+        }
+    }
+
+    @Benchmark
+    public void gaIntegerMutate(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaInteger.mutate(boxedInts[i]));
+        }
+    }
+
+    @Benchmark
+    public void gaIntegerFitness(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaInteger.fitnessOf(boxedInts[i]));
+        }
+    }
+
+    @Benchmark
+    public void gaRealCrossover(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaReal.crossover(boxedDoubles[i], boxedDoubles[i + 1]));
+        }
+    }
+
+    @Benchmark
+    public void gaRealMutate(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaReal.mutate(boxedDoubles[i]));
+        }
+    }
+
+    @Benchmark
+    public void gaRealFitness(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(gaReal.fitnessOf(boxedDoubles[i]));
+        }
+    }
+
+    @Benchmark
+    public void intCrossover(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(intOperators.crossover(ints[i], ints[i + 1], random));
+        }
+    }
+
+    @Benchmark
+    public void intMutate(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(intOperators.mutate(ints[i], random));
+        }
+    }
+
+    @Benchmark
+    public void intFitness(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(intOperators.evaluate(i));
+        }
+    }
+
+    @Benchmark
+    public void doubleCrossover(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(doubleOperators.crossover(doubles[i], doubles[i + 1], random));
+        }
+    }
+
+    @Benchmark
+    public void doubleMutate(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(doubleOperators.mutate(doubles[i], random));
+        }
+    }
+
+    @Benchmark
+    public void doubleFitness(Blackhole blackhole) {
+        for (var i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(doubleOperators.evaluate(i));
+        }
+    }
+
+    /** Открывает защищённую fitness-функцию {@link GAInteger}. */
+    static final class IntegerOperators extends GAInteger {
+
+        IntegerOperators(GAConfig config) {
+            super(config);
+        }
+
+        double fitnessOf(Integer x) {
+            return fitness(x);
+        }
+    }
+
+    /** Открывает защищённую fitness-функцию {@link GAReal}. */
+    static final class RealOperators extends GAReal {
+
+        RealOperators(GAConfig config) {
+            super(config);
+        }
+
+        double fitnessOf(Double x) {
+            return fitness(x);
+        }
+    }
+
+    /** Открывает защищённые операторы {@link IntGeneticAlgorithm}. */
+    static final class IntOperators extends IntGeneticAlgorithm {
+
+        IntOperators(GAConfig config) {
+            super(config.toBuilder().populationSize(OPERATIONS).build(), x -> (double) x * x + 4);
+        }
+
+        @Override
+        protected int crossover(int p1, int p2, RandomGenerator random) {
+            return super.crossover(p1, p2, random);
+        }
+
+        @Override
+        protected int mutate(int x, RandomGenerator random) {
+            return super.mutate(x, random);
+        }
+
+        @Override
+        protected double evaluate(int index) {
+            return super.evaluate(index);
+        }
+    }
+
+    /** Открывает защищённые операторы {@link DoubleGeneticAlgorithm}. */
+    static final class DoubleOperators extends DoubleGeneticAlgorithm {
+
+        DoubleOperators(GAConfig config) {
+            super(config.toBuilder().populationSize(OPERATIONS).build(), x -> x * x + 4);
+        }
+
+        @Override
+        protected double crossover(double p1, double p2, RandomGenerator random) {
+            return super.crossover(p1, p2, random);
+        }
+
+        @Override
+        protected double mutate(double x, RandomGenerator random) {
+            return super.mutate(x, random);
+        }
+
+        @Override
+        protected double evaluate(int index) {
+            return super.evaluate(index);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.baza.EvolutionResult;
+import ru.baza.GAConfig;
+import ru.baza.GAInteger;
+import ru.baza.GAReal;
+import ru.baza.primitive.DoubleGeneticAlgorithm;
+import ru.baza.primitive.IntGeneticAlgorithm;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный запуск генетического алгоритма на {@code generations} поколений:
+ * создание алгоритма, начальная популяция и эволюция.
+ *
+ * <p>Условие остановки — только число поколений, поэтому все варианты
+ * выполняют одинаковый объём работы независимо от сходимости.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class GeneticRunBenchmark {
+
+    @Param({"50", "10000"})
+    int populationSize;
+
+    @Param({"10", "100"})
+    int generations;
+
+    @Param("42")
+    long seed;
+
+    private GAConfig integerConfig;
+    private GAConfig realConfig;
+
+    @Setup
+    public void setUp() {
+        integerConfig = GAInteger.defaultConfig().toBuilder()
+                .populationSize(populationSize)
+                .maxGenerations(generations)
+                .stagnation(0, 0)
+                .seed(seed)
+                .build();
+        realConfig = GAReal.defaultConfig().toBuilder()
+                .populationSize(populationSize)
+                .maxGenerations(generations)
+                .stagnation(0, 0)
+                .seed(seed)
+                .build();
+    }
+
+    @Benchmark
+    public EvolutionResult<Integer> gaInteger() {
+        return new GAInteger(integerConfig).run();
+    }
+
+    @Benchmark
+    public EvolutionResult<Double> gaReal() {
+        return new GAReal(realConfig).run();
+    }
+
+    @Benchmark
+    public double intGenetic() {
+        var ga = new IntGeneticAlgorithm(integerConfig, x -> (double) x * x + 4);
+        ga.run(generations);
+        return ga.bestFitness();
+    }
+
+    @Benchmark
+    public double doubleGenetic() {
+        var ga = new DoubleGeneticAlgorithm(realConfig, x -> x * x + 4);
+        ga.run(generations);
+        return ga.bestFitness();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.baza.engine.GoalResult;
+import ru.baza.engine.InferenceResult;
+import ru.baza.engine.RuleEngine;
+import ru.baza.model.Fact;
+import ru.baza.model.WorkingMemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прямой и обратный вывод {@link RuleEngine} на синтетических базах знаний.
+ *
+ * <p>Размеры задаются параметрами {@code rules} и {@code facts}
+ * (например, {@code -p rules=100000 -p facts=1000000}). Данные генерируются
+ * из фиксированного {@code seed}, поэтому запуски на разных коммитах
+ * сравнимы между собой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RuleEngineBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int rules;
+
+    @Param({"10", "10000", "1000000"})
+    int facts;
+
+    @Param("42")
+    long seed;
+
+    private final RuleEngine engine = new RuleEngine();
+
+    private SyntheticKnowledgeBase knowledgeBase;
+    private List<Fact> factList;
+    private WorkingMemory workingMemory;
+    private String goal;
+
+    @Setup
+    public void setUp() {
+        knowledgeBase = SyntheticKnowledgeBase.generate(rules, seed);
+        factList = new ArrayList<>(knowledgeBase.facts(facts, seed + 1));
+        workingMemory = WorkingMemory.of(new ArrayList<>(factList));
+        goal = knowledgeBase.deepestGoal();
+    }
+
+    /** Прямой вывод по списку фактов через {@link RuleEngine#run}. */
+    @Benchmark
+    public void run() {
+        engine.run(knowledgeBase, factList);
+    }
+
+    /** Прямой вывод с возвратом заключений. */
+    @Benchmark
+    public InferenceResult infer() {
+        return engine.infer(knowledgeBase, factList);
+    }
+
+    /** Прямой вывод по уже проиндексированной {@link WorkingMemory}. */
+    @Benchmark
+    public InferenceResult inferWorkingMemory() {
+        return engine.infer(knowledgeBase, workingMemory);
+    }
+
+    /**
+     * Обратный вывод самой глубокой цели. Включает индексацию фактов
+     * в {@link WorkingMemory}; доказанные цели, добавленные движком в список,
+     * удаляются, чтобы каждый вызов начинался с одного и того же состояния.
+     */
+    @Benchmark
+    public boolean backwardChain() {
+        var size = factList.size();
+        var proven = engine.backwardChain(knowledgeBase, factList, goal);
+        factList.subList(size, factList.size()).clear();
+        return proven;
+    }
+
+    /** Обратный вывод с возвратом заключений сработавших правил. */
+    @Benchmark
+    public GoalResult prove() {
+        var size = factList.size();
+        var result = engine.prove(knowledgeBase, factList, goal);
+        factList.subList(size, factList.size()).clear();
+        return result;
+    }
+}
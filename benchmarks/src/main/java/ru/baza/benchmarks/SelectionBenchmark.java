@@ -0,0 +1,86 @@
+package ru.baza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.baza.selection.Selection;
+import ru.baza.selection.Selector;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стратегии отбора {@link Selection}: подготовка таблиц раз в поколение
+ * ({@link Selector#prepare}) и выбор одного родителя ({@link Selector#select}).
+ *
+ * <p>Приспособленность — равномерно распределённые значения из [0, 100).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SelectionBenchmark {
+
+    static final int SELECTIONS = 1024;
+
+    @Param({"tournament", "roulette", "rank", "truncation"})
+    String strategy;
+
+    @Param({"50", "10000", "1000000"})
+    int populationSize;
+
+    @Param("42")
+    long seed;
+
+    private double[] fitness;
+    private Selector selector;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        var selection = switch (strategy) {
+            case "tournament" -> Selection.tournament(2);
+            case "roulette" -> Selection.roulette();
+            case "rank" -> Selection.rank(1.5);
+            case "truncation" -> Selection.truncation(0.5);
+            default -> throw new IllegalArgumentException("Неизвестная стратегия отбора: " + strategy);
+        };
+        var values = new SplittableRandom(seed);
+        fitness = new double[populationSize];
+        for (var i = 0; i < populationSize; i++) {
+            fitness[i] = values.nextDouble(100);
+        }
+        selector = selection.create();
+        selector.prepare(fitness, populationSize);
+        random = new SplittableRandom(seed + 1);
+    }
+
+    /** Подготовка селектора к поколению; время на поколение. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Selector prepare() {
+        selector.prepare(fitness, populationSize);
+        return selector;
+    }
+
+    /** Выбор родителя по подготовленному селектору; время на один выбор. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(SELECTIONS)
+    public void select(Blackhole blackhole) {
+        for (var i = 0; i < SELECTIONS; i++) {
+            blackhole.consume(selector.select(random));
+        }
+    }
+}
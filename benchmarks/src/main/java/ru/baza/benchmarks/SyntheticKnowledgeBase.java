@@ -0,0 +1,107 @@
+package ru.baza.benchmarks;
+
+import ru.baza.engine.CompiledKnowledgeBase;
+import ru.baza.engine.CompiledRuleBase;
+import ru.baza.engine.RuleInvoker;
+import ru.baza.model.Fact;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Синтетическая база знаний заданного размера для бенчмарков.
+ *
+ * <p>Правила и факты генерируются детерминированно из зерна, поэтому
+ * одинаковые параметры дают одинаковые данные на любом коммите и результаты
+ * разных запусков можно сравнивать.
+ *
+ * <p>Устройство базы:
+ * <ul>
+ *     <li>атрибуты {@code a0..aN} по {@value #VALUES} значений {@code v0..v7};</li>
+ *     <li>у правила от 1 до 4 условий {@code all} и до 2 условий {@code any};</li>
+ *     <li>заключение правила {@code i} — {@code c<i/2>}: каждую цель выводят два правила;</li>
+ *     <li>примерно четверть условий {@code all} ссылается на заключение более
+ *         раннего правила ({@code goal=c<j>}), что даёт граф подцелей
+ *         для обратного вывода без циклов.</li>
+ * </ul>
+ */
+public final class SyntheticKnowledgeBase implements CompiledKnowledgeBase {
+
+    static final int VALUES = 8;
+
+    private final CompiledRuleBase rules;
+    private final int attributes;
+    private final int goals;
+
+    private SyntheticKnowledgeBase(CompiledRuleBase rules, int attributes, int goals) {
+        this.rules = rules;
+        this.attributes = attributes;
+        this.goals = goals;
+    }
+
+    /**
+     * Генерирует базу знаний.
+     *
+     * @param ruleCount число правил
+     * @param seed      зерно генератора
+     * @return база знаний
+     */
+    public static SyntheticKnowledgeBase generate(int ruleCount, long seed) {
+        var random = new SplittableRandom(seed);
+        var attributes = Math.max(16, ruleCount / 4);
+        var builder = CompiledRuleBase.builder();
+
+        for (var i = 0; i < ruleCount; i++) {
+            var goal = i >> 1;
+            var all = new int[1 + random.nextInt(4)];
+            for (var c = 0; c < all.length; c++) {
+                all[c] = goal > 0 && random.nextInt(4) == 0
+                        ? builder.condition("goal", "c" + random.nextInt(goal))
+                        : builder.condition("a" + random.nextInt(attributes), "v" + random.nextInt(VALUES));
+            }
+            var any = new int[random.nextInt(3)];
+            for (var c = 0; c < any.length; c++) {
+                any[c] = builder.condition("a" + random.nextInt(attributes), "v" + random.nextInt(VALUES));
+            }
+            var conclusion = "c" + goal;
+            builder.rule("r" + i, conclusion, all, any, RuleInvoker.returning(conclusion));
+        }
+        return new SyntheticKnowledgeBase(builder.build(), attributes, (ruleCount + 1) >> 1);
+    }
+
+    /**
+     * Генерирует набор фактов: половина берётся из пространства условий базы
+     * (и может активировать правила), остальные уникальны и не совпадают
+     * ни с одним условием.
+     *
+     * @param count число фактов
+     * @param seed  зерно генератора
+     * @return факты
+     */
+    public List<Fact> facts(int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var facts = new ArrayList<Fact>(count);
+        for (var i = 0; i < count; i++) {
+            facts.add(random.nextBoolean()
+                    ? new Fact("a" + random.nextInt(attributes), "v" + random.nextInt(VALUES))
+                    : new Fact("f" + i, "v" + random.nextInt(VALUES)));
+        }
+        return facts;
+    }
+
+    /**
+     * Возвращает заключение последних правил — цель с самым глубоким
+     * графом подцелей.
+     *
+     * @return цель для обратного вывода
+     */
+    public String deepestGoal() {
+        return "c" + (goals - 1);
+    }
+
+    @Override
+    public CompiledRuleBase compiledRules() {
+        return rules;
+    }
+}
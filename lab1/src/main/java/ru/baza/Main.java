@@ -1,19 +1,21 @@
 package ru.baza;
 
 import ru.baza.collector.FactCollector;
+import ru.baza.engine.ConsoleTraceListener;
 import ru.baza.engine.RuleEngine;
 import ru.baza.knowledges.WebKnowledgeBase;
 import ru.baza.questions.QuestionsBase;
 
 public class Main {
     public static void main(String[] args) {
-        var engine = new RuleEngine();
+        var engine = new RuleEngine(new ConsoleTraceListener());
         var kb = new WebKnowledgeBase();
 
         var facts = new FactCollector(QuestionsBase.QUESTIONS, QuestionsBase.ANSWERS).collectFacts();
         System.out.println(facts);
-        boolean result = engine.backwardChain(kb, facts, "AngularSpringMySQL");
-        System.out.println(result);
+        var result = engine.prove(kb, facts, "AngularSpringMySQL");
+        result.conclusions().forEach(conclusion -> System.out.println(conclusion.value()));
+        System.out.println(result.proven());
 
     }
 }
@@ -0,0 +1,47 @@
+package ru.baza;
+
+import ru.baza.engine.CompiledRuleBase;
+import ru.baza.engine.RuleBaseSnapshot;
+import ru.baza.engine.RuleRegistry;
+import ru.baza.knowledges.JsonKnowledgeBase;
+import ru.baza.knowledges.KnowledgeBase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Утилита командной строки: преобразует правила в двоичный снимок
+ * {@link RuleBaseSnapshot}.
+ *
+ * <p>Использование:
+ * <pre>
+ * SnapshotConverter rules.json rules.snapshot
+ * SnapshotConverter ru.baza.knowledges.WebKnowledgeBase web.snapshot
+ * </pre>
+ * Источник с расширением {@code .json} читается как файл правил
+ * {@link JsonKnowledgeBase}, иначе — как имя класса базы знаний
+ * с аннотированными правилами.
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 2) {
+            System.err.println("Использование: SnapshotConverter <rules.json | класс базы знаний> <файл снимка>");
+            System.exit(2);
+        }
+
+        var rules = compile(args[0]);
+        var target = Path.of(args[1]);
+        RuleBaseSnapshot.write(rules, target);
+
+        System.out.println("Записано правил: " + rules.rules().size()
+                + ", условий: " + rules.conditionCount() + " → " + target);
+    }
+
+    private static CompiledRuleBase compile(String source) throws IOException, ClassNotFoundException {
+        if (source.endsWith(".json")) {
+            return JsonKnowledgeBase.load(Path.of(source)).compiledRules();
+        }
+        return RuleRegistry.of(Class.forName(source).asSubclass(KnowledgeBase.class));
+    }
+}
@@ -39,13 +39,15 @@ import java.lang.annotation.Target;
  *         @FactCondition(name = "wind", value = "strong")
  *     }
  * )
- * private void ruleRainAutumn() {
- *     System.out.println("Осенью дождь — бери зонт!");
+ * private String ruleRainAutumn() {
+ *     return "Осенью дождь — бери зонт!";
  * }
  * }</pre>
  *
- * <p>Метод с аннотацией должен быть без аргументов. Доступ (private/public)
- * не имеет значения — {@code RuleEngine} вызывает его через reflection.
+ * <p>Метод с аннотацией должен быть без аргументов. Возвращённое значение
+ * (если метод не {@code void}) движок сохраняет в заключении правила.
+ * Доступ (private/public) не имеет значения — {@code RuleRegistry} один раз связывает его
+ * с движком через {@code LambdaMetafactory}.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -0,0 +1,247 @@
+package ru.baza.engine;
+
+import ru.baza.knowledges.KnowledgeBase;
+import ru.baza.model.Fact;
+import ru.baza.model.SymbolTable;
+import ru.baza.model.WorkingMemory;
+import ru.baza.util.LongHashSet;
+import ru.baza.util.LongIntHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Один сеанс обратного вывода с таблицами (tabled backward chaining).
+ *
+ * <p>Вместо рекурсии JVM используется явный стек целей, поэтому глубина графа
+ * целей ограничена только памятью. За один сеанс каждая цель раскрывается
+ * не более одного раза:
+ * <ul>
+ *     <li><b>доказанные</b> цели добавляются в рабочую память как факт
+ *         {@code goal=<цель>} и при повторной встрече находятся как известные;</li>
+ *     <li><b>недоказанные</b> цели запоминаются в таблице неудач;</li>
+ *     <li>цель, которая уже доказывается выше по стеку, считается
+ *         <b>циклом</b> и на этом пути не доказывается.</li>
+ * </ul>
+ *
+ * <p>Неудача, зависящая от цикла, окончательна только для цели, с которой
+ * цикл начался: цели внутри цикла в таблицу неудач не попадают, пока его
+ * корень не будет вычислен (аналог компонент сильной связности Тарьяна).
+ *
+ * <p>Объект не потокобезопасен и используется для одного вызова
+ * {@link RuleEngine#backwardChain(KnowledgeBase, java.util.Collection, String)}.
+ */
+final class BackwardChaining {
+
+    private final SymbolTable symbols = SymbolTable.GLOBAL;
+
+    private final KnowledgeBase knowledgeBase;
+    private final CompiledRuleBase rules;
+    private final WorkingMemory facts;
+    private final InferenceListener listener;
+
+    /** Заключения правил, сработавших в этом сеансе. */
+    private final List<Conclusion> conclusions = new ArrayList<>();
+
+    /** Цели, которые не удалось доказать (номера символов в нижнем регистре). */
+    private final LongHashSet failed = new LongHashSet();
+
+    /** Цели, доказываемые сейчас: номер символа → глубина в стеке. */
+    private final LongIntHashMap inProgress = new LongIntHashMap();
+
+    private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+    BackwardChaining(KnowledgeBase knowledgeBase, CompiledRuleBase rules, WorkingMemory facts,
+                     InferenceListener listener) {
+        this.knowledgeBase = knowledgeBase;
+        this.rules = rules;
+        this.facts = facts;
+        this.listener = listener;
+    }
+
+    /**
+     * Доказывает цель.
+     *
+     * @param goal искомая цель
+     * @return результат доказательства и заключения сработавших правил
+     */
+    GoalResult prove(String goal) {
+        return new GoalResult(goal, search(goal), conclusions);
+    }
+
+    private boolean search(String goal) {
+        var result = start(goal);
+        if (result != null) {
+            return result;
+        }
+
+        while (true) {
+            var frame = stack.peek();
+            result = advance(frame);
+            if (result == null) {
+                // На вершину стека положена подцель
+                continue;
+            }
+
+            complete(frame, result);
+            var parent = stack.peek();
+            if (parent == null) {
+                return result;
+            }
+            parent.low = Math.min(parent.low, frame.low);
+            parent.subgoalDone(result);
+        }
+    }
+
+    /**
+     * Начинает доказательство цели.
+     *
+     * @return результат, если он известен сразу, или {@code null},
+     *         если для цели создан новый кадр стека
+     */
+    private Boolean start(String goal) {
+        listener.goalStarted(goal);
+
+        // 1. Если факт уже известен — доказано
+        if (facts.containsIgnoreCase(goal)) {
+            listener.goalKnown(goal);
+            return true;
+        }
+
+        var id = symbols.lookup(goal);
+        if (id < 0) {
+            id = symbols.lookup(goal.toLowerCase(Locale.ROOT));
+        }
+        if (id < 0) {
+            // Символа нет в таблице — значит, ни одно правило не выводит эту цель
+            listener.goalFailed(goal);
+            return false;
+        }
+
+        var folded = symbols.foldedId(id);
+        if (failed.contains(folded)) {
+            listener.goalFailedBefore(goal);
+            return false;
+        }
+
+        var depth = inProgress.get(folded, -1);
+        if (depth >= 0) {
+            listener.cycleDetected(goal);
+            var frame = stack.peek();
+            frame.low = Math.min(frame.low, depth);
+            return false;
+        }
+
+        inProgress.put(folded, stack.size());
+        stack.push(new Frame(goal, folded, rules.rulesConcluding(goal), stack.size()));
+        return null;
+    }
+
+    /**
+     * Продолжает перебор правил и условий кадра.
+     *
+     * @return результат цели или {@code null}, если положена подцель
+     */
+    private Boolean advance(Frame frame) {
+        // 2. Перебираем правила, заключение которых совпадает с целью
+        while (frame.rule < frame.candidates.length) {
+            var rule = rules.rule(frame.candidates[frame.rule]);
+            if (!frame.announced) {
+                listener.ruleFound(frame.goal, rule.name());
+                frame.announced = true;
+            }
+
+            // 3. Проверяем/доказываем условия правила
+            var conditions = rule.all();
+            while (frame.condition < conditions.length) {
+                var key = rules.conditionKey(conditions[frame.condition]);
+                if (facts.containsKey(key)) {
+                    frame.condition++;
+                    continue;
+                }
+
+                var value = symbols.symbol(SymbolTable.valueId(key));
+                listener.conditionMissing(symbols.symbol(SymbolTable.nameId(key)), value);
+
+                var result = start(value);
+                if (result == null) {
+                    return null;
+                }
+                if (!result) {
+                    break;
+                }
+                frame.condition++;
+            }
+
+            if (frame.condition == conditions.length) {
+                listener.goalProven(frame.goal);
+                facts.add(new Fact("goal", frame.goal));
+                var conclusion = new Conclusion(rule.name(), rule.conclusion(), rule.invoker().invoke(knowledgeBase));
+                conclusions.add(conclusion);
+                listener.ruleFired(conclusion);
+                return true;
+            }
+            frame.nextRule();
+        }
+        return false;
+    }
+
+    private void complete(Frame frame, boolean result) {
+        stack.pop();
+        inProgress.remove(frame.folded);
+
+        if (!result) {
+            listener.goalFailed(frame.goal);
+            // Неудача не зависит от целей выше по стеку — её можно запомнить
+            if (frame.low >= frame.depth) {
+                failed.add(frame.folded);
+            }
+        }
+    }
+
+    /** Кадр явного стека: состояние перебора правил одной цели. */
+    private static final class Frame {
+
+        final String goal;
+        final int folded;
+        final int[] candidates;
+        final int depth;
+
+        /** Наименьшая глубина цели в стеке, от которой зависит результат. */
+        int low;
+
+        /** Индекс текущего правила в {@link #candidates}. */
+        int rule;
+
+        /** Индекс текущего условия правила. */
+        int condition;
+
+        /** Сообщение о найденном правиле уже выведено. */
+        boolean announced;
+
+        Frame(String goal, int folded, int[] candidates, int depth) {
+            this.goal = goal;
+            this.folded = folded;
+            this.candidates = candidates;
+            this.depth = depth;
+            this.low = depth;
+        }
+
+        /** Учитывает результат подцели для текущего условия. */
+        void subgoalDone(boolean proven) {
+            if (proven) {
+                condition++;
+            } else {
+                nextRule();
+            }
+        }
+
+        void nextRule() {
+            rule++;
+            condition = 0;
+            announced = false;
+        }
+    }
+}
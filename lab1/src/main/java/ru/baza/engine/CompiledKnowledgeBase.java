@@ -0,0 +1,18 @@
+package ru.baza.engine;
+
+import ru.baza.knowledges.KnowledgeBase;
+
+/**
+ * База знаний, которая сама предоставляет скомпилированные правила
+ * вместо методов, помеченных {@link ru.baza.annotations.Rule}.
+ *
+ * <p>Используется для правил, загружаемых из данных: движок получает
+ * {@link CompiledRuleBase} напрямую и не обращается к reflection.
+ */
+public interface CompiledKnowledgeBase extends KnowledgeBase {
+
+    /**
+     * @return скомпилированные правила базы знаний
+     */
+    CompiledRuleBase compiledRules();
+}
@@ -0,0 +1,18 @@
+package ru.baza.engine;
+
+/**
+ * Правило базы знаний в скомпилированном виде.
+ *
+ * <p>Условия хранятся как номера в таблице условий
+ * {@link CompiledRuleBase#condition(int)}, заключение вычислено заранее,
+ * а действие правила вызывается через {@link RuleInvoker}.
+ *
+ * @param id         порядковый номер правила в базе
+ * @param name       имя метода-правила
+ * @param conclusion заключение правила
+ * @param all        номера условий, которые должны выполняться все
+ * @param any        номера условий, из которых должно выполняться хотя бы одно
+ * @param invoker    вызов действия правила
+ */
+public record CompiledRule(int id, String name, String conclusion, int[] all, int[] any, RuleInvoker invoker) {
+}
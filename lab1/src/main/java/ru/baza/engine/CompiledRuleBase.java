@@ -0,0 +1,217 @@
+package ru.baza.engine;
+
+import ru.baza.engine.rete.ReteNetwork;
+import ru.baza.model.Fact;
+import ru.baza.model.SymbolTable;
+import ru.baza.util.LongIntHashMap;
+import ru.baza.util.LongList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Скомпилированная база знаний: правила, таблица условий, индекс правил
+ * по заключению и Rete-сеть для прямого вывода.
+ *
+ * <p>Объект неизменяем и создаётся один раз на класс базы знаний
+ * (см. {@link RuleRegistry}) или на загруженный набор правил
+ * (см. {@link Builder}), поэтому может разделяться между потоками.
+ */
+public final class CompiledRuleBase {
+
+    private static final int[] NO_RULES = new int[0];
+
+    private final List<CompiledRule> rules;
+
+    /** Упакованный ключ условия ({@link SymbolTable#GLOBAL}) по его номеру. */
+    private final long[] conditionKeys;
+
+    /** Номер условия по его упакованному ключу. */
+    private final LongIntHashMap conditionIds;
+
+    /** Упакованный ключ факта {@code goal=<заключение>} по номеру правила. */
+    private final long[] conclusionKeys;
+
+    /** Номера правил по заключению в нижнем регистре. */
+    private final Map<String, int[]> rulesByConclusion;
+
+    private final ReteNetwork network;
+
+    private CompiledRuleBase(List<CompiledRule> rules, long[] conditionKeys, LongIntHashMap conditionIds,
+                             long[] conclusionKeys, Map<String, int[]> rulesByConclusion) {
+        this.rules = List.copyOf(rules);
+        this.conditionKeys = conditionKeys;
+        this.conditionIds = conditionIds;
+        this.conclusionKeys = conclusionKeys;
+        this.rulesByConclusion = Collections.unmodifiableMap(rulesByConclusion);
+        this.network = ReteNetwork.compile(this.rules, conditionIds);
+    }
+
+    /**
+     * @return правила в порядке объявления
+     */
+    public List<CompiledRule> rules() {
+        return rules;
+    }
+
+    /**
+     * Возвращает правило по его номеру.
+     *
+     * @param id номер правила
+     * @return правило
+     */
+    public CompiledRule rule(int id) {
+        return rules.get(id);
+    }
+
+    /**
+     * Возвращает условие по его номеру.
+     *
+     * @param id номер условия
+     * @return условие в виде пары «имя–значение»
+     */
+    public Fact condition(int id) {
+        return SymbolTable.GLOBAL.fact(conditionKeys[id]);
+    }
+
+    /**
+     * Возвращает упакованный ключ условия.
+     *
+     * @param id номер условия
+     * @return ключ условия в {@link SymbolTable#GLOBAL}
+     */
+    public long conditionKey(int id) {
+        return conditionKeys[id];
+    }
+
+    /**
+     * Возвращает упакованный ключ факта {@code goal=<заключение>},
+     * который добавляется, когда правило срабатывает.
+     *
+     * @param id номер правила
+     * @return ключ факта в {@link SymbolTable#GLOBAL}
+     */
+    public long conclusionKey(int id) {
+        return conclusionKeys[id];
+    }
+
+    /**
+     * @return количество уникальных условий
+     */
+    public int conditionCount() {
+        return conditionKeys.length;
+    }
+
+    /**
+     * Возвращает номера правил, заключение которых совпадает с целью
+     * без учёта регистра.
+     *
+     * @param goal цель
+     * @return номера правил; пустой массив, если таких правил нет
+     */
+    public int[] rulesConcluding(String goal) {
+        return rulesByConclusion.getOrDefault(goal.toLowerCase(Locale.ROOT), NO_RULES);
+    }
+
+    /**
+     * @return Rete-сеть для прямого вывода
+     */
+    public ReteNetwork network() {
+        return network;
+    }
+
+    /**
+     * Создаёт построитель скомпилированной базы знаний.
+     *
+     * @return новый построитель
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Построитель {@link CompiledRuleBase}.
+     *
+     * <p>Используется источниками правил: аннотированными классами
+     * ({@link RuleRegistry}) и загрузчиками правил из данных. Условия
+     * и заключения интернируются в {@link SymbolTable#GLOBAL} сразу при добавлении,
+     * поэтому правила можно добавлять по одному, не держа в памяти
+     * их исходное представление.
+     */
+    public static final class Builder {
+
+        private final List<CompiledRule> rules = new ArrayList<>();
+        private final LongList conditionKeys = new LongList();
+        private final LongIntHashMap conditionIds = new LongIntHashMap();
+        private final LongList conclusionKeys = new LongList();
+        private final Map<String, List<Integer>> rulesByConclusion = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        /**
+         * Возвращает номер условия, добавляя его в таблицу условий при необходимости.
+         *
+         * @param name  имя факта
+         * @param value значение факта
+         * @return номер условия
+         */
+        public int condition(String name, String value) {
+            return condition(SymbolTable.GLOBAL.key(name, value));
+        }
+
+        /**
+         * Возвращает номер условия по упакованному ключу, добавляя его
+         * в таблицу условий при необходимости.
+         *
+         * @param key ключ условия в {@link SymbolTable#GLOBAL}
+         * @return номер условия
+         */
+        public int condition(long key) {
+            var id = conditionIds.get(key, -1);
+            if (id < 0) {
+                id = conditionKeys.size();
+                conditionKeys.add(key);
+                conditionIds.put(key, id);
+            }
+            return id;
+        }
+
+        /**
+         * Добавляет правило.
+         *
+         * @param name       имя правила
+         * @param conclusion заключение правила
+         * @param all        номера условий, которые должны выполняться все
+         * @param any        номера условий, из которых должно выполняться хотя бы одно
+         * @param invoker    действие правила
+         * @return добавленное правило
+         */
+        public CompiledRule rule(String name, String conclusion, int[] all, int[] any, RuleInvoker invoker) {
+            var rule = new CompiledRule(rules.size(), name, conclusion, all, any, invoker);
+            rules.add(rule);
+            conclusionKeys.add(SymbolTable.GLOBAL.key("goal", conclusion));
+            rulesByConclusion
+                    .computeIfAbsent(conclusion.toLowerCase(Locale.ROOT), key -> new ArrayList<>())
+                    .add(rule.id());
+            return rule;
+        }
+
+        /**
+         * Завершает построение и компилирует Rete-сеть.
+         *
+         * @return скомпилированная база знаний
+         */
+        public CompiledRuleBase build() {
+            var index = new HashMap<String, int[]>();
+            rulesByConclusion.forEach((conclusion, ids) ->
+                    index.put(conclusion, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new CompiledRuleBase(rules, conditionKeys.toArray(), conditionIds,
+                    conclusionKeys.toArray(), index);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.baza.engine;
+
+/**
+ * Заключение, полученное при срабатывании правила.
+ *
+ * <p>Правила не печатают результат, а возвращают его: значение метода-правила
+ * (например, текст рекомендации) попадает в {@link #value()} и собирается
+ * движком в {@link InferenceResult} или {@link GoalResult}.
+ *
+ * @param rule       имя сработавшего правила
+ * @param conclusion заключение правила
+ * @param value      значение, возвращённое методом-правилом, или {@code null}
+ */
+public record Conclusion(String rule, String conclusion, Object value) {
+}
@@ -0,0 +1,79 @@
+package ru.baza.engine;
+
+import java.io.PrintStream;
+
+/**
+ * Слушатель, печатающий ход вывода в консоль.
+ *
+ * <p>Воспроизводит трассировку, которую раньше печатал сам {@link RuleEngine}.
+ */
+public class ConsoleTraceListener implements InferenceListener {
+
+    private final PrintStream out;
+
+    /**
+     * Создаёт слушатель, печатающий в {@link System#out}.
+     */
+    public ConsoleTraceListener() {
+        this(System.out);
+    }
+
+    /**
+     * Создаёт слушатель, печатающий в заданный поток.
+     *
+     * @param out поток вывода
+     */
+    public ConsoleTraceListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void ruleFired(Conclusion conclusion) {
+        out.println("⚡ Сработало правило " + conclusion.rule() + ": " + conclusion.conclusion());
+    }
+
+    @Override
+    public void ruleRetracted(Conclusion conclusion) {
+        out.println("↩️ Отозвано правило " + conclusion.rule() + ": " + conclusion.conclusion());
+    }
+
+    @Override
+    public void goalStarted(String goal) {
+        out.println("🎯 Проверяем цель: " + goal);
+    }
+
+    @Override
+    public void goalKnown(String goal) {
+        out.println("✅ Цель " + goal + " уже известна из фактов.");
+    }
+
+    @Override
+    public void goalFailedBefore(String goal) {
+        out.println("❌ Цель " + goal + " уже не удалось доказать.");
+    }
+
+    @Override
+    public void cycleDetected(String goal) {
+        out.println("🔁 Цель " + goal + " уже доказывается — цикл.");
+    }
+
+    @Override
+    public void ruleFound(String goal, String rule) {
+        out.println("📘 Найдено правило для " + goal + ": " + rule);
+    }
+
+    @Override
+    public void conditionMissing(String name, String value) {
+        out.println("🔍 Факта " + name + "=" + value + " нет. Пытаемся доказать...");
+    }
+
+    @Override
+    public void goalProven(String goal) {
+        out.println("✅ Условия для " + goal + " выполнены. Добавляем факт: " + goal);
+    }
+
+    @Override
+    public void goalFailed(String goal) {
+        out.println("❌ Не удалось доказать цель: " + goal);
+    }
+}
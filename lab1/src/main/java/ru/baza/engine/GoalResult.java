@@ -0,0 +1,18 @@
+package ru.baza.engine;
+
+import java.util.List;
+
+/**
+ * Результат обратного вывода для одной цели.
+ *
+ * @param goal        искомая цель
+ * @param proven      {@code true}, если цель доказана
+ * @param conclusions заключения правил, сработавших при доказательстве,
+ *                    в порядке срабатывания
+ */
+public record GoalResult(String goal, boolean proven, List<Conclusion> conclusions) {
+
+    public GoalResult {
+        conclusions = List.copyOf(conclusions);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.baza.engine;
+
+/**
+ * Слушатель событий вывода — трассировка работы {@link RuleEngine}.
+ *
+ * <p>Все методы имеют пустую реализацию по умолчанию. Движок по умолчанию
+ * использует {@link #NONE}: вызовы пустых методов встраиваются JIT-компилятором,
+ * а строки сообщений формирует только сам слушатель, поэтому отключённая
+ * трассировка ничего не стоит.
+ *
+ * <p>Слушатель, переданный движку, который выполняет пакетный вывод,
+ * вызывается из нескольких потоков одновременно.
+ *
+ * @see ConsoleTraceListener
+ */
+public interface InferenceListener {
+
+    /** Слушатель, игнорирующий все события. */
+    InferenceListener NONE = new InferenceListener() {};
+
+    /**
+     * Правило сработало.
+     *
+     * @param conclusion заключение правила
+     */
+    default void ruleFired(Conclusion conclusion) {}
+
+    /**
+     * Заключение правила отозвано: в сеансе {@link RuleSession} условия
+     * правила перестали выполняться.
+     *
+     * @param conclusion отозванное заключение
+     */
+    default void ruleRetracted(Conclusion conclusion) {}
+
+    /**
+     * Обратный вывод начал проверку цели.
+     *
+     * @param goal цель
+     */
+    default void goalStarted(String goal) {}
+
+    /**
+     * Цель уже известна из фактов.
+     *
+     * @param goal цель
+     */
+    default void goalKnown(String goal) {}
+
+    /**
+     * Цель уже не удалось доказать ранее в этом сеансе.
+     *
+     * @param goal цель
+     */
+    default void goalFailedBefore(String goal) {}
+
+    /**
+     * Цель уже доказывается выше по стеку — обнаружен цикл.
+     *
+     * @param goal цель
+     */
+    default void cycleDetected(String goal) {}
+
+    /**
+     * Найдено правило, заключение которого совпадает с целью.
+     *
+     * @param goal цель
+     * @param rule имя правила
+     */
+    default void ruleFound(String goal, String rule) {}
+
+    /**
+     * Условие правила не найдено среди фактов и будет доказываться как подцель.
+     *
+     * @param name  имя факта
+     * @param value значение факта
+     */
+    default void conditionMissing(String name, String value) {}
+
+    /**
+     * Цель доказана.
+     *
+     * @param goal цель
+     */
+    default void goalProven(String goal) {}
+
+    /**
+     * Цель не удалось доказать.
+     *
+     * @param goal цель
+     */
+    default void goalFailed(String goal) {}
+}
@@ -0,0 +1,22 @@
+package ru.baza.engine;
+
+import java.util.List;
+
+/**
+ * Результат прямого вывода для одного набора фактов.
+ *
+ * @param conclusions заключения сработавших правил в порядке срабатывания
+ */
+public record InferenceResult(List<Conclusion> conclusions) {
+
+    public InferenceResult {
+        conclusions = List.copyOf(conclusions);
+    }
+
+    /**
+     * @return {@code true}, если ни одно правило не сработало
+     */
+    public boolean isEmpty() {
+        return conclusions.isEmpty();
+    }
+}
@@ -0,0 +1,219 @@
+package ru.baza.engine;
+
+import ru.baza.model.SymbolTable;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Компактный двоичный снимок скомпилированной базы знаний.
+ *
+ * <p>Снимок позволяет не разбирать аннотации или JSON при каждом запуске:
+ * файл отображается в память через {@link FileChannel#map} и читается
+ * за один проход без промежуточных объектов.
+ *
+ * <h3>Формат (версия 1, big-endian)</h3>
+ * <pre>
+ * int    magic = 'RBSN'
+ * int    version
+ * int    symbolCount
+ *        symbolCount × { int length; byte[length] utf8 }
+ * int    conditionCount
+ *        conditionCount × { int nameSymbol; int valueSymbol }
+ * int    ruleCount
+ *        ruleCount × { int nameSymbol; int conclusionSymbol;
+ *                      int allCount; int[allCount] conditions;
+ *                      int anyCount; int[anyCount] conditions }
+ * </pre>
+ * Номера символов — локальные для файла: запись не добавляет символов
+ * в {@link SymbolTable#GLOBAL}. При чтении в таблицу попадают только
+ * символы условий и заключений — как при компиляции любой базы знаний.
+ *
+ * <p>Снимок хранит только данные правил. Правила, прочитанные из снимка,
+ * при срабатывании возвращают своё заключение (как правила из JSON);
+ * тела методов аннотированных баз знаний в снимок не попадают.
+ */
+public final class RuleBaseSnapshot {
+
+    private static final int MAGIC = 0x5242534E;
+    private static final int VERSION = 1;
+
+    private RuleBaseSnapshot() {}
+
+    /**
+     * Записывает снимок базы знаний в файл, перезаписывая его.
+     *
+     * @param rules скомпилированная база знаний
+     * @param path  путь к файлу снимка
+     * @throws IOException если файл не удалось записать
+     */
+    public static void write(CompiledRuleBase rules, Path path) throws IOException {
+        var symbols = SymbolTable.GLOBAL;
+
+        // Локальная таблица символов: строка → номер в файле, в порядке появления
+        var localIds = new LinkedHashMap<String, Integer>();
+        var conditionSymbols = new int[rules.conditionCount() * 2];
+        for (var i = 0; i < rules.conditionCount(); i++) {
+            var key = rules.conditionKey(i);
+            conditionSymbols[2 * i] = localSymbol(symbols.symbol(SymbolTable.nameId(key)), localIds);
+            conditionSymbols[2 * i + 1] = localSymbol(symbols.symbol(SymbolTable.valueId(key)), localIds);
+        }
+        var ruleSymbols = new int[rules.rules().size() * 2];
+        for (var rule : rules.rules()) {
+            ruleSymbols[2 * rule.id()] = localSymbol(rule.name(), localIds);
+            ruleSymbols[2 * rule.id() + 1] = localSymbol(rule.conclusion(), localIds);
+        }
+
+        var encoded = new byte[localIds.size()][];
+        long size = 4L * 3;
+        var index = 0;
+        for (var symbol : localIds.keySet()) {
+            encoded[index] = symbol.getBytes(StandardCharsets.UTF_8);
+            size += 4L + encoded[index++].length;
+        }
+        size += 4L + 8L * rules.conditionCount();
+        size += 4L;
+        for (var rule : rules.rules()) {
+            size += 4L * (4 + rule.all().length + rule.any().length);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Снимок слишком велик для отображения в память: " + size + " байт");
+        }
+
+        try (var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+
+            buffer.putInt(encoded.length);
+            for (var bytes : encoded) {
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+
+            buffer.putInt(rules.conditionCount());
+            for (var symbol : conditionSymbols) {
+                buffer.putInt(symbol);
+            }
+
+            buffer.putInt(rules.rules().size());
+            for (var rule : rules.rules()) {
+                buffer.putInt(ruleSymbols[2 * rule.id()]);
+                buffer.putInt(ruleSymbols[2 * rule.id() + 1]);
+                putIds(buffer, rule.all());
+                putIds(buffer, rule.any());
+            }
+
+            buffer.force();
+        }
+    }
+
+    /**
+     * Читает снимок базы знаний.
+     *
+     * @param path путь к файлу снимка
+     * @return скомпилированная база знаний
+     * @throws IOException если файл не удалось прочитать или его формат не поддерживается
+     */
+    public static CompiledRuleBase read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("Файл не является снимком базы знаний: " + path);
+            }
+            var version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия снимка: " + version);
+            }
+
+            // Каждый символ занимает не меньше 4 байт — поля длины
+            var symbols = new String[checkedLength(buffer, buffer.getInt(), 4, path)];
+            for (var i = 0; i < symbols.length; i++) {
+                var bytes = new byte[checkedLength(buffer, buffer.getInt(), 1, path)];
+                buffer.get(bytes);
+                symbols[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            // Символы интернируются по мере использования в условиях; имена правил — нет
+            var symbolIds = new int[symbols.length];
+            Arrays.fill(symbolIds, -1);
+            var builder = CompiledRuleBase.builder();
+            var conditions = new int[checkedLength(buffer, buffer.getInt(), 8, path)];
+            for (var i = 0; i < conditions.length; i++) {
+                var nameId = symbolId(buffer.getInt(), symbols, symbolIds);
+                var valueId = symbolId(buffer.getInt(), symbols, symbolIds);
+                conditions[i] = builder.condition(SymbolTable.pack(nameId, valueId));
+            }
+
+            var ruleCount = buffer.getInt();
+            for (var i = 0; i < ruleCount; i++) {
+                var name = symbols[buffer.getInt()];
+                var conclusion = symbols[buffer.getInt()];
+                var all = getIds(buffer, conditions, path);
+                var any = getIds(buffer, conditions, path);
+                builder.rule(name, conclusion, all, any, RuleInvoker.returning(conclusion));
+            }
+            return builder.build();
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Снимок базы знаний повреждён: " + path, e);
+        }
+    }
+
+    private static int localSymbol(String symbol, Map<String, Integer> localIds) {
+        var id = localIds.get(symbol);
+        if (id == null) {
+            id = localIds.size();
+            localIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    private static int symbolId(int local, String[] symbols, int[] symbolIds) {
+        var id = symbolIds[local];
+        if (id < 0) {
+            id = symbolIds[local] = SymbolTable.GLOBAL.intern(symbols[local]);
+        }
+        return id;
+    }
+
+    private static void putIds(ByteBuffer buffer, int[] ids) {
+        buffer.putInt(ids.length);
+        for (var id : ids) {
+            buffer.putInt(id);
+        }
+    }
+
+    private static int[] getIds(ByteBuffer buffer, int[] conditions, Path path) throws IOException {
+        var ids = new int[checkedLength(buffer, buffer.getInt(), 4, path)];
+        for (var i = 0; i < ids.length; i++) {
+            ids[i] = conditions[buffer.getInt()];
+        }
+        return ids;
+    }
+
+    /**
+     * Проверяет длину массива, прочитанную из файла, до выделения памяти:
+     * в повреждённом снимке она может быть сколь угодно большой.
+     */
+    private static int checkedLength(ByteBuffer buffer, int count, int elementSize, Path path) throws IOException {
+        if (count < 0 || (long) count * elementSize > buffer.remaining()) {
+            throw new IOException("Снимок базы знаний повреждён: длина " + count
+                    + " превышает остаток файла " + buffer.remaining() + " байт: " + path);
+        }
+        return count;
+    }
+}
@@ -2,15 +2,17 @@ package ru.baza.engine;
 
 import ru.baza.annotations.Rule;
 import ru.baza.annotations.FactCondition;
+import ru.baza.engine.rete.ReteNetwork;
 import ru.baza.knowledges.KnowledgeBase;
 import ru.baza.model.Fact;
+import ru.baza.model.WorkingMemory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
 /**
  * Движок правил экспертной системы, выполняющий:
@@ -22,11 +24,27 @@ import java.util.stream.Collectors;
  * <p>Правила задаются методами внутри наследников {@link KnowledgeBase},
  * помеченными аннотацией {@link Rule}. Каждое правило описывает условия
  * на основе набора {@link FactCondition} и действия — тело метода.
+ * Аннотации разбираются один раз на класс базы знаний в {@link RuleRegistry};
+ * при выводе движок работает только со {@link CompiledRuleBase}.
  *
  * <h2>1. Прямой вывод</h2>
- * Метод {@link #run(KnowledgeBase, Collection)} последовательно проверяет все
- * правила, сравнивая условия с уже известными фактами. Если правило выполнено,
- * вызывается соответствующий метод базы знаний.
+ * Метод {@link #run(KnowledgeBase, Collection)} сопоставляет факты с правилами
+ * через {@link ReteNetwork}: сеть строится вместе с {@link CompiledRuleBase},
+ * а каждый факт обрабатывается инкрементально — только теми
+ * правилами, которые ссылаются на его условие. Если правило выполнено,
+ * вызывается соответствующий метод базы знаний. Метод
+ * {@link #infer(KnowledgeBase, Collection)} дополнительно возвращает
+ * заключения сработавших правил, а {@code runBatch(...)} выполняет вывод
+ * для множества независимых наборов фактов параллельно.
+ *
+ * <p>Если факты меняются понемногу, удобнее сеанс {@link RuleSession}
+ * ({@link #newSession(KnowledgeBase)}): он хранит состояние сети между
+ * изменениями, обрабатывает только затронутые правила и отзывает
+ * заключения и выведенные факты, потерявшие основание.
+ *
+ * <p>Правила сообщают результат не печатью, а возвращаемым значением метода:
+ * движок собирает его в {@link Conclusion}. Трассировка вывода подключается
+ * через {@link InferenceListener} и по умолчанию отключена.
  *
  * <h2>2. Обратный вывод</h2>
  * Метод {@link #backwardChain(KnowledgeBase, Collection, String)} пытается
@@ -35,193 +53,261 @@ import java.util.stream.Collectors;
  * <ol>
  *     <li>Если цель уже содержится среди фактов — успех.</li>
  *     <li>Если найдены правила, чьи заключения совпадают с целью — проверяются их условия.</li>
- *     <li>Если условие не выполняется, движок рекурсивно пытается доказать его как новую цель.</li>
+ *     <li>Если условие не выполняется, движок пытается доказать его как новую цель.</li>
  *     <li>Если все условия правила доказаны — цель считается выведенной.</li>
  * </ol>
  *
+ * <p>Подцели обрабатываются на явном стеке с таблицей неудач и обнаружением
+ * циклов (см. {@link BackwardChaining}), поэтому каждая цель раскрывается
+ * не более одного раза за вызов, а глубокие графы целей не переполняют стек JVM.
+ *
  * <p>Используется классический механизм логического вывода, подобный тому,
  * что реализуют экспертные системы первого поколения.
  */
 public class RuleEngine {
 
+    private final InferenceListener listener;
+
     /**
-     * Выполняет прямой вывод: проверяет все правила базы знаний,
-     * и при выполнении условий вызывает соответствующий метод.
+     * Создаёт движок без трассировки.
+     */
+    public RuleEngine() {
+        this(InferenceListener.NONE);
+    }
+
+    /**
+     * Создаёт движок, сообщающий о ходе вывода слушателю.
+     *
+     * @param listener слушатель событий вывода, например {@link ConsoleTraceListener}
+     */
+    public RuleEngine(InferenceListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Выполняет прямой вывод: пропускает факты через скомпилированную
+     * Rete-сеть базы знаний и вызывает методы активированных правил
+     * в порядке их объявления.
      *
      * @param knowledgeBase база знаний с правилами
      * @param facts         текущий набор фактов
      * @param <T>           тип базы знаний
      */
     public <T extends KnowledgeBase> void run(T knowledgeBase, Collection<Fact> facts) {
-        for (var method : getRuleMethods(knowledgeBase)) {
-            var rule = method.getAnnotation(Rule.class);
-
-            var allTrue = checkAllConditions(facts, rule.all());
-            var anyTrue = checkAnyConditions(facts, rule.any());
-
-            if (allTrue && anyTrue) {
-                invokeMethod(method, knowledgeBase);
-            }
-        }
+        infer(knowledgeBase, RuleRegistry.of(knowledgeBase), facts);
     }
 
     /**
-     * Проверяет, выполнены ли все условия правила.
+     * Выполняет прямой вывод и возвращает заключения сработавших правил.
      *
-     * @param facts      набор фактов
-     * @param conditions условия правила
-     * @return true, если все условия найдены среди фактов
+     * @param knowledgeBase база знаний с правилами
+     * @param facts         текущий набор фактов
+     * @param <T>           тип базы знаний
+     * @return заключения сработавших правил
      */
-    private boolean checkAllConditions(Collection<Fact> facts, FactCondition[] conditions) {
-        return Arrays.stream(conditions)
-                .allMatch(cond -> facts.stream().anyMatch(f -> f.matches(cond)));
+    public <T extends KnowledgeBase> InferenceResult infer(T knowledgeBase, Collection<Fact> facts) {
+        return infer(knowledgeBase, RuleRegistry.of(knowledgeBase), facts);
+    }
+
+    private InferenceResult infer(KnowledgeBase knowledgeBase, CompiledRuleBase rules, Collection<Fact> facts) {
+        var network = rules.network();
+        var memory = network.acquire();
+        int[] activations;
+        try {
+            if (facts instanceof WorkingMemory workingMemory) {
+                workingMemory.forEachKey(memory::insert);
+            } else {
+                for (var fact : facts) {
+                    memory.insert(fact);
+                }
+            }
+            activations = memory.activations();
+        } finally {
+            // Правила выполняются после возврата памяти: вложенный вывод из правила её не заденет
+            network.release(memory);
+        }
+
+        var conclusions = new ArrayList<Conclusion>(activations.length);
+        for (var id : activations) {
+            var rule = rules.rule(id);
+            var conclusion = new Conclusion(rule.name(), rule.conclusion(), rule.invoker().invoke(knowledgeBase));
+            conclusions.add(conclusion);
+            listener.ruleFired(conclusion);
+        }
+        return new InferenceResult(conclusions);
     }
 
     /**
-     * Проверяет, выполнено ли хотя бы одно условие правила.
+     * Создаёт сеанс прямого вывода с инкрементальным добавлением
+     * и удалением фактов.
      *
-     * @param facts      набор фактов
-     * @param conditions условия правила
-     * @return true, если список условий пуст или хотя бы одно условие выполнено
+     * @param knowledgeBase база знаний с правилами
+     * @param <T>           тип базы знаний
+     * @return новый сеанс без фактов
      */
-    private boolean checkAnyConditions(Collection<Fact> facts, FactCondition[] conditions) {
-        return conditions.length == 0 ||
-                Arrays.stream(conditions)
-                        .anyMatch(cond -> facts.stream().anyMatch(f -> f.matches(cond)));
+    public <T extends KnowledgeBase> RuleSession newSession(T knowledgeBase) {
+        return new RuleSession(knowledgeBase, RuleRegistry.of(knowledgeBase), listener);
     }
 
     /**
-     * Извлекает методы базы знаний, отмеченные аннотацией {@link Rule}.
+     * Создаёт сеанс прямого вывода и добавляет в него начальные факты.
      *
-     * @param knowledgeBase объект базы знаний
+     * @param knowledgeBase база знаний с правилами
+     * @param facts         начальные факты
      * @param <T>           тип базы знаний
-     * @return список методов-правил
+     * @return новый сеанс
      */
-    private <T extends KnowledgeBase> List<Method> getRuleMethods(T knowledgeBase) {
-        return Arrays.stream(knowledgeBase.getClass().getDeclaredMethods())
-                .filter(m -> m.isAnnotationPresent(Rule.class))
-                .collect(Collectors.toList());
+    public <T extends KnowledgeBase> RuleSession newSession(T knowledgeBase, Collection<Fact> facts) {
+        var session = newSession(knowledgeBase);
+        for (var fact : facts) {
+            session.insert(fact);
+        }
+        return session;
     }
 
     // -------------------------------------------------------------------------
-    //                           ОБРАТНЫЙ ВЫВОД
+    //                           ПАКЕТНЫЙ ВЫВОД
     // -------------------------------------------------------------------------
 
     /**
-     * Выполняет обратный вывод (backward chaining) для доказательства цели.
+     * Выполняет прямой вывод для множества независимых наборов фактов
+     * параллельно в общем {@link ForkJoinPool}.
      *
-     * @param knowledgeBase база знаний
-     * @param facts         текущие факты
-     * @param goal          искомая цель
+     * @param knowledgeBase база знаний с правилами; её методы-правила должны
+     *                      допускать одновременный вызов из нескольких потоков
+     * @param factSets      наборы фактов, по одному на запрос
      * @param <T>           тип базы знаний
-     * @return true, если цель доказана
+     * @return результаты в том же порядке, что и наборы фактов
      */
-    public <T extends KnowledgeBase> boolean backwardChain(T knowledgeBase, Collection<Fact> facts, String goal) {
-        System.out.println("🎯 Проверяем цель: " + goal);
-
-        // 1. Если факт уже известен — доказано
-        if (isKnownGoal(facts, goal)) {
-            System.out.println("✅ Цель " + goal + " уже известна из фактов.");
-            return true;
-        }
-
-        // 2. Ищем правила, заключение которых совпадает с целью
-        for (var method : getRuleMethods(knowledgeBase)) {
-            var conclusion = extractConclusionFromMethod(method);
-            if (!conclusion.equalsIgnoreCase(goal)) continue;
-
-            var rule = method.getAnnotation(Rule.class);
-            System.out.println("📘 Найдено правило для " + goal + ": " + method.getName());
-
-            // 3. Проверяем/доказываем условия правила
-            if (proveAllConditions(knowledgeBase, facts, rule.all())) {
-                System.out.println("✅ Условия для " + goal + " выполнены. Добавляем факт: " + goal);
-                facts.add(new Fact("goal", goal));
-                invokeMethod(method, knowledgeBase);
-                return true;
-            }
-        }
-
-        System.out.println("❌ Не удалось доказать цель: " + goal);
-        return false;
+    public <T extends KnowledgeBase> List<InferenceResult> runBatch(
+            T knowledgeBase,
+            List<? extends Collection<Fact>> factSets
+    ) {
+        return runBatch(knowledgeBase, factSets, ForkJoinPool.commonPool());
     }
 
     /**
-     * Проверяет, известна ли цель среди фактов.
+     * Выполняет прямой вывод для множества независимых наборов фактов
+     * параллельно в заданном пуле.
+     *
+     * <p>Скомпилированные правила и Rete-сеть разделяются всеми задачами;
+     * у каждой задачи своя рабочая память, поэтому синхронизации между
+     * запросами нет.
      *
-     * @param facts набор фактов
-     * @param goal  искомая цель
-     * @return true, если факт найден
+     * @param knowledgeBase база знаний с правилами
+     * @param factSets      наборы фактов, по одному на запрос
+     * @param pool          пул потоков для выполнения
+     * @param <T>           тип базы знаний
+     * @return результаты в том же порядке, что и наборы фактов
      */
-    private boolean isKnownGoal(Collection<Fact> facts, String goal) {
-        return facts.stream().anyMatch(f ->
-                f.name().equalsIgnoreCase(goal) || f.value().equalsIgnoreCase(goal)
-        );
+    public <T extends KnowledgeBase> List<InferenceResult> runBatch(
+            T knowledgeBase,
+            List<? extends Collection<Fact>> factSets,
+            ForkJoinPool pool
+    ) {
+        var rules = RuleRegistry.of(knowledgeBase);
+        var results = new InferenceResult[factSets.size()];
+        pool.invoke(new BatchTask(knowledgeBase, rules, factSets, results, 0, results.length));
+        return List.of(results);
     }
 
     /**
-     * Пытается доказать все условия правила в контексте обратного вывода.
+     * Выполняет прямой вывод для потока независимых наборов фактов.
      *
-     * @param knowledgeBase база знаний
-     * @param facts         текущие факты
-     * @param conditions    условия правила
+     * <p>Поток обрабатывается параллельно в общем {@link ForkJoinPool};
+     * порядок результатов соответствует порядку встречи элементов.
+     *
+     * @param knowledgeBase база знаний с правилами
+     * @param factSets      поток наборов фактов
      * @param <T>           тип базы знаний
-     * @return true, если все условия доказаны или уже известны
+     * @return результаты в порядке встречи наборов фактов
      */
-    private <T extends KnowledgeBase> boolean proveAllConditions(
+    public <T extends KnowledgeBase> List<InferenceResult> runBatch(
             T knowledgeBase,
-            Collection<Fact> facts,
-            FactCondition[] conditions
+            Stream<? extends Collection<Fact>> factSets
     ) {
-        for (var cond : conditions) {
-            var factKnown = facts.stream().anyMatch(f -> f.matches(cond));
+        var rules = RuleRegistry.of(knowledgeBase);
+        return factSets.parallel()
+                .map(facts -> infer(knowledgeBase, rules, facts))
+                .toList();
+    }
+
+    /**
+     * Задача пакетного вывода: делит диапазон запросов пополам, пока он
+     * не станет меньше порога, после чего обрабатывает его последовательно.
+     */
+    @SuppressWarnings("serial") // задачи ForkJoin не сериализуются, Serializable унаследован от ForkJoinTask
+    private final class BatchTask extends RecursiveAction {
 
-            if (!factKnown) {
-                System.out.println("🔍 Факта " + cond.name() + "=" + cond.value() +
-                        " нет. Пытаемся доказать...");
+        private static final int THRESHOLD = 16;
 
-                if (!backwardChain(knowledgeBase, facts, cond.value())) {
-                    return false;
+        private final KnowledgeBase knowledgeBase;
+        private final CompiledRuleBase rules;
+        private final List<? extends Collection<Fact>> factSets;
+        private final InferenceResult[] results;
+        private final int from;
+        private final int to;
+
+        BatchTask(KnowledgeBase knowledgeBase, CompiledRuleBase rules, List<? extends Collection<Fact>> factSets,
+                  InferenceResult[] results, int from, int to) {
+            this.knowledgeBase = knowledgeBase;
+            this.rules = rules;
+            this.factSets = factSets;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (var i = from; i < to; i++) {
+                    results[i] = infer(knowledgeBase, rules, factSets.get(i));
                 }
+                return;
             }
+            var mid = (from + to) >>> 1;
+            invokeAll(
+                    new BatchTask(knowledgeBase, rules, factSets, results, from, mid),
+                    new BatchTask(knowledgeBase, rules, factSets, results, mid, to)
+            );
         }
-        return true;
     }
 
+    // -------------------------------------------------------------------------
+    //                           ОБРАТНЫЙ ВЫВОД
+    // -------------------------------------------------------------------------
+
     /**
-     * Извлекает заключение правила из имени метода.
-     * <p>
-     * Например:
-     * <ul>
-     *     <li>{@code ruleColdWeather → ColdWeather}</li>
-     *     <li>{@code diagnoseFlu → diagnoseFlu}</li>
-     * </ul>
+     * Выполняет обратный вывод (backward chaining) для доказательства цели.
      *
-     * @param method метод-правило
-     * @return строка заключения правила
+     * <p>Факты индексируются в {@link WorkingMemory} (если переданная
+     * коллекция ещё не является ею), поэтому проверка каждого условия
+     * выполняется за O(1). Доказанные цели добавляются и в исходную коллекцию.
+     * Таблица недоказанных целей живёт в пределах одного вызова.
+     *
+     * @param knowledgeBase база знаний
+     * @param facts         текущие факты
+     * @param goal          искомая цель
+     * @param <T>           тип базы знаний
+     * @return true, если цель доказана
      */
-    private String extractConclusionFromMethod(Method method) {
-        var name = method.getName();
-        return name.startsWith("rule") && name.length() > 4
-                ? name.substring(4)
-                : name;
+    public <T extends KnowledgeBase> boolean backwardChain(T knowledgeBase, Collection<Fact> facts, String goal) {
+        return prove(knowledgeBase, facts, goal).proven();
     }
 
     /**
-     * Вызывает метод-правило через reflection.
+     * Выполняет обратный вывод и возвращает результат вместе с заключениями
+     * правил, сработавших при доказательстве цели.
      *
-     * @param method        метод базы знаний
-     * @param knowledgeBase объект базы знаний
+     * @param knowledgeBase база знаний
+     * @param facts         текущие факты; доказанные цели добавляются в них
+     * @param goal          искомая цель
      * @param <T>           тип базы знаний
+     * @return результат доказательства
      */
-    private <T> void invokeMethod(Method method, T knowledgeBase) {
-        try {
-            if (!method.canAccess(knowledgeBase)) {
-                method.setAccessible(true);
-            }
-            method.invoke(knowledgeBase);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Не удалось вызвать правило: " + method.getName(), e);
-        }
+    public <T extends KnowledgeBase> GoalResult prove(T knowledgeBase, Collection<Fact> facts, String goal) {
+        return new BackwardChaining(knowledgeBase, RuleRegistry.of(knowledgeBase), WorkingMemory.of(facts), listener)
+                .prove(goal);
     }
 }
@@ -0,0 +1,36 @@
+package ru.baza.engine;
+
+import ru.baza.knowledges.KnowledgeBase;
+
+/**
+ * Скомпилированный вызов метода-правила.
+ *
+ * <p>Экземпляры создаются один раз при компиляции базы знаний
+ * (см. {@link RuleRegistry}) через {@code LambdaMetafactory}, поэтому
+ * срабатывание правила — обычный интерфейсный вызов без reflection.
+ */
+@FunctionalInterface
+public interface RuleInvoker {
+
+    /**
+     * Выполняет действие правила.
+     *
+     * @param knowledgeBase экземпляр базы знаний, которому принадлежит правило
+     * @return значение, возвращённое методом-правилом, или {@code null}
+     *         для методов без результата
+     */
+    Object invoke(KnowledgeBase knowledgeBase);
+
+    /**
+     * Возвращает действие, которое всегда возвращает заданное значение.
+     *
+     * <p>Используется для правил, загруженных из данных, у которых нет
+     * метода-правила: результатом срабатывания служит их заключение.
+     *
+     * @param value значение
+     * @return действие правила
+     */
+    static RuleInvoker returning(Object value) {
+        return knowledgeBase -> value;
+    }
+}
@@ -0,0 +1,197 @@
+package ru.baza.engine;
+
+import ru.baza.annotations.FactCondition;
+import ru.baza.annotations.Rule;
+import ru.baza.knowledges.KnowledgeBase;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * Реестр скомпилированных баз знаний.
+ *
+ * <p>Для каждого класса {@link KnowledgeBase} аннотации {@link Rule}
+ * разбираются ровно один раз: результат кешируется в {@link ClassValue},
+ * который привязан к жизненному циклу класса и не мешает его выгрузке.
+ *
+ * <p>При компиляции:
+ * <ul>
+ *     <li>заключения вычисляются заранее из имён методов;</li>
+ *     <li>условия {@link FactCondition} интернируются в {@link ru.baza.model.SymbolTable#GLOBAL}
+ *         и заменяются номерами в таблице условий базы знаний;</li>
+ *     <li>методы-правила связываются с {@link RuleInvoker} через {@link LambdaMetafactory},
+ *         поэтому при выводе reflection не используется.</li>
+ * </ul>
+ */
+public final class RuleRegistry {
+
+    private static final ClassValue<CompiledRuleBase> CACHE = new ClassValue<>() {
+        @Override
+        protected CompiledRuleBase computeValue(Class<?> type) {
+            return compile(type.asSubclass(KnowledgeBase.class));
+        }
+    };
+
+    private RuleRegistry() {}
+
+    /**
+     * Возвращает скомпилированные правила класса базы знаний.
+     *
+     * @param knowledgeBaseClass класс базы знаний
+     * @return скомпилированная база знаний
+     */
+    public static CompiledRuleBase of(Class<? extends KnowledgeBase> knowledgeBaseClass) {
+        return CACHE.get(knowledgeBaseClass);
+    }
+
+    /**
+     * Возвращает скомпилированные правила базы знаний.
+     *
+     * <p>Базы знаний, которые сами предоставляют правила
+     * ({@link CompiledKnowledgeBase}), не разбираются через аннотации.
+     *
+     * @param knowledgeBase база знаний
+     * @return скомпилированная база знаний
+     */
+    public static CompiledRuleBase of(KnowledgeBase knowledgeBase) {
+        return knowledgeBase instanceof CompiledKnowledgeBase compiled
+                ? compiled.compiledRules()
+                : of(knowledgeBase.getClass());
+    }
+
+    private static CompiledRuleBase compile(Class<? extends KnowledgeBase> knowledgeBaseClass) {
+        var lookup = privateLookup(knowledgeBaseClass);
+        var builder = CompiledRuleBase.builder();
+
+        for (var method : knowledgeBaseClass.getDeclaredMethods()) {
+            var rule = method.getAnnotation(Rule.class);
+            if (rule == null) continue;
+
+            builder.rule(
+                    method.getName(),
+                    extractConclusionFromMethod(method),
+                    conditionIds(builder, rule.all()),
+                    conditionIds(builder, rule.any()),
+                    invoker(lookup, method)
+            );
+        }
+        return builder.build();
+    }
+
+    private static int[] conditionIds(CompiledRuleBase.Builder builder, FactCondition[] conditions) {
+        var result = new int[conditions.length];
+        for (var i = 0; i < conditions.length; i++) {
+            result[i] = builder.condition(conditions[i].name(), conditions[i].value());
+        }
+        return result;
+    }
+
+    /**
+     * Извлекает заключение правила из имени метода.
+     * <p>
+     * Например:
+     * <ul>
+     *     <li>{@code ruleColdWeather → ColdWeather}</li>
+     *     <li>{@code diagnoseFlu → diagnoseFlu}</li>
+     * </ul>
+     *
+     * @param method метод-правило
+     * @return строка заключения правила
+     */
+    private static String extractConclusionFromMethod(Method method) {
+        var name = method.getName();
+        return name.startsWith("rule") && name.length() > 4
+                ? name.substring(4)
+                : name;
+    }
+
+    private static MethodHandles.Lookup privateLookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к правилам базы знаний: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Связывает метод-правило с {@link RuleInvoker}.
+     *
+     * <p>Основной путь — {@link LambdaMetafactory}: сгенерированный класс
+     * вызывает метод напрямую и хорошо встраивается JIT-компилятором.
+     * Методы без результата связываются через {@link Consumer} и возвращают
+     * {@code null}. Если фабрика не может связать метод
+     * ({@link LambdaConversionException}), правило вызывается через заранее
+     * адаптированный {@link MethodHandle}. Ошибки JVM ({@link Error})
+     * не перехватываются.
+     */
+    private static RuleInvoker invoker(MethodHandles.Lookup lookup, Method method) {
+        try {
+            var handle = lookup.unreflect(method);
+            try {
+                return method.getReturnType() == void.class
+                        ? voidInvoker(lookup, handle)
+                        : (RuleInvoker) create(LambdaMetafactory.metafactory(
+                                lookup,
+                                "invoke",
+                                MethodType.methodType(RuleInvoker.class),
+                                MethodType.methodType(Object.class, KnowledgeBase.class),
+                                handle,
+                                handle.type()
+                        ));
+            } catch (LambdaConversionException e) {
+                return handleInvoker(method, handle.asType(MethodType.methodType(Object.class, KnowledgeBase.class)));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось связать правило: " + method.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RuleInvoker voidInvoker(MethodHandles.Lookup lookup, MethodHandle handle)
+            throws LambdaConversionException {
+        var action = (Consumer<KnowledgeBase>) create(LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(Consumer.class),
+                MethodType.methodType(void.class, Object.class),
+                handle,
+                handle.type()
+        ));
+        return knowledgeBase -> {
+            action.accept(knowledgeBase);
+            return null;
+        };
+    }
+
+    /**
+     * Создаёт экземпляр функционального интерфейса через фабрику без
+     * захваченных аргументов: она не бросает проверяемых исключений.
+     */
+    private static Object create(CallSite site) {
+        try {
+            return site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Фабрика правила бросила проверяемое исключение", e);
+        }
+    }
+
+    private static RuleInvoker handleInvoker(Method method, MethodHandle handle) {
+        return knowledgeBase -> {
+            try {
+                return (Object) handle.invokeExact(knowledgeBase);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Не удалось вызвать правило: " + method.getName(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,289 @@
+package ru.baza.engine;
+
+import ru.baza.engine.rete.ReteMemory;
+import ru.baza.knowledges.KnowledgeBase;
+import ru.baza.model.Fact;
+import ru.baza.model.SymbolTable;
+import ru.baza.util.LongHashSet;
+import ru.baza.util.LongIntHashMap;
+import ru.baza.util.LongList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Сеанс прямого вывода с инкрементальными изменениями фактов
+ * и поддержкой истинности (truth maintenance).
+ *
+ * <p>В отличие от {@link RuleEngine#infer(KnowledgeBase, java.util.Collection)},
+ * который каждый раз сопоставляет весь набор фактов заново, сеанс хранит
+ * состояние {@link ReteMemory} между вызовами {@link #insert(Fact)},
+ * {@link #retract(Fact)} и {@link #modify(Fact, Fact)}. Каждое изменение
+ * затрагивает только правила, ссылающиеся на изменённые факты, поэтому
+ * его стоимость пропорциональна изменению, а не размеру рабочей памяти.
+ *
+ * <h3>Выведенные факты</h3>
+ * Правило срабатывает, как только его условия становятся выполненными,
+ * и добавляет факт {@code goal=<заключение>} — тот же, что добавляет
+ * обратный вывод при доказательстве цели, — поэтому правила могут
+ * ссылаться на заключения других правил. У выведенного факта есть
+ * <b>поддержка</b> — число активных правил с таким заключением. Когда
+ * условия правила перестают выполняться, его заключение отзывается
+ * ({@link InferenceListener#ruleRetracted(Conclusion)}), а выведенные
+ * факты, потерявшие поддержку, удаляются вместе со следствиями.
+ *
+ * <p>Удаление выполняется по схеме «удалить и вывести заново» (DRed):
+ * сначала удаляются все выведенные факты, зависящие от удалённого,
+ * затем восстанавливаются те из них, которые по-прежнему выводятся
+ * оставшимися активными правилами. Так факты, поддерживающие друг друга
+ * только по циклу правил (в том числе правило, одно из условий {@code any}
+ * которого — его собственное заключение), не остаются в памяти после
+ * удаления их основы.
+ *
+ * <p>Символы фактов не добавляются в {@link SymbolTable#GLOBAL}: факт,
+ * имя или значение которого не встречается в правилах, хранится
+ * отдельно и на вывод не влияет.
+ *
+ * <p>Факт, добавленный явно, остаётся в памяти до явного удаления,
+ * даже если он также выводится правилами.
+ *
+ * <p>Сеанс не потокобезопасен.
+ */
+public final class RuleSession {
+
+    private final SymbolTable symbols = SymbolTable.GLOBAL;
+
+    private final KnowledgeBase knowledgeBase;
+    private final CompiledRuleBase rules;
+    private final InferenceListener listener;
+    private final ReteMemory memory;
+
+    /** Заключения активных правил по номеру правила; {@code null} — правило не активно. */
+    private final Conclusion[] fired;
+
+    /** Явно добавленные факты, символов которых нет в таблице. */
+    private final Set<Fact> unmatched = new HashSet<>();
+
+    /** Явно добавленные факты. */
+    private final LongHashSet stated = new LongHashSet();
+
+    /** Факты, видимые правилам: добавленные явно или выведенные. */
+    private final LongHashSet present = new LongHashSet();
+
+    /** Число активных правил, выводящих факт. */
+    private final LongIntHashMap support = new LongIntHashMap();
+
+    /** Факты, ожидающие распространения по сети. */
+    private final LongList pending = new LongList();
+
+    /** Выведенные факты, удалённые при текущем удалении, — кандидаты на повторный вывод. */
+    private final LongList overdeleted = new LongList();
+
+    private long firings;
+
+    RuleSession(KnowledgeBase knowledgeBase, CompiledRuleBase rules, InferenceListener listener) {
+        this.knowledgeBase = knowledgeBase;
+        this.rules = rules;
+        this.listener = listener;
+        this.memory = rules.network().newMemory();
+
+        this.fired = new Conclusion[rules.rules().size()];
+
+        // Правила без условий активны с момента создания памяти
+        for (var rule : memory.activations()) {
+            activated(rule);
+        }
+        propagateInserts();
+    }
+
+    /**
+     * Добавляет факт и выполняет правила, условия которых стали выполненными.
+     *
+     * @param fact факт
+     * @return {@code true}, если факт не был добавлен явно ранее
+     */
+    public boolean insert(Fact fact) {
+        var key = symbols.lookupKey(fact);
+        if (key == SymbolTable.NO_KEY) {
+            return unmatched.add(fact);
+        }
+        // Символы факта могли попасть в таблицу уже после его добавления
+        if (!unmatched.isEmpty() && unmatched.contains(fact) || !stated.add(key)) {
+            return false;
+        }
+        if (present.add(key)) {
+            pending.add(key);
+            propagateInserts();
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет явно добавленный факт, отзывает заключения правил, которые
+     * перестали выполняться, и удаляет потерявшие поддержку выведенные факты.
+     *
+     * @param fact факт
+     * @return {@code true}, если факт был добавлен явно
+     */
+    public boolean retract(Fact fact) {
+        if (!unmatched.isEmpty() && unmatched.remove(fact)) {
+            return true;
+        }
+        var key = symbols.lookupKey(fact);
+        if (key == SymbolTable.NO_KEY || !stated.remove(key)) {
+            return false;
+        }
+        present.remove(key);
+        overdeleted.add(key);
+        pending.add(key);
+        propagateRetracts();
+        return true;
+    }
+
+    /**
+     * Заменяет явно добавленный факт другим, например новым значением
+     * того же признака. Новый факт добавляется раньше, чем удаляется старый,
+     * поэтому правила, выполненные при обоих, не отзываются.
+     *
+     * @param oldFact заменяемый факт
+     * @param newFact новый факт
+     * @return {@code true}, если заменяемый факт был добавлен явно
+     */
+    public boolean modify(Fact oldFact, Fact newFact) {
+        if (!isStated(oldFact)) {
+            return false;
+        }
+        if (!oldFact.equals(newFact)) {
+            insert(newFact);
+            retract(oldFact);
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, известен ли факт — добавлен явно или выведен правилами.
+     *
+     * @param fact факт
+     * @return {@code true}, если факт известен
+     */
+    public boolean contains(Fact fact) {
+        var key = symbols.lookupKey(fact);
+        if (key == SymbolTable.NO_KEY) {
+            return unmatched.contains(fact);
+        }
+        return present.contains(key) || !unmatched.isEmpty() && unmatched.contains(fact);
+    }
+
+    /**
+     * Проверяет, добавлен ли факт явно.
+     *
+     * @param fact факт
+     * @return {@code true}, если факт добавлен через {@link #insert(Fact)}
+     */
+    public boolean isStated(Fact fact) {
+        var key = symbols.lookupKey(fact);
+        if (key == SymbolTable.NO_KEY) {
+            return unmatched.contains(fact);
+        }
+        return stated.contains(key) || !unmatched.isEmpty() && unmatched.contains(fact);
+    }
+
+    /**
+     * Возвращает число известных фактов — добавленных явно и выведенных.
+     *
+     * @return размер рабочей памяти сеанса
+     */
+    public int size() {
+        return present.size() + unmatched.size();
+    }
+
+    /**
+     * Возвращает заключения правил, условия которых выполнены сейчас,
+     * в порядке объявления правил.
+     *
+     * @return текущие заключения
+     */
+    public InferenceResult result() {
+        var conclusions = new ArrayList<Conclusion>();
+        for (var conclusion : fired) {
+            if (conclusion != null) {
+                conclusions.add(conclusion);
+            }
+        }
+        return new InferenceResult(conclusions);
+    }
+
+    /**
+     * Возвращает число срабатываний правил с начала сеанса — удобно, чтобы
+     * убедиться, что изменение затронуло только зависящие от него правила.
+     *
+     * @return число вызовов методов-правил
+     */
+    public long firings() {
+        return firings;
+    }
+
+    private void propagateInserts() {
+        while (pending.size() > 0) {
+            memory.insert(pending.removeLast(), this::activated);
+        }
+    }
+
+    private void propagateRetracts() {
+        // 1. Удаляем всё, что могло зависеть от удалённых фактов
+        while (pending.size() > 0) {
+            memory.retract(pending.removeLast(), this::affected);
+        }
+
+        // 2. Возвращаем то, что по-прежнему выводится оставшимися правилами
+        for (var i = 0; i < overdeleted.size(); i++) {
+            var key = overdeleted.get(i);
+            if (support.get(key, 0) > 0 && present.add(key)) {
+                pending.add(key);
+            }
+        }
+        overdeleted.clear();
+        propagateInserts();
+    }
+
+    private void activated(int id) {
+        var rule = rules.rule(id);
+        var conclusion = new Conclusion(rule.name(), rule.conclusion(), rule.invoker().invoke(knowledgeBase));
+        fired[id] = conclusion;
+        firings++;
+        listener.ruleFired(conclusion);
+
+        var key = rules.conclusionKey(id);
+        support.put(key, support.get(key, 0) + 1);
+        if (present.add(key)) {
+            pending.add(key);
+        }
+    }
+
+    /**
+     * Правило опиралось на удалённый факт: его заключение удаляется
+     * до этапа повторного вывода, даже если правило осталось активным
+     * благодаря другому условию {@code any} — это условие само могло
+     * зависеть от удалённого факта.
+     */
+    private void affected(int id) {
+        var key = rules.conclusionKey(id);
+        if (!memory.isActive(id)) {
+            var conclusion = fired[id];
+            fired[id] = null;
+            listener.ruleRetracted(conclusion);
+
+            var count = support.get(key, 0) - 1;
+            if (count > 0) {
+                support.put(key, count);
+            } else {
+                support.remove(key);
+            }
+        }
+        if (!stated.contains(key) && present.remove(key)) {
+            overdeleted.add(key);
+            pending.add(key);
+        }
+    }
+}
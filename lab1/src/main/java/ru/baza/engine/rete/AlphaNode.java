@@ -0,0 +1,47 @@
+package ru.baza.engine.rete;
+
+/**
+ * Альфа-узел Rete-сети: соответствует одному уникальному условию вида
+ * <b>name=value</b>.
+ *
+ * <p>Узел разделяется между всеми правилами, которые используют это условие,
+ * поэтому каждое условие проверяется ровно один раз на факт, независимо
+ * от количества правил.
+ *
+ * <p>Узел хранит номера правил, в которых условие встречается в секции
+ * {@code all} и в секции {@code any}. Номер правила — индекс в
+ * {@link ReteNetwork}.
+ */
+final class AlphaNode {
+
+    /** Порядковый номер узла в сети. */
+    final int id;
+
+    /** Правила, у которых условие входит в секцию {@code all}. */
+    final int[] allRules;
+
+    /** Правила, у которых условие входит в секцию {@code any}. */
+    final int[] anyRules;
+
+    private int allSize;
+    private int anySize;
+
+    /**
+     * Создаёт узел с массивами точного размера: сеть заранее подсчитывает,
+     * сколько правил ссылается на условие, поэтому построение линейно
+     * по суммарному числу условий.
+     */
+    AlphaNode(int id, int allRuleCount, int anyRuleCount) {
+        this.id = id;
+        this.allRules = new int[allRuleCount];
+        this.anyRules = new int[anyRuleCount];
+    }
+
+    void addAllRule(int rule) {
+        allRules[allSize++] = rule;
+    }
+
+    void addAnyRule(int rule) {
+        anyRules[anySize++] = rule;
+    }
+}
@@ -0,0 +1,188 @@
+package ru.baza.engine.rete;
+
+import ru.baza.model.Fact;
+import ru.baza.model.SymbolTable;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Рабочая память одного сеанса сопоставления в {@link ReteNetwork}.
+ *
+ * <p>Хранит, какие альфа-узлы уже сработали и сколько условий каждого
+ * правила выполнено. Правило становится активным, когда выполнены все
+ * условия {@code all} и хотя бы одно условие {@code any} (или секция
+ * {@code any} пуста). Факты можно и удалять ({@link #retract(long, IntConsumer)}):
+ * счётчики уменьшаются, и правило теряет активацию, как только
+ * перестаёт выполняться, — стоимость пропорциональна числу правил,
+ * ссылающихся на условие, как и при добавлении.
+ *
+ * <p>Память не потокобезопасна: каждый сеанс вывода создаёт свою копию
+ * через {@link ReteNetwork#newMemory()}.
+ */
+public final class ReteMemory {
+
+    private static final IntConsumer IGNORE = rule -> {};
+
+    private final ReteNetwork network;
+
+    /** Сработавшие альфа-узлы — защищают от повторного учёта одинаковых фактов. */
+    private final BitSet matchedAlpha;
+
+    /** Число выполненных условий {@code all} по каждому правилу. */
+    private final int[] allHits;
+
+    /** Число выполненных условий {@code any} по каждому правилу. */
+    private final int[] anyHits;
+
+    /** Активированные правила (агенда). */
+    private final BitSet activations;
+
+    ReteMemory(ReteNetwork network) {
+        this.network = network;
+        this.matchedAlpha = new BitSet(network.alphaSize());
+        this.allHits = new int[network.size()];
+        this.anyHits = new int[network.size()];
+        this.activations = new BitSet(network.size());
+
+        // Правила без условий активны сразу
+        for (var rule : network.unconditional) {
+            activations.set(rule);
+        }
+    }
+
+    /**
+     * Возвращает память в исходное состояние. Обнуляются только счётчики
+     * правил, ссылающихся на сработавшие альфа-узлы, — стоимость
+     * пропорциональна сделанным вставкам, а не числу правил в сети.
+     * Правила без условий остаются активными.
+     */
+    void reset() {
+        for (var id = matchedAlpha.nextSetBit(0); id >= 0; id = matchedAlpha.nextSetBit(id + 1)) {
+            var node = network.alphaNode(id);
+            for (var rule : node.allRules) {
+                allHits[rule] = 0;
+                activations.clear(rule);
+            }
+            for (var rule : node.anyRules) {
+                anyHits[rule] = 0;
+                activations.clear(rule);
+            }
+        }
+        matchedAlpha.clear();
+    }
+
+    /**
+     * Добавляет факт в память и обновляет активации затронутых правил.
+     *
+     * @param fact новый факт
+     */
+    public void insert(Fact fact) {
+        var key = SymbolTable.GLOBAL.lookupKey(fact);
+        if (key != SymbolTable.NO_KEY) {
+            insert(key);
+        }
+    }
+
+    /**
+     * Добавляет факт, заданный упакованным ключом {@link SymbolTable#GLOBAL},
+     * и обновляет активации затронутых правил.
+     *
+     * @param key упакованный ключ факта
+     */
+    public void insert(long key) {
+        insert(key, IGNORE);
+    }
+
+    /**
+     * Добавляет факт и сообщает о правилах, ставших активными.
+     *
+     * @param key       упакованный ключ факта
+     * @param activated получает номер каждого правила, ставшего активным
+     */
+    public void insert(long key, IntConsumer activated) {
+        var node = network.alphaNode(key);
+        if (node == null || matchedAlpha.get(node.id)) {
+            return;
+        }
+        matchedAlpha.set(node.id);
+
+        for (var rule : node.allRules) {
+            allHits[rule]++;
+            activate(rule, activated);
+        }
+        for (var rule : node.anyRules) {
+            anyHits[rule]++;
+            activate(rule, activated);
+        }
+    }
+
+    /**
+     * Удаляет факт и сообщает об активных правилах, которые на него опирались.
+     *
+     * <p>Правило с выполненной секцией {@code any} может остаться активным
+     * благодаря другому условию — это проверяется через {@link #isActive(int)}
+     * в момент уведомления. Для такого правила уведомление может прийти
+     * несколько раз, если условие повторяется в его секции {@code any}.
+     *
+     * @param key      упакованный ключ факта
+     * @param affected получает номер каждого правила, которое было активно
+     *                 и ссылается на удалённый факт
+     */
+    public void retract(long key, IntConsumer affected) {
+        var node = network.alphaNode(key);
+        if (node == null || !matchedAlpha.get(node.id)) {
+            return;
+        }
+        matchedAlpha.clear(node.id);
+
+        for (var rule : node.allRules) {
+            allHits[rule]--;
+            deactivate(rule, affected);
+        }
+        for (var rule : node.anyRules) {
+            anyHits[rule]--;
+            deactivate(rule, affected);
+        }
+    }
+
+    private void activate(int rule, IntConsumer activated) {
+        if (!activations.get(rule) && isSatisfied(rule)) {
+            activations.set(rule);
+            activated.accept(rule);
+        }
+    }
+
+    private void deactivate(int rule, IntConsumer affected) {
+        if (activations.get(rule)) {
+            if (!isSatisfied(rule)) {
+                activations.clear(rule);
+            }
+            affected.accept(rule);
+        }
+    }
+
+    /**
+     * Проверяет, активно ли правило.
+     *
+     * @param rule номер правила
+     * @return {@code true}, если условия правила выполнены
+     */
+    public boolean isActive(int rule) {
+        return activations.get(rule);
+    }
+
+    /**
+     * Возвращает номера активных правил в порядке их объявления.
+     *
+     * @return агенда правил, готовых к срабатыванию
+     */
+    public int[] activations() {
+        return activations.stream().toArray();
+    }
+
+    private boolean isSatisfied(int rule) {
+        return allHits[rule] == network.allCounts[rule]
+                && (network.anyCounts[rule] == 0 || anyHits[rule] > 0);
+    }
+}
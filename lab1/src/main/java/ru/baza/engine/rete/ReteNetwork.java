@@ -0,0 +1,190 @@
+package ru.baza.engine.rete;
+
+import ru.baza.engine.CompiledRule;
+import ru.baza.util.LongIntHashMap;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Скомпилированная Rete-сеть правил базы знаний.
+ *
+ * <p>Сеть строится один раз по скомпилированным правилам
+ * ({@link ru.baza.engine.CompiledRuleBase}) и далее используется только
+ * для чтения, поэтому её можно безопасно разделять между потоками.
+ *
+ * <h3>Структура</h3>
+ * <ul>
+ *     <li><b>альфа-уровень</b> — по одному {@link AlphaNode} на номер условия
+ *         из таблицы условий; одинаковые условия разных правил сливаются
+ *         в один узел;</li>
+ *     <li><b>бета-уровень</b> — для каждого правила хранится число условий
+ *         в секциях {@code all} и {@code any}. Так как условия правил не
+ *         содержат переменных, соединение сводится к подсчёту сработавших
+ *         альфа-узлов (схема, близкая к TREAT).</li>
+ * </ul>
+ *
+ * <p>Состояние сопоставления хранится отдельно, в {@link ReteMemory}, поэтому
+ * добавление факта стоит O(1) на поиск альфа-узла по упакованному ключу
+ * {@link ru.baza.model.SymbolTable} плюс O(k), где k — число правил,
+ * реально ссылающихся на это условие.
+ */
+public final class ReteNetwork {
+
+    /** Номер условия по упакованному ключу «имя–значение». */
+    private final LongIntHashMap conditionIds;
+
+    /** Альфа-узлы по номеру условия. */
+    private final AlphaNode[] alphaNodes;
+
+    /** Количество условий {@code all} для каждого правила. */
+    final int[] allCounts;
+
+    /** Количество условий {@code any} для каждого правила. */
+    final int[] anyCounts;
+
+    /** Правила без условий — активны в любой памяти. */
+    final int[] unconditional;
+
+    /**
+     * Наибольшее число свободных памятей в пуле: по одной на поток общего
+     * пула ForkJoin и на вызывающий поток — столько сопоставлений
+     * одновременно выполняет {@link ru.baza.engine.RuleEngine#runBatch}.
+     */
+    private static final int POOL_LIMIT = ForkJoinPool.getCommonPoolParallelism() + 1;
+
+    /** Память, освобождённая после однократного сопоставления. */
+    private final ConcurrentLinkedDeque<ReteMemory> released = new ConcurrentLinkedDeque<>();
+
+    /** Число памятей в {@link #released}. */
+    private final AtomicInteger releasedCount = new AtomicInteger();
+
+    private ReteNetwork(LongIntHashMap conditionIds, AlphaNode[] alphaNodes, int[] allCounts, int[] anyCounts,
+                        int[] unconditional) {
+        this.conditionIds = conditionIds;
+        this.alphaNodes = alphaNodes;
+        this.allCounts = allCounts;
+        this.anyCounts = anyCounts;
+        this.unconditional = unconditional;
+    }
+
+    /**
+     * Компилирует сеть по скомпилированным правилам.
+     *
+     * @param rules        правила в порядке объявления; номер правила в сети равен {@link CompiledRule#id()}
+     * @param conditionIds таблица номеров условий
+     * @return скомпилированная сеть
+     */
+    public static ReteNetwork compile(List<CompiledRule> rules, LongIntHashMap conditionIds) {
+        var allRefs = new int[conditionIds.size()];
+        var anyRefs = new int[conditionIds.size()];
+        for (var rule : rules) {
+            for (var cond : rule.all()) allRefs[cond]++;
+            for (var cond : rule.any()) anyRefs[cond]++;
+        }
+
+        var alphaNodes = new AlphaNode[conditionIds.size()];
+        for (var i = 0; i < alphaNodes.length; i++) {
+            alphaNodes[i] = new AlphaNode(i, allRefs[i], anyRefs[i]);
+        }
+
+        var allCounts = new int[rules.size()];
+        var anyCounts = new int[rules.size()];
+
+        for (var rule : rules) {
+            for (var cond : rule.all()) {
+                alphaNodes[cond].addAllRule(rule.id());
+            }
+            for (var cond : rule.any()) {
+                alphaNodes[cond].addAnyRule(rule.id());
+            }
+            allCounts[rule.id()] = rule.all().length;
+            anyCounts[rule.id()] = rule.any().length;
+        }
+
+        var unconditional = rules.stream()
+                .filter(rule -> rule.all().length == 0 && rule.any().length == 0)
+                .mapToInt(CompiledRule::id)
+                .toArray();
+
+        return new ReteNetwork(conditionIds, alphaNodes, allCounts, anyCounts, unconditional);
+    }
+
+    /**
+     * Создаёт пустую рабочую память для одного сеанса сопоставления.
+     *
+     * @return новая память сети
+     */
+    public ReteMemory newMemory() {
+        return new ReteMemory(this);
+    }
+
+    /**
+     * Выдаёт пустую память для однократного сопоставления, например одного
+     * вызова прямого вывода. Память, возвращённая через {@link #release(ReteMemory)},
+     * берётся из небольшого пула сети, поэтому повторные вызовы не выделяют
+     * массивы счётчиков по числу правил заново. Пул принадлежит сети
+     * и освобождается вместе с ней.
+     *
+     * @return пустая память сети
+     */
+    public ReteMemory acquire() {
+        var memory = released.pollFirst();
+        if (memory == null) {
+            return new ReteMemory(this);
+        }
+        releasedCount.decrementAndGet();
+        return memory;
+    }
+
+    /**
+     * Очищает память, полученную через {@link #acquire()}, и возвращает её
+     * в пул для следующего сопоставления; если пул заполнен, память
+     * отбрасывается. После вызова память использовать нельзя.
+     *
+     * @param memory память этой сети
+     */
+    public void release(ReteMemory memory) {
+        memory.reset();
+        if (releasedCount.incrementAndGet() <= POOL_LIMIT) {
+            released.offerFirst(memory);
+        } else {
+            releasedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return количество правил в сети
+     */
+    public int size() {
+        return allCounts.length;
+    }
+
+    /**
+     * @return количество альфа-узлов (уникальных условий)
+     */
+    int alphaSize() {
+        return alphaNodes.length;
+    }
+
+    /**
+     * Ищет альфа-узел, соответствующий факту.
+     *
+     * @param key упакованный ключ факта
+     * @return узел или {@code null}, если ни одно правило не использует такое условие
+     */
+    AlphaNode alphaNode(long key) {
+        var id = conditionIds.get(key, -1);
+        return id < 0 ? null : alphaNodes[id];
+    }
+
+    /**
+     * @param id номер условия
+     * @return альфа-узел условия
+     */
+    AlphaNode alphaNode(int id) {
+        return alphaNodes[id];
+    }
+}
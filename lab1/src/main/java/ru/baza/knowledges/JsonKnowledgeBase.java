@@ -0,0 +1,138 @@
+package ru.baza.knowledges;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import ru.baza.engine.CompiledKnowledgeBase;
+import ru.baza.engine.CompiledRuleBase;
+import ru.baza.engine.RuleInvoker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * База знаний, правила которой загружаются из JSON, а не задаются
+ * методами с аннотацией {@link ru.baza.annotations.Rule}.
+ *
+ * <p>Формат файла — массив правил:
+ * <pre>{@code
+ * [
+ *   {
+ *     "conclusion": "WordPress",
+ *     "conditions": { "complexity": "low", "budget": "low", "time": "short" },
+ *     "any":        { "scale": "personal" }
+ *   }
+ * ]
+ * }</pre>
+ * <ul>
+ *     <li>{@code conclusion} — заключение правила (обязательно);</li>
+ *     <li>{@code conditions} — условия, которые должны выполняться все;</li>
+ *     <li>{@code any} — условия, из которых должно выполняться хотя бы одно
+ *         (необязательно).</li>
+ * </ul>
+ * Неизвестные поля пропускаются.
+ *
+ * <p>Файл разбирается потоково через {@link JsonReader}: каждое правило
+ * сразу добавляется в {@link CompiledRuleBase.Builder}, а его текст
+ * не сохраняется, поэтому даже очень большие файлы загружаются
+ * с памятью, пропорциональной только скомпилированным правилам.
+ *
+ * <p>Срабатывание правила возвращает его заключение как
+ * {@link ru.baza.engine.Conclusion#value()}.
+ */
+public final class JsonKnowledgeBase implements CompiledKnowledgeBase {
+
+    private final CompiledRuleBase rules;
+
+    private JsonKnowledgeBase(CompiledRuleBase rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Загружает правила из JSON-файла в кодировке UTF-8.
+     *
+     * @param path путь к файлу правил
+     * @return база знаний
+     * @throws IOException если файл не удалось прочитать или он некорректен
+     */
+    public static JsonKnowledgeBase load(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Загружает правила из JSON.
+     *
+     * @param reader источник JSON; не закрывается
+     * @return база знаний
+     * @throws IOException если источник не удалось прочитать или JSON некорректен
+     */
+    public static JsonKnowledgeBase load(Reader reader) throws IOException {
+        var json = new JsonReader(reader);
+        var builder = CompiledRuleBase.builder();
+
+        json.beginArray();
+        while (json.hasNext()) {
+            readRule(json, builder);
+        }
+        json.endArray();
+
+        return new JsonKnowledgeBase(builder.build());
+    }
+
+    @Override
+    public CompiledRuleBase compiledRules() {
+        return rules;
+    }
+
+    private static void readRule(JsonReader json, CompiledRuleBase.Builder builder) throws IOException {
+        var path = json.getPath();
+        String conclusion = null;
+        var all = new int[0];
+        var any = new int[0];
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "conclusion" -> conclusion = json.nextString();
+                case "conditions" -> all = readConditions(json, builder);
+                case "any" -> any = readConditions(json, builder);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (conclusion == null) {
+            throw new MalformedJsonException("У правила нет заключения: " + path);
+        }
+        builder.rule(conclusion, conclusion, all, any, RuleInvoker.returning(conclusion));
+    }
+
+    private static int[] readConditions(JsonReader json, CompiledRuleBase.Builder builder) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return new int[0];
+        }
+
+        var ids = new int[4];
+        var size = 0;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            var name = json.nextName();
+            var value = json.nextString();
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = builder.condition(name, value);
+        }
+        json.endObject();
+
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.baza.knowledges;
+
+import ru.baza.engine.CompiledKnowledgeBase;
+import ru.baza.engine.CompiledRuleBase;
+import ru.baza.engine.RuleBaseSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * База знаний, загружаемая из двоичного снимка {@link RuleBaseSnapshot}.
+ *
+ * <p>Предназначена для быстрого старта: снимок читается через отображение
+ * файла в память без разбора аннотаций или JSON. Снимок создаётся
+ * утилитой {@link ru.baza.SnapshotConverter}.
+ */
+public final class SnapshotKnowledgeBase implements CompiledKnowledgeBase {
+
+    private final CompiledRuleBase rules;
+
+    private SnapshotKnowledgeBase(CompiledRuleBase rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Загружает базу знаний из снимка.
+     *
+     * @param path путь к файлу снимка
+     * @return база знаний
+     * @throws IOException если снимок не удалось прочитать
+     */
+    public static SnapshotKnowledgeBase load(Path path) throws IOException {
+        return new SnapshotKnowledgeBase(RuleBaseSnapshot.read(path));
+    }
+
+    @Override
+    public CompiledRuleBase compiledRules() {
+        return rules;
+    }
+}
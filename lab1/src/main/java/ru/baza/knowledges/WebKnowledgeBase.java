@@ -6,6 +6,9 @@ import ru.baza.annotations.Rule;
 /**
  * База знаний для экспертной системы по выбору инструментальных средств
  * при создании web-сайтов.
+ *
+ * <p>Каждое правило возвращает текст рекомендации; движок собирает его
+ * в {@link ru.baza.engine.Conclusion#value()}.
  */
 public class WebKnowledgeBase implements KnowledgeBase {
 
@@ -16,8 +19,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "time", value = "short")
             }
     )
-    private void ruleWordPress() {
-        System.out.println("📦 Рекомендация: WordPress — быстрая разработка при низкой сложности и коротких сроках.");
+    private String ruleWordPress() {
+        return "📦 Рекомендация: WordPress — быстрая разработка при низкой сложности и коротких сроках.";
     }
 
     @Rule(
@@ -27,8 +30,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "scale", value = "personal")
             }
     )
-    private void ruleWixTilda() {
-        System.out.println("🌐 Рекомендация: Wix / Tilda — онлайн-конструкторы для личных проектов при низком бюджете.");
+    private String ruleWixTilda() {
+        return "🌐 Рекомендация: Wix / Tilda — онлайн-конструкторы для личных проектов при низком бюджете.";
     }
 
     @Rule(
@@ -38,8 +41,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "time", value = "medium")
             }
     )
-    private void ruleHtmlCssJsNode() {
-        System.out.println("💻 Рекомендация: HTML/CSS + JS + Node.js — универсальное решение для сайтов средней сложности.");
+    private String ruleHtmlCssJsNode() {
+        return "💻 Рекомендация: HTML/CSS + JS + Node.js — универсальное решение для сайтов средней сложности.";
     }
 
     @Rule(
@@ -49,8 +52,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "time", value = "medium")
             }
     )
-    private void ruleReactDjangoPostgres() {
-        System.out.println("⚙️ Рекомендация: React + Django + PostgreSQL — оптимально для сложных, производительных систем.");
+    private String ruleReactDjangoPostgres() {
+        return "⚙️ Рекомендация: React + Django + PostgreSQL — оптимально для сложных, производительных систем.";
     }
 
     @Rule(
@@ -61,8 +64,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "performance", value = "high")
             }
     )
-    private void ruleAngularSpringMySQL() {
-        System.out.println("Angular + Spring Boot + MySQL");
+    private String ruleAngularSpringMySQL() {
+        return "Angular + Spring Boot + MySQL";
     }
 
     @Rule(
@@ -71,8 +74,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "time", value = "short")
             }
     )
-    private void ruleVueFirebase() {
-        System.out.println("🔥 Рекомендация: Vue.js + Firebase — быстрое создание динамичных сайтов средней сложности.");
+    private String ruleVueFirebase() {
+        return "🔥 Рекомендация: Vue.js + Firebase — быстрое создание динамичных сайтов средней сложности.";
     }
 
     @Rule(
@@ -82,8 +85,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "scale", value = "small business")
             }
     )
-    private void ruleNextMongo() {
-        System.out.println("🚀 Рекомендация: Next.js + MongoDB Atlas — идеальный выбор для небольшого бизнеса с современным стеком.");
+    private String ruleNextMongo() {
+        return "🚀 Рекомендация: Next.js + MongoDB Atlas — идеальный выбор для небольшого бизнеса с современным стеком.";
     }
 
     @Rule(
@@ -93,8 +96,8 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "scale", value = "small business")
             }
     )
-    private void ruleLaravelMySQL() {
-        System.out.println("🧩 Рекомендация: Laravel + MySQL — надёжный вариант для бизнеса среднего уровня.");
+    private String ruleLaravelMySQL() {
+        return "🧩 Рекомендация: Laravel + MySQL — надёжный вариант для бизнеса среднего уровня.";
     }
 
     @Rule(
@@ -104,7 +107,7 @@ public class WebKnowledgeBase implements KnowledgeBase {
                     @FactCondition(name = "performance", value = "high")
             }
     )
-    private void ruleAspNetSQLServer() {
-        System.out.println("💼 Рекомендация: ASP.NET Core + SQL Server — решение корпоративного уровня для больших систем.");
+    private String ruleAspNetSQLServer() {
+        return "💼 Рекомендация: ASP.NET Core + SQL Server — решение корпоративного уровня для больших систем.";
     }
 }
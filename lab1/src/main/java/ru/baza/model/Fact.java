@@ -11,7 +11,8 @@ import java.util.Objects;
  * <pre>new Fact("Температура", "Высокая")</pre>
  *
  * <p>Используется в механизмах прямого и обратного вывода
- * для проверки выполнения условий правил.
+ * для проверки выполнения условий правил. Внутри движка факты хранятся
+ * в компактном виде — как упакованные ключи {@link SymbolTable}.
  *
  * @param name  имя факта
  * @param value значение факта
@@ -49,9 +50,12 @@ public record Fact(String name, String value) {
 
     /**
      * Вычисляет хеш-код на основе имени и значения.
+     *
+     * <p>Не использует {@link Objects#hash(Object...)}, чтобы не создавать
+     * массив аргументов при каждом вызове.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name, value);
+        return 31 * Objects.hashCode(name) + Objects.hashCode(value);
     }
 }
@@ -0,0 +1,197 @@
+package ru.baza.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таблица символов: интернирует имена и значения фактов в плотные
+ * целочисленные номера.
+ *
+ * <p>Факт «имя–значение» кодируется одним {@code long}:
+ * <pre>key = nameId &lt;&lt; 32 | valueId</pre>
+ * Такие ключи сравниваются одной инструкцией и хранятся в примитивных
+ * коллекциях без объектов-обёрток.
+ *
+ * <p>Для каждого символа при интернировании один раз вычисляется номер
+ * его варианта в нижнем регистре ({@link #foldedId(int)}), поэтому
+ * регистронезависимый поиск не создаёт строк.
+ *
+ * <p>Таблица потокобезопасна: чтение не блокируется, добавление нового
+ * символа выполняется под монитором. Номера символов не меняются
+ * и не освобождаются, поэтому в {@link #GLOBAL} интернируются только
+ * символы условий и заключений правил при компиляции базы знаний.
+ * Факты из рабочей памяти кодируются через {@link #lookupKey(Fact)}
+ * и в таблицу не добавляются: факт с неизвестным символом не может
+ * совпасть ни с одним условием.
+ *
+ * <p>Каждая загруженная база знаний (из JSON или снимка) навсегда
+ * добавляет свои символы в {@link #GLOBAL}: при загрузке множества
+ * различных наборов правил таблица растёт без ограничения. Для таких
+ * сценариев таблица не подходит — её размер определяется объединением
+ * словарей всех когда-либо скомпилированных баз.
+ */
+public final class SymbolTable {
+
+    /** Общая таблица, используемая движком правил и рабочей памятью. */
+    public static final SymbolTable GLOBAL = new SymbolTable();
+
+    /** Ключ, обозначающий отсутствие символа в таблице. */
+    public static final long NO_KEY = -1L;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile String[] symbols = new String[64];
+    private volatile int[] folded = new int[64];
+    private int size;
+
+    /**
+     * Возвращает номер символа, добавляя его в таблицу при необходимости.
+     *
+     * @param symbol строка
+     * @return номер символа
+     */
+    public int intern(String symbol) {
+        var id = ids.get(symbol);
+        return id != null ? id : add(symbol);
+    }
+
+    /**
+     * Возвращает номер символа, не добавляя его в таблицу.
+     *
+     * @param symbol строка
+     * @return номер символа или {@code -1}, если символ неизвестен
+     */
+    public int lookup(String symbol) {
+        var id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Возвращает строку по номеру символа.
+     *
+     * @param id номер символа
+     * @return строка
+     */
+    public String symbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * Возвращает номер варианта символа в нижнем регистре.
+     *
+     * @param id номер символа
+     * @return номер символа в нижнем регистре (равен {@code id}, если символ уже в нижнем регистре)
+     */
+    public int foldedId(int id) {
+        return folded[id];
+    }
+
+    /**
+     * @return количество символов в таблице
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Кодирует факт, интернируя его имя и значение.
+     *
+     * @param name  имя факта
+     * @param value значение факта
+     * @return упакованный ключ
+     */
+    public long key(String name, String value) {
+        return pack(intern(name), intern(value));
+    }
+
+    /**
+     * Кодирует факт, интернируя его имя и значение.
+     *
+     * @param fact факт
+     * @return упакованный ключ
+     */
+    public long key(Fact fact) {
+        return key(fact.name(), fact.value());
+    }
+
+    /**
+     * Кодирует факт без добавления символов в таблицу.
+     *
+     * @param fact факт
+     * @return упакованный ключ или {@link #NO_KEY}, если имя или значение неизвестны
+     */
+    public long lookupKey(Fact fact) {
+        var name = lookup(fact.name());
+        var value = lookup(fact.value());
+        return name < 0 || value < 0 ? NO_KEY : pack(name, value);
+    }
+
+    /**
+     * Восстанавливает факт по упакованному ключу.
+     *
+     * @param key упакованный ключ
+     * @return факт
+     */
+    public Fact fact(long key) {
+        return new Fact(symbol(nameId(key)), symbol(valueId(key)));
+    }
+
+    /**
+     * Упаковывает номера имени и значения в один ключ.
+     *
+     * @param nameId  номер имени
+     * @param valueId номер значения
+     * @return упакованный ключ
+     */
+    public static long pack(int nameId, int valueId) {
+        return (long) nameId << 32 | (valueId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param key упакованный ключ
+     * @return номер имени
+     */
+    public static int nameId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * @param key упакованный ключ
+     * @return номер значения
+     */
+    public static int valueId(long key) {
+        return (int) key;
+    }
+
+    private synchronized int add(String symbol) {
+        var existing = ids.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+
+        var id = size;
+        ensureCapacity(id + 1);
+        symbols[id] = symbol;
+        size++;
+
+        var lower = symbol.toLowerCase(Locale.ROOT);
+        var foldedSymbol = lower.equals(symbol) ? id : add(lower);
+
+        folded[id] = foldedSymbol;
+
+        // Публикуем номер только после заполнения массивов: чтение
+        // из ConcurrentHashMap гарантирует видимость записей выше
+        ids.put(symbol, id);
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > symbols.length) {
+            var newLength = Math.max(capacity, symbols.length << 1);
+            symbols = Arrays.copyOf(symbols, newLength);
+            folded = Arrays.copyOf(folded, newLength);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package ru.baza.model;
+
+import ru.baza.util.LongHashSet;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Рабочая память экспертной системы — индексированное множество фактов.
+ *
+ * <p>Факты хранятся не как объекты {@link Fact}, а как упакованные ключи
+ * {@code nameId << 32 | valueId} из {@link SymbolTable#GLOBAL}: одно число
+ * {@code long} на факт. Объекты {@code Fact} создаются только при обходе
+ * памяти как коллекции.
+ *
+ * <p>Память не добавляет символы в таблицу: в ней интернированы только
+ * символы условий и заключений правил. Факты, имя или значение которых
+ * не встречается ни в одном правиле, хранятся отдельно как объекты
+ * {@code Fact} — сопоставить их с условиями всё равно нельзя, а таблица
+ * символов не растёт от пользовательских данных. При обходе памяти
+ * такие факты перечисляются после остальных.
+ *
+ * <p>Все проверки, которые выполняет движок правил, работают за O(1)
+ * и без создания объектов:
+ * <ul>
+ *     <li>{@link #containsKey(long)} — по упакованной паре «имя–значение»;</li>
+ *     <li>{@link #valuesOf(String)} — все значения факта с заданным именем;</li>
+ *     <li>{@link #containsIgnoreCase(String)} — есть ли факт, имя или значение
+ *         которого совпадает со строкой без учёта регистра (поиск цели
+ *         при обратном выводе).</li>
+ * </ul>
+ *
+ * <p>Память может быть создана поверх существующей коллекции
+ * ({@link #of(Collection)}): тогда новые факты, добавленные движком,
+ * записываются и в исходную коллекцию, как это было при работе
+ * с «сырой» коллекцией фактов.
+ *
+ * <p>Удаление фактов через коллекцию не поддерживается.
+ */
+public final class WorkingMemory extends AbstractCollection<Fact> {
+
+    private final SymbolTable symbols = SymbolTable.GLOBAL;
+
+    /** Индекс по упакованной паре «имя–значение». */
+    private final LongHashSet keys = new LongHashSet();
+
+    /** Ключи в порядке добавления. */
+    private long[] order = new long[16];
+
+    /** Индекс по номеру имени факта: номера значений; массив растёт до наибольшего номера имени. */
+    private Values[] valuesByName = new Values[16];
+
+    /** Номера имён и значений фактов в нижнем регистре. */
+    private final LongHashSet foldedSymbols = new LongHashSet();
+
+    /** Факты с символами, отсутствующими в таблице, в порядке добавления. */
+    private final Set<Fact> foreign = new LinkedHashSet<>();
+
+    /** Значения фактов из {@link #foreign} по имени. */
+    private final Map<String, List<String>> foreignValues = new HashMap<>();
+
+    /** Имена и значения фактов из {@link #foreign} в нижнем регистре. */
+    private final Set<String> foreignFolded = new HashSet<>();
+
+    /** Коллекция, в которую дублируются добавленные факты, или {@code null}. */
+    private final Collection<Fact> backing;
+
+    /**
+     * Создаёт пустую рабочую память.
+     */
+    public WorkingMemory() {
+        this.backing = null;
+    }
+
+    private WorkingMemory(Collection<Fact> backing) {
+        this.backing = backing;
+        for (var fact : backing) {
+            store(fact);
+        }
+    }
+
+    /**
+     * Возвращает рабочую память для коллекции фактов.
+     *
+     * <p>Если коллекция уже является {@code WorkingMemory}, она возвращается
+     * как есть; иначе строится индекс, а новые факты дублируются в исходную
+     * коллекцию.
+     *
+     * @param facts коллекция фактов
+     * @return рабочая память
+     */
+    public static WorkingMemory of(Collection<Fact> facts) {
+        return facts instanceof WorkingMemory memory ? memory : new WorkingMemory(facts);
+    }
+
+    /**
+     * Добавляет факт в память.
+     *
+     * @param fact факт
+     * @return {@code true}, если такого факта ещё не было
+     */
+    @Override
+    public boolean add(Fact fact) {
+        if (!store(fact)) {
+            return false;
+        }
+        if (backing != null) {
+            backing.add(fact);
+        }
+        return true;
+    }
+
+    private boolean store(Fact fact) {
+        var key = symbols.lookupKey(fact);
+        if (key == SymbolTable.NO_KEY) {
+            if (!foreign.add(fact)) {
+                return false;
+            }
+            foreignValues.computeIfAbsent(fact.name(), name -> new ArrayList<>()).add(fact.value());
+            foreignFolded.add(fact.name().toLowerCase(Locale.ROOT));
+            foreignFolded.add(fact.value().toLowerCase(Locale.ROOT));
+            return true;
+        }
+        // Символы факта могли попасть в таблицу уже после его добавления
+        return (foreign.isEmpty() || !foreign.contains(fact)) && index(key);
+    }
+
+    private boolean index(long key) {
+        if (!keys.add(key)) {
+            return false;
+        }
+        var size = keys.size();
+        if (size > order.length) {
+            order = Arrays.copyOf(order, order.length << 1);
+        }
+        order[size - 1] = key;
+
+        var nameId = SymbolTable.nameId(key);
+        var valueId = SymbolTable.valueId(key);
+        if (nameId >= valuesByName.length) {
+            valuesByName = Arrays.copyOf(valuesByName, Math.max(nameId + 1, valuesByName.length << 1));
+        }
+        var values = valuesByName[nameId];
+        if (values == null) {
+            values = valuesByName[nameId] = new Values();
+        }
+        values.add(valueId);
+        foldedSymbols.add(symbols.foldedId(nameId));
+        foldedSymbols.add(symbols.foldedId(valueId));
+        return true;
+    }
+
+    /**
+     * Проверяет наличие факта с тем же именем и значением.
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Fact fact)) {
+            return false;
+        }
+        var key = symbols.lookupKey(fact);
+        return key == SymbolTable.NO_KEY ? foreign.contains(fact) : containsKey(key);
+    }
+
+    /**
+     * Проверяет наличие факта с заданными именем и значением.
+     *
+     * @param name  имя факта
+     * @param value значение факта
+     * @return {@code true}, если факт известен
+     */
+    public boolean contains(String name, String value) {
+        return contains(new Fact(name, value));
+    }
+
+    /**
+     * Проверяет наличие факта по упакованному ключу.
+     *
+     * @param key ключ из {@link SymbolTable#GLOBAL}
+     * @return {@code true}, если факт известен
+     */
+    public boolean containsKey(long key) {
+        if (key == SymbolTable.NO_KEY) {
+            return false;
+        }
+        return keys.contains(key) || !foreign.isEmpty() && foreign.contains(symbols.fact(key));
+    }
+
+    /**
+     * Возвращает значения всех фактов с заданным именем.
+     *
+     * @param name имя факта
+     * @return список значений; пустой, если фактов с таким именем нет
+     */
+    public List<String> valuesOf(String name) {
+        var nameId = symbols.lookup(name);
+        var values = nameId < 0 || nameId >= valuesByName.length ? null : valuesByName[nameId];
+        var other = foreignValues.isEmpty() ? null : foreignValues.get(name);
+        if (values == null) {
+            return other == null ? List.of() : List.copyOf(other);
+        }
+        var size = values.size;
+        var result = new String[size + (other == null ? 0 : other.size())];
+        for (var i = 0; i < size; i++) {
+            result[i] = symbols.symbol(values.ids[i]);
+        }
+        if (other != null) {
+            for (var i = 0; i < other.size(); i++) {
+                result[size + i] = other.get(i);
+            }
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Проверяет, есть ли факт, имя или значение которого совпадает
+     * с заданной строкой без учёта регистра.
+     *
+     * @param symbol имя или значение
+     * @return {@code true}, если такой факт есть
+     */
+    public boolean containsIgnoreCase(String symbol) {
+        var id = symbols.lookup(symbol);
+        if (id < 0) {
+            // Строка могла не встречаться в таблице в точно таком регистре
+            id = symbols.lookup(symbol.toLowerCase(Locale.ROOT));
+        }
+        if (id >= 0 && foldedSymbols.contains(symbols.foldedId(id))) {
+            return true;
+        }
+        return !foreignFolded.isEmpty() && foreignFolded.contains(symbol.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Передаёт упакованные ключи всех фактов, символы которых есть
+     * в таблице, в порядке добавления.
+     *
+     * @param action обработчик ключа
+     */
+    public void forEachKey(LongConsumer action) {
+        var size = keys.size();
+        for (var i = 0; i < size; i++) {
+            action.accept(order[i]);
+        }
+        if (!foreign.isEmpty()) {
+            // Правила, скомпилированные после добавления факта, могли внести его символы в таблицу
+            for (var fact : foreign) {
+                var key = symbols.lookupKey(fact);
+                if (key != SymbolTable.NO_KEY) {
+                    action.accept(key);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Fact> iterator() {
+        return new Iterator<>() {
+            private int next;
+            private Iterator<Fact> rest;
+
+            @Override
+            public boolean hasNext() {
+                if (next < keys.size()) {
+                    return true;
+                }
+                if (rest == null) {
+                    rest = foreign.iterator();
+                }
+                return rest.hasNext();
+            }
+
+            @Override
+            public Fact next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return rest == null ? symbols.fact(order[next++]) : rest.next();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return keys.size() + foreign.size();
+    }
+
+    /** Растущий массив номеров значений одного имени. */
+    private static final class Values {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = id;
+        }
+    }
+}
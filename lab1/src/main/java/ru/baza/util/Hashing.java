@@ -0,0 +1,25 @@
+package ru.baza.util;
+
+/**
+ * Хеш-функции для примитивных коллекций пакета.
+ */
+final class Hashing {
+
+    private Hashing() {}
+
+    /**
+     * Перемешивает биты ключа (финализатор MurmurHash3), чтобы упакованные
+     * ключи с близкими номерами равномерно распределялись по таблице.
+     *
+     * @param key ключ
+     * @return хеш (неотрицательный после наложения маски таблицы)
+     */
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
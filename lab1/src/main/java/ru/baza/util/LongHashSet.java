@@ -0,0 +1,165 @@
+package ru.baza.util;
+
+import java.util.Arrays;
+
+/**
+ * Множество примитивных {@code long} на открытой адресации
+ * (линейное пробирование).
+ *
+ * <p>Не создаёт объектов при добавлении и поиске — используется там, где
+ * факты хранятся в виде упакованных ключей {@code nameId << 32 | valueId}.
+ * Значение {@code 0} хранится отдельным флагом, поэтому допустимы любые ключи.
+ *
+ * <p>Класс не потокобезопасен.
+ */
+public final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int size;
+    private boolean containsZero;
+    private int resizeAt;
+
+    /**
+     * Создаёт пустое множество.
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * Создаёт множество с запасом под заданное количество элементов.
+     *
+     * @param expectedSize ожидаемое количество элементов
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Добавляет ключ.
+     *
+     * @param key ключ
+     * @return {@code true}, если ключа ещё не было
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     *
+     * @param key ключ
+     * @return {@code true}, если ключ присутствует
+     */
+    public boolean contains(long key) {
+        if (key == 0) return containsZero;
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет ключ.
+     *
+     * @param key ключ
+     * @return {@code true}, если ключ присутствовал
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) return false;
+            slot = (slot + 1) & mask;
+        }
+        shiftBack(slot, mask);
+        size--;
+        return true;
+    }
+
+    /**
+     * Удаление с обратным сдвигом, как в {@link LongIntHashMap}: таблица
+     * остаётся без «надгробий», и поиск не замедляется после удалений.
+     */
+    private void shiftBack(int free, int mask) {
+        var slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            var key = keys[slot];
+            if (key == 0) break;
+            var home = Hashing.mix(key) & mask;
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = key;
+                free = slot;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    /**
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя выделенную таблицу.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        var old = keys;
+        allocate(capacity);
+        var mask = keys.length - 1;
+        for (var key : old) {
+            if (key == 0) continue;
+            var slot = Hashing.mix(key) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 4);
+    }
+}
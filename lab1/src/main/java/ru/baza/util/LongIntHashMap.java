@@ -0,0 +1,160 @@
+package ru.baza.util;
+
+/**
+ * Отображение {@code long → int} на открытой адресации без упаковки
+ * ключей и значений в объекты.
+ *
+ * <p>Используется для индекса «упакованное условие → номер условия».
+ * Ключ {@code 0} хранится отдельно, поэтому допустимы любые ключи.
+ *
+ * <p>Класс не потокобезопасен для записи; после заполнения его можно
+ * безопасно читать из нескольких потоков.
+ */
+public final class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private boolean containsZero;
+    private int zeroValue;
+    private int resizeAt;
+
+    /**
+     * Создаёт пустое отображение.
+     */
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Создаёт отображение с запасом под заданное количество элементов.
+     *
+     * @param expectedSize ожидаемое количество элементов
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(LongHashSet.tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Связывает ключ со значением.
+     *
+     * @param key   ключ
+     * @param value значение
+     */
+    public void put(long key, int value) {
+        if (key == 0) {
+            if (!containsZero) size++;
+            containsZero = true;
+            zeroValue = value;
+            return;
+        }
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key          ключ
+     * @param defaultValue значение, возвращаемое при отсутствии ключа
+     * @return значение или {@code defaultValue}
+     */
+    public int get(long key, int defaultValue) {
+        if (key == 0) return containsZero ? zeroValue : defaultValue;
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Удаляет ключ.
+     *
+     * @param key ключ
+     * @return {@code true}, если ключ присутствовал
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+        var mask = keys.length - 1;
+        var slot = Hashing.mix(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) return false;
+            slot = (slot + 1) & mask;
+        }
+        shiftBack(slot, mask);
+        size--;
+        return true;
+    }
+
+    /**
+     * Удаление с обратным сдвигом: переносит последующие элементы цепочки
+     * пробирования в освободившуюся ячейку, чтобы не оставлять «надгробий».
+     */
+    private void shiftBack(int free, int mask) {
+        var slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            var key = keys[slot];
+            if (key == 0) break;
+            var home = Hashing.mix(key) & mask;
+            // Элемент можно перенести, если его исходная ячейка не лежит в (free, slot]
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = key;
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        keys[free] = 0;
+    }
+
+    /**
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        var mask = keys.length - 1;
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            var slot = Hashing.mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.baza.util;
+
+import java.util.Arrays;
+
+/**
+ * Растущий массив примитивных {@code long}.
+ *
+ * <p>Класс не потокобезопасен.
+ */
+public final class LongList {
+
+    private long[] values;
+    private int size;
+
+    /**
+     * Создаёт пустой список.
+     */
+    public LongList() {
+        this(16);
+    }
+
+    /**
+     * Создаёт пустой список заданной начальной ёмкости.
+     *
+     * @param capacity начальная ёмкость
+     */
+    public LongList(int capacity) {
+        values = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Добавляет значение в конец списка.
+     *
+     * @param value значение
+     */
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Возвращает значение по индексу.
+     *
+     * @param index индекс
+     * @return значение
+     */
+    public long get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return values[index];
+    }
+
+    /**
+     * Удаляет и возвращает последнее значение — список можно использовать как стек.
+     *
+     * @return последнее значение
+     */
+    public long removeLast() {
+        if (size == 0) throw new IndexOutOfBoundsException(0);
+        return values[--size];
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя выделенный массив.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return копия элементов в виде массива
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.baza;
+
+/**
+ * Журнал обращений к {@link FitnessCache} для контрольных точек.
+ *
+ * <p>Каждое обращение к кешу дописывает пару генотип — значение.
+ * Добавление пар журнала по порядку через {@link FitnessCache#put}
+ * восстанавливает и содержимое кеша, и очерёдность вытеснения (LRU).
+ *
+ * <p>Массивы журнала только дополняются: когда место кончается, журнал
+ * сжимается до текущего содержимого кеша в новые массивы. Поэтому
+ * снимок журнала — ссылки на массивы и длина — берётся в потоке ГА
+ * за O(1), а копирует его поток записи. Сжатие стоит O(размер кеша)
+ * и случается не чаще, чем раз на столько же обращений.
+ *
+ * <p>Журнал не потокобезопасен.
+ */
+final class CacheJournal {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final FitnessCache<? extends Number> cache;
+
+    private double[] keys;
+    private double[] values;
+    private int size;
+
+    /**
+     * @param cache кеш; журнал начинается с его текущего содержимого
+     */
+    CacheJournal(FitnessCache<? extends Number> cache) {
+        this.cache = cache;
+        compact();
+    }
+
+    /**
+     * Записывает обращение к кешу.
+     *
+     * @param genotype генотип ({@link Number#doubleValue()})
+     * @param value    значение приспособленности
+     */
+    void record(double genotype, double value) {
+        if (size == keys.length) {
+            compact();
+        }
+        keys[size] = genotype;
+        values[size++] = value;
+    }
+
+    /** Возвращает текущий массив генотипов; его первые {@link #size()} элементов не меняются. */
+    double[] keys() {
+        return keys;
+    }
+
+    /** Возвращает текущий массив значений; его первые {@link #size()} элементов не меняются. */
+    double[] values() {
+        return values;
+    }
+
+    /** Возвращает число записей журнала. */
+    int size() {
+        return size;
+    }
+
+    private void compact() {
+        var capacity = Math.max(MIN_CAPACITY, 2 * cache.size());
+        var newKeys = new double[capacity];
+        var newValues = new double[capacity];
+        var index = new int[1];
+        cache.forEach((genotype, value) -> {
+            newKeys[index[0]] = genotype.doubleValue();
+            newValues[index[0]++] = value;
+        });
+        keys = newKeys;
+        values = newValues;
+        size = index[0];
+    }
+}
@@ -0,0 +1,215 @@
+package ru.baza;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Контрольная точка запуска {@link GeneticAlgorithm}: всё, что нужно, чтобы
+ * продолжить эволюцию с того же поколения так, как если бы она не прерывалась.
+ *
+ * <p>Сохраняются популяция и её приспособленность, номер поколения, число
+ * вычислений fitness-функции, состояние генератора {@link SplitMix64},
+ * журнал обращений к {@link FitnessCache} (добавление его пар по порядку
+ * восстанавливает содержимое кеша и очерёдность вытеснения), состояние условия
+ * остановки ({@link StoppingCriterion#state()}) и архив суррогатной модели
+ * в порядке добавления. Гены хранятся как {@code double}
+ * ({@link Number#doubleValue()}) и при чтении преобразуются обратно
+ * {@link GeneticAlgorithm#chromosome(double)}.
+ *
+ * <p>Отпечаток конфигурации ({@code fingerprint}) — класс алгоритма, зерно,
+ * границы, размер популяции, вероятность мутации, элита, отбор, стагнация,
+ * fitness-функция и параметры суррогатной модели; контрольная точка другого
+ * запуска с тем же файлом отклоняется. Всё, что не входит в отпечаток
+ * (ограничения запуска, слушатель, fitness-функция без собственного
+ * {@code toString()}), не проверяется.
+ *
+ * <h3>Формат (версия 2, big-endian)</h3>
+ * <pre>
+ * int    magic = 'GACP'
+ * int    version
+ * int    fingerprintLength
+ * byte[fingerprintLength] fingerprint (UTF-8)
+ * int    generation
+ * long   evaluations, surrogateEvaluations
+ * long   randomState, randomGamma
+ * int    populationSize
+ * double[populationSize] population
+ * double[populationSize] fitness
+ * int    cacheSize
+ * double[cacheSize] cacheKeys     (журнал обращений по порядку)
+ * double[cacheSize] cacheValues
+ * int    stopStateLength
+ * double[stopStateLength] stopState
+ * int    archiveSize, archivePointsLength
+ * double[archivePointsLength] archivePoints (координаты точек подряд)
+ * double[archiveSize] archiveValues
+ * long   crc32 всех предыдущих байт
+ * </pre>
+ *
+ * <p>Файл пишется через {@link FileChannel#map} во временный файл рядом
+ * с целевым и затем атомарно переименовывается, поэтому сбой во время
+ * записи не портит предыдущую контрольную точку.
+ *
+ * @param fingerprint          отпечаток конфигурации запуска
+ * @param generation           номер поколения, приспособленность которого сохранена
+ * @param evaluations          число вычислений fitness-функции с начала запуска
+ * @param surrogateEvaluations число прогнозов суррогатной модели с начала запуска
+ * @param randomState          {@link SplitMix64#state()} перед построением следующего поколения
+ * @param randomGamma          {@link SplitMix64#gamma()}
+ * @param population           гены особей
+ * @param fitness              приспособленность особей
+ * @param cacheKeys            генотипы журнала обращений к кешу приспособленности
+ * @param cacheValues          значения журнала, параллельные {@code cacheKeys}
+ * @param stopState            состояние условия остановки
+ * @param archivePoints        координаты точек архива суррогатной модели подряд
+ * @param archiveValues        значения точек архива
+ */
+public record Checkpoint(String fingerprint, int generation, long evaluations, long surrogateEvaluations,
+                         long randomState, long randomGamma,
+                         double[] population, double[] fitness,
+                         double[] cacheKeys, double[] cacheValues, double[] stopState,
+                         double[] archivePoints, double[] archiveValues) {
+
+    private static final int MAGIC = 0x47414350;
+    private static final int VERSION = 2;
+
+    /**
+     * Записывает контрольную точку, атомарно заменяя файл.
+     *
+     * @param path путь к файлу
+     * @throws IOException если файл не удалось записать
+     */
+    public void write(Path path) throws IOException {
+        var fingerprintBytes = fingerprint.getBytes(StandardCharsets.UTF_8);
+        long size = 4L * 3 + fingerprintBytes.length + 4L + 8L * 4
+                + 4L + 16L * population.length
+                + 4L + 16L * cacheKeys.length
+                + 4L + 8L * stopState.length
+                + 8L + 8L * (archivePoints.length + archiveValues.length)
+                + 8L;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Контрольная точка слишком велика для отображения в память: " + size + " байт");
+        }
+
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(fingerprintBytes.length);
+            buffer.put(fingerprintBytes);
+            buffer.putInt(generation);
+            buffer.putLong(evaluations);
+            buffer.putLong(surrogateEvaluations);
+            buffer.putLong(randomState);
+            buffer.putLong(randomGamma);
+            buffer.putInt(population.length);
+            putDoubles(buffer, population);
+            putDoubles(buffer, fitness);
+            buffer.putInt(cacheKeys.length);
+            putDoubles(buffer, cacheKeys);
+            putDoubles(buffer, cacheValues);
+            buffer.putInt(stopState.length);
+            putDoubles(buffer, stopState);
+            buffer.putInt(archiveValues.length);
+            buffer.putInt(archivePoints.length);
+            putDoubles(buffer, archivePoints);
+            putDoubles(buffer, archiveValues);
+
+            var crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.position()));
+            buffer.putLong(crc.getValue());
+
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Читает контрольную точку.
+     *
+     * @param path путь к файлу
+     * @return контрольная точка
+     * @throws IOException если файл не удалось прочитать, он повреждён
+     *                     или его формат не поддерживается
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("Файл не является контрольной точкой ГА: " + path);
+            }
+            var version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия контрольной точки: " + version);
+            }
+
+            var fingerprintBytes = new byte[checkedLength(buffer, buffer.getInt(), 1, path)];
+            buffer.get(fingerprintBytes);
+            var generation = buffer.getInt();
+            var evaluations = buffer.getLong();
+            var surrogateEvaluations = buffer.getLong();
+            var randomState = buffer.getLong();
+            var randomGamma = buffer.getLong();
+            var population = getDoubles(buffer, buffer.getInt(), path);
+            var fitness = getDoubles(buffer, population.length, path);
+            var cacheSize = buffer.getInt();
+            var cacheKeys = getDoubles(buffer, cacheSize, path);
+            var cacheValues = getDoubles(buffer, cacheSize, path);
+            var stopState = getDoubles(buffer, buffer.getInt(), path);
+            var archiveSize = buffer.getInt();
+            var archivePoints = getDoubles(buffer, buffer.getInt(), path);
+            var archiveValues = getDoubles(buffer, archiveSize, path);
+
+            var crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.position()));
+            if (buffer.getLong() != crc.getValue()) {
+                throw new IOException("Контрольная сумма не совпадает: " + path);
+            }
+            return new Checkpoint(new String(fingerprintBytes, StandardCharsets.UTF_8), generation,
+                    evaluations, surrogateEvaluations, randomState, randomGamma,
+                    population, fitness, cacheKeys, cacheValues, stopState, archivePoints, archiveValues);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException
+                 | IllegalArgumentException e) {
+            throw new IOException("Контрольная точка повреждена: " + path, e);
+        }
+    }
+
+    private static void putDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer, int count, Path path) throws IOException {
+        var values = new double[checkedLength(buffer, count, 8, path)];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + 8 * count);
+        return values;
+    }
+
+    /**
+     * Проверяет длину массива, прочитанную из файла, до выделения памяти:
+     * в повреждённом файле она может быть сколь угодно большой.
+     */
+    private static int checkedLength(ByteBuffer buffer, int count, int elementSize, Path path) throws IOException {
+        if (count < 0 || (long) count * elementSize > buffer.remaining()) {
+            throw new IOException("Контрольная точка повреждена: длина " + count
+                    + " превышает остаток файла " + buffer.remaining() + " байт: " + path);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.baza;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Фоновая запись контрольных точек запуска.
+ *
+ * <p>В потоке ГА копируется только популяция — O(размер популяции);
+ * журнал кеша и архив суррогатной модели передаются срезами
+ * дополняемых массивов. Сборку {@link Checkpoint} из срезов и запись
+ * на диск выполняет отдельный поток, поэтому эволюция не ждёт ни
+ * копирования, ни ввода-вывода.
+ * Если диск не успевает за поколениями, промежуточные снимки
+ * пропускаются: в очереди хранится только последний, и на диск
+ * всегда попадает самая свежая контрольная точка.
+ *
+ * <p>Ошибка записи пробрасывается при следующем вызове
+ * {@link #submit(Supplier)} или при {@link #close()}.
+ */
+final class CheckpointWriter implements AutoCloseable {
+
+    private final Path file;
+    private final ExecutorService executor;
+    private final AtomicReference<Supplier<Checkpoint>> pending = new AtomicReference<>();
+    private volatile IOException failure;
+
+    /**
+     * @param file файл контрольной точки
+     */
+    CheckpointWriter(Path file) {
+        this.file = file;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            var thread = new Thread(task, "ga-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ставит снимок в очередь записи, заменяя ещё не записанный.
+     *
+     * @param checkpoint снимок; собирается в потоке записи
+     * @throws UncheckedIOException если предыдущая запись завершилась ошибкой
+     */
+    void submit(Supplier<Checkpoint> checkpoint) {
+        rethrow();
+        if (pending.getAndSet(checkpoint) == null) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        Supplier<Checkpoint> checkpoint;
+        while ((checkpoint = pending.getAndSet(null)) != null) {
+            try {
+                checkpoint.get().write(file);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Дожидается записи последнего снимка.
+     *
+     * @throws UncheckedIOException если запись завершилась ошибкой
+     */
+    @Override
+    public void close() {
+        executor.close();
+        rethrow();
+    }
+
+    private void rethrow() {
+        var e = failure;
+        if (e != null) {
+            throw new UncheckedIOException("Не удалось записать контрольную точку " + file, e);
+        }
+    }
+}
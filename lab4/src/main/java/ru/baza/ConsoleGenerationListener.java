@@ -0,0 +1,34 @@
+package ru.baza;
+
+import java.io.PrintStream;
+
+/**
+ * Слушатель, печатающий статистику каждого поколения в консоль.
+ */
+public class ConsoleGenerationListener implements GenerationListener {
+
+    private final PrintStream out;
+
+    /**
+     * Создаёт слушатель, печатающий в {@link System#out}.
+     */
+    public ConsoleGenerationListener() {
+        this(System.out);
+    }
+
+    /**
+     * Создаёт слушатель, печатающий в заданный поток.
+     *
+     * @param out поток вывода
+     */
+    public ConsoleGenerationListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void generationCompleted(GenerationStats stats) {
+        out.printf("Поколение %d: лучшее %.6g, среднее %.6g, дисперсия %.6g, оценок %d, %.3f мс%n",
+                stats.generation(), stats.bestFitness(), stats.meanFitness(), stats.variance(),
+                stats.evaluations(), stats.generationNanos() / 1e6);
+    }
+}
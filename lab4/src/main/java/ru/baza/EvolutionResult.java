@@ -0,0 +1,30 @@
+package ru.baza;
+
+import java.util.List;
+
+/**
+ * Итог запуска {@link GeneticAlgorithm#run}: последнее поколение,
+ * его приспособленность и статистика.
+ *
+ * @param population последнее поколение
+ * @param fitness    приспособленность особей последнего поколения
+ * @param stats      статистика последнего поколения
+ * @param <T>        тип хромосомы
+ */
+public record EvolutionResult<T>(List<T> population, double[] fitness, GenerationStats stats) {
+
+    /** Возвращает индекс лучшей особи последнего поколения. */
+    public int bestIndex() {
+        return GeneticAlgorithm.bestIndex(fitness);
+    }
+
+    /** Возвращает лучшую особь последнего поколения. */
+    public T best() {
+        return population.get(bestIndex());
+    }
+
+    /** Возвращает приспособленность лучшей особи. */
+    public double bestFitness() {
+        return fitness[bestIndex()];
+    }
+}
@@ -0,0 +1,98 @@
+package ru.baza;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ограниченный кеш значений приспособленности по генотипу.
+ *
+ * <p>Полезен для дискретных областей значений, например [-100, 100]
+ * в {@link GAInteger}, где одни и те же генотипы повторяются из поколения
+ * в поколение: дорогая fitness-функция вызывается для генотипа один раз,
+ * пока запись не вытеснена. При переполнении вытесняется давно
+ * не использовавшийся генотип (LRU).
+ *
+ * <p>Кеш не потокобезопасен.
+ *
+ * @param <T> тип генотипа
+ */
+public class FitnessCache<T> {
+
+    private final Map<T, Double> values;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity максимальное число хранимых генотипов
+     */
+    public FitnessCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ёмкость кеша должна быть положительной: " + capacity);
+        }
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, Double> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Возвращает приспособленность генотипа, вычисляя её при промахе.
+     *
+     * @param genotype генотип
+     * @param fitness  fitness-функция
+     * @return значение приспособленности
+     */
+    public double get(T genotype, ToDoubleFunction<T> fitness) {
+        var value = values.get(genotype);
+        if (value != null) {
+            hits++;
+            return value;
+        }
+        misses++;
+        var computed = fitness.applyAsDouble(genotype);
+        values.put(genotype, computed);
+        return computed;
+    }
+
+    /**
+     * Добавляет значение без вызова fitness-функции и без учёта в статистике —
+     * например, при восстановлении кеша из {@link Checkpoint}.
+     *
+     * @param genotype генотип
+     * @param value    значение приспособленности
+     */
+    public void put(T genotype, double value) {
+        values.put(genotype, value);
+    }
+
+    /**
+     * Перебирает хранимые генотипы от давно использованных к недавним —
+     * в этом порядке {@link #put} восстанавливает и содержимое,
+     * и очерёдность вытеснения.
+     *
+     * @param action обработчик пары генотип — значение
+     */
+    public void forEach(ObjDoubleConsumer<T> action) {
+        values.forEach(action::accept);
+    }
+
+    /** Возвращает число обращений, обслуженных из кеша. */
+    public long hits() {
+        return hits;
+    }
+
+    /** Возвращает число вызовов fitness-функции. */
+    public long misses() {
+        return misses;
+    }
+
+    /** Возвращает текущее число хранимых генотипов. */
+    public int size() {
+        return values.size();
+    }
+}
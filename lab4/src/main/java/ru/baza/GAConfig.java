@@ -0,0 +1,400 @@
+package ru.baza;
+
+import ru.baza.selection.Selection;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Неизменяемые параметры запуска генетического алгоритма.
+ *
+ * <p>Заменяет статические константы в {@link GAInteger} и {@link GAReal}:
+ * каждый алгоритм получает свою конфигурацию, поэтому в одной JVM можно
+ * одновременно выполнять много независимых задач с разными параметрами
+ * (см. {@link GARunner}).
+ *
+ * <pre>{@code
+ * var config = GAConfig.builder()
+ *         .populationSize(200)
+ *         .bounds(-100, 100)
+ *         .mutationRate(0.05)
+ *         .maxGenerations(500)
+ *         .stagnation(30, 0)
+ *         .seed(42)
+ *         .build();
+ * var result = new GAInteger(config).run();
+ * }</pre>
+ */
+public final class GAConfig {
+
+    /** Fitness-функция лабораторной работы: f(x) = x² + 4. */
+    private static final DoubleUnaryOperator DEFAULT_FITNESS = new DoubleUnaryOperator() {
+        @Override
+        public double applyAsDouble(double x) {
+            return x * x + 4;
+        }
+
+        @Override
+        public String toString() {
+            return "x^2 + 4";
+        }
+    };
+
+    private final int populationSize;
+    private final double minBound;
+    private final double maxBound;
+    private final double mutationRate;
+    private final int maxGenerations;
+    private final int stagnationWindow;
+    private final double stagnationTolerance;
+    private final double targetFitness;
+    private final Duration timeBudget;
+    private final long evaluationBudget;
+    private final Long seed;
+    private final Selection selection;
+    private final int elitism;
+    private final GenerationListener listener;
+    private final DoubleUnaryOperator fitness;
+    private final Path checkpointFile;
+    private final int checkpointInterval;
+
+    private GAConfig(Builder builder) {
+        this.populationSize = builder.populationSize;
+        this.minBound = builder.minBound;
+        this.maxBound = builder.maxBound;
+        this.mutationRate = builder.mutationRate;
+        this.maxGenerations = builder.maxGenerations;
+        this.stagnationWindow = builder.stagnationWindow;
+        this.stagnationTolerance = builder.stagnationTolerance;
+        this.targetFitness = builder.targetFitness;
+        this.timeBudget = builder.timeBudget;
+        this.evaluationBudget = builder.evaluationBudget;
+        this.seed = builder.seed;
+        this.selection = builder.selection;
+        this.elitism = builder.elitism;
+        this.listener = builder.listener;
+        this.fitness = builder.fitness;
+        this.checkpointFile = builder.checkpointFile;
+        this.checkpointInterval = builder.checkpointInterval;
+    }
+
+    /**
+     * Создаёт построитель конфигурации со значениями по умолчанию.
+     *
+     * @return построитель
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Создаёт построитель, заполненный параметрами этой конфигурации, —
+     * удобно для серии запусков, отличающихся одним параметром.
+     *
+     * @return построитель
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /** Возвращает размер популяции. */
+    public int populationSize() {
+        return populationSize;
+    }
+
+    /** Возвращает нижнюю границу значений хромосомы. */
+    public double minBound() {
+        return minBound;
+    }
+
+    /** Возвращает верхнюю границу значений хромосомы. */
+    public double maxBound() {
+        return maxBound;
+    }
+
+    /** Возвращает вероятность мутации. */
+    public double mutationRate() {
+        return mutationRate;
+    }
+
+    /** Возвращает максимальное число поколений. */
+    public int maxGenerations() {
+        return maxGenerations;
+    }
+
+    /** Возвращает окно стагнации в поколениях; 0 — остановка по стагнации отключена. */
+    public int stagnationWindow() {
+        return stagnationWindow;
+    }
+
+    /** Возвращает минимальное улучшение, которое считается прогрессом при стагнации. */
+    public double stagnationTolerance() {
+        return stagnationTolerance;
+    }
+
+    /** Возвращает зерно генератора или {@code null}, если оно не задано. */
+    public Long seed() {
+        return seed;
+    }
+
+    /** Возвращает стратегию отбора родителей. */
+    public Selection selection() {
+        return selection;
+    }
+
+    /** Возвращает число лучших особей, переносимых в следующее поколение без изменений. */
+    public int elitism() {
+        return elitism;
+    }
+
+    /** Возвращает слушатель поколений. */
+    public GenerationListener listener() {
+        return listener;
+    }
+
+    /** Возвращает минимизируемую функцию. */
+    public DoubleUnaryOperator fitness() {
+        return fitness;
+    }
+
+    /** Возвращает файл контрольной точки или {@code null}, если контрольные точки отключены. */
+    public Path checkpointFile() {
+        return checkpointFile;
+    }
+
+    /** Возвращает число поколений между контрольными точками. */
+    public int checkpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Создаёт генератор случайных чисел для одного запуска: с заданным
+     * зерном запуск воспроизводим, без него — случаен. Состояние генератора
+     * можно сохранить в {@link Checkpoint}.
+     *
+     * @return новый генератор
+     */
+    public SplitMix64 newRandom() {
+        return seed != null ? new SplitMix64(seed) : SplitMix64.random();
+    }
+
+    /**
+     * Создаёт условие остановки для одного запуска. Условие стагнации
+     * хранит состояние, поэтому каждый запуск получает новый объект.
+     *
+     * @return условие остановки
+     */
+    public StoppingCriterion stoppingCriterion() {
+        var stop = StoppingCriterion.maxGenerations(maxGenerations);
+        if (stagnationWindow > 0) {
+            stop = stop.or(StoppingCriterion.stagnation(stagnationWindow, stagnationTolerance));
+        }
+        if (targetFitness > Double.NEGATIVE_INFINITY) {
+            stop = stop.or(StoppingCriterion.targetFitness(targetFitness));
+        }
+        if (timeBudget != null) {
+            stop = stop.or(StoppingCriterion.timeBudget(timeBudget));
+        }
+        if (evaluationBudget < Long.MAX_VALUE) {
+            stop = stop.or(StoppingCriterion.evaluationBudget(evaluationBudget));
+        }
+        return stop;
+    }
+
+    @Override
+    public String toString() {
+        return "GAConfig[populationSize=" + populationSize
+                + ", bounds=[" + minBound + ", " + maxBound + "]"
+                + ", mutationRate=" + mutationRate
+                + ", maxGenerations=" + maxGenerations
+                + ", seed=" + seed
+                + ", fitness=" + fitness
+                + (checkpointFile != null ? ", checkpoint=" + checkpointFile + " every " + checkpointInterval : "")
+                + "]";
+    }
+
+    /**
+     * Построитель {@link GAConfig}.
+     */
+    public static final class Builder {
+
+        private int populationSize = 50;
+        private double minBound = -10;
+        private double maxBound = 10;
+        private double mutationRate = 0.1;
+        private int maxGenerations = 100;
+        private int stagnationWindow;
+        private double stagnationTolerance;
+        private double targetFitness = Double.NEGATIVE_INFINITY;
+        private Duration timeBudget;
+        private long evaluationBudget = Long.MAX_VALUE;
+        private Long seed;
+        private Selection selection = Selection.tournament(2);
+        private int elitism;
+        private GenerationListener listener = GenerationListener.NONE;
+        private DoubleUnaryOperator fitness = DEFAULT_FITNESS;
+        private Path checkpointFile;
+        private int checkpointInterval;
+
+        private Builder() {}
+
+        private Builder(GAConfig config) {
+            this.populationSize = config.populationSize;
+            this.minBound = config.minBound;
+            this.maxBound = config.maxBound;
+            this.mutationRate = config.mutationRate;
+            this.maxGenerations = config.maxGenerations;
+            this.stagnationWindow = config.stagnationWindow;
+            this.stagnationTolerance = config.stagnationTolerance;
+            this.targetFitness = config.targetFitness;
+            this.timeBudget = config.timeBudget;
+            this.evaluationBudget = config.evaluationBudget;
+            this.seed = config.seed;
+            this.selection = config.selection;
+            this.elitism = config.elitism;
+            this.listener = config.listener;
+            this.fitness = config.fitness;
+            this.checkpointFile = config.checkpointFile;
+            this.checkpointInterval = config.checkpointInterval;
+        }
+
+        /** Размер популяции (по умолчанию 50). */
+        public Builder populationSize(int populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        /** Границы значений хромосомы (по умолчанию [-10, 10]). */
+        public Builder bounds(double minBound, double maxBound) {
+            this.minBound = minBound;
+            this.maxBound = maxBound;
+            return this;
+        }
+
+        /** Вероятность мутации (по умолчанию 0.1). */
+        public Builder mutationRate(double mutationRate) {
+            this.mutationRate = mutationRate;
+            return this;
+        }
+
+        /** Максимальное число поколений (по умолчанию 100). */
+        public Builder maxGenerations(int maxGenerations) {
+            this.maxGenerations = maxGenerations;
+            return this;
+        }
+
+        /**
+         * Остановка при стагнации (по умолчанию отключена).
+         *
+         * @param window    окно стагнации в поколениях; 0 — отключить
+         * @param tolerance минимальное улучшение, которое считается прогрессом
+         */
+        public Builder stagnation(int window, double tolerance) {
+            this.stagnationWindow = window;
+            this.stagnationTolerance = tolerance;
+            return this;
+        }
+
+        /** Остановка при достижении целевой приспособленности. */
+        public Builder targetFitness(double targetFitness) {
+            this.targetFitness = targetFitness;
+            return this;
+        }
+
+        /** Бюджет времени одного запуска. */
+        public Builder timeBudget(Duration timeBudget) {
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        /** Бюджет вызовов fitness-функции одного запуска. */
+        public Builder evaluationBudget(long evaluationBudget) {
+            this.evaluationBudget = evaluationBudget;
+            return this;
+        }
+
+        /** Зерно генератора случайных чисел для воспроизводимого запуска. */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Стратегия отбора родителей (по умолчанию бинарный турнир). */
+        public Builder selection(Selection selection) {
+            this.selection = selection;
+            return this;
+        }
+
+        /** Число лучших особей, переносимых без изменений (по умолчанию 0). */
+        public Builder elitism(int elitism) {
+            this.elitism = elitism;
+            return this;
+        }
+
+        /** Слушатель поколений (по умолчанию {@link GenerationListener#NONE}). */
+        public Builder listener(GenerationListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Минимизируемая функция (по умолчанию x² + 4). Формулу, заданную
+         * строкой, можно скомпилировать через
+         * {@link ru.baza.expression.Expression#compile(String)}.
+         */
+        public Builder fitness(DoubleUnaryOperator fitness) {
+            this.fitness = fitness;
+            return this;
+        }
+
+        /**
+         * Контрольные точки для долгих запусков (по умолчанию отключены).
+         * Каждые {@code interval} поколений состояние запуска в фоне
+         * записывается в {@code file}; если файл уже существует,
+         * {@link GeneticAlgorithm#run()} продолжает запуск с него
+         * (см. {@link Checkpoint}). После выполнения условия остановки
+         * файл удаляется.
+         *
+         * @param file     файл контрольной точки; {@code null} — отключить
+         * @param interval число поколений между контрольными точками
+         */
+        public Builder checkpoint(Path file, int interval) {
+            this.checkpointFile = file;
+            this.checkpointInterval = interval;
+            return this;
+        }
+
+        /**
+         * Проверяет параметры и создаёт конфигурацию.
+         *
+         * @return конфигурация
+         * @throws IllegalArgumentException если параметры некорректны
+         */
+        public GAConfig build() {
+            if (populationSize < 1) {
+                throw new IllegalArgumentException("Размер популяции должен быть положительным: " + populationSize);
+            }
+            if (!(minBound <= maxBound)) {
+                throw new IllegalArgumentException("Некорректный диапазон: [" + minBound + ", " + maxBound + "]");
+            }
+            if (!(mutationRate >= 0 && mutationRate <= 1)) {
+                throw new IllegalArgumentException("Вероятность мутации вне [0, 1]: " + mutationRate);
+            }
+            if (elitism < 0 || elitism > populationSize) {
+                throw new IllegalArgumentException("Размер элиты вне [0, " + populationSize + "]: " + elitism);
+            }
+            if (fitness == null) {
+                throw new IllegalArgumentException("Fitness-функция не задана");
+            }
+            if (checkpointFile != null && checkpointInterval < 1) {
+                throw new IllegalArgumentException("Интервал контрольных точек должен быть положительным: "
+                        + checkpointInterval);
+            }
+            if (maxGenerations < 0 || stagnationWindow < 0 || evaluationBudget < 0) {
+                throw new IllegalArgumentException("Ограничения запуска не могут быть отрицательными");
+            }
+            return new GAConfig(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.baza;
 
+import ru.baza.expression.Expression;
+
 import java.util.*;
 
 /**
@@ -13,57 +15,91 @@ import java.util.*;
  *     <li>Случайную инициализацию популяции в заданном диапазоне.</li>
  *     <li>Одноточечный "ленивый" кроссовер — выбор одного из родителей.</li>
  *     <li>Мутацию числового значения на ±1.</li>
+ *     <li>Кеширование приспособленности по генотипу ({@link FitnessCache}).</li>
  * </ul>
  *
  * <p>Оптимизация выполняется путём минимизации функции {@code fitness(x)},
- * определённой в родительском классе.
+ * заданной в {@link GAConfig#fitness()} (по умолчанию x² + 4).
+ *
+ * <p>Кроссовер здесь не смешивает гены родителей; рекомбинацию
+ * на уровне битов даёт {@link ru.baza.primitive.GrayIntGeneticAlgorithm}.
  */
 public class GAInteger extends GeneticAlgorithm<Integer> {
 
-    /** Размер популяции. */
-    static final int POP_SIZE = 50;
+    /** Наибольшее число генотипов в кеше приспособленности. */
+    static final int MAX_CACHE_SIZE = 1 << 16;
 
-    /** Количество поколений. */
-    static final int GENERATIONS = 100;
+    /**
+     * Создаёт параметры по умолчанию: популяция 50, не более 100 поколений
+     * или 20 поколений без улучшения, вероятность мутации 0.1, диапазон [-100, 100].
+     *
+     * @return конфигурация по умолчанию
+     */
+    public static GAConfig defaultConfig() {
+        return GAConfig.builder()
+                .populationSize(50)
+                .bounds(-100, 100)
+                .mutationRate(0.1)
+                .maxGenerations(100)
+                .stagnation(20, 0)
+                .build();
+    }
 
-    /** Вероятность мутации. */
-    static final double MUTATION_RATE = 0.1;
+    /**
+     * Создаёт алгоритм с параметрами {@link #defaultConfig()}.
+     */
+    public GAInteger() {
+        this(defaultConfig());
+    }
 
-    /** Минимально возможное значение переменной. */
-    static final int MIN_X = -100;
+    /**
+     * Создаёт алгоритм с заданными параметрами и кешем приспособленности
+     * на всю область значений (но не более {@link #MAX_CACHE_SIZE} генотипов):
+     * каждый генотип вычисляется не более одного раза за запуск.
+     *
+     * @param config параметры запуска
+     */
+    public GAInteger(GAConfig config) {
+        super(config, new FitnessCache<>(cacheCapacity(config)));
+    }
 
-    /** Максимально возможное значение переменной. */
-    static final int MAX_X = 100;
+    private static int cacheCapacity(GAConfig config) {
+        var domain = (long) config.maxBound() - (long) config.minBound() + 1;
+        return (int) Math.min(domain, MAX_CACHE_SIZE);
+    }
 
     /**
-     * Точка входа: запускает пример работы ГА.
+     * Точка входа: запускает пример с печатью статистики поколений.
+     * Первый аргумент, если он задан, — минимизируемая формула от {@code x},
+     * например {@code "(x - 3)^2"}.
      */
     public static void main(String[] args) {
-        new GAInteger().execute();
+        var config = defaultConfig().toBuilder()
+                .listener(new ConsoleGenerationListener());
+        if (args.length > 0) {
+            config.fitness(Expression.compile(args[0]));
+        }
+        new GAInteger(config.build()).execute();
     }
 
     /**
-     * Полный цикл работы генетического алгоритма:
-     * <ol>
-     *     <li>Инициализация популяции.</li>
-     *     <li>Эволюция в течение {@link #GENERATIONS} поколений.</li>
-     *     <li>Выбор лучшего результата.</li>
-     * </ol>
+     * Выполняет алгоритм и печатает лучшее найденное решение.
+     * Эволюция продолжается до выполнения условия остановки из {@link GAConfig}.
      */
     public void execute() {
-        var population = initPopulation(POP_SIZE, MAX_X, MIN_X);
+        var result = run();
 
-        for (int gen = 0; gen < GENERATIONS; gen++) {
-            population = evolve(population, POP_SIZE);
+        System.out.println("Лучший найденный x = " + result.best());
+        System.out.println("f(x) = " + result.bestFitness());
+        if (getSurrogate() != null) {
+            System.out.println("Вычислений fitness: " + evaluations()
+                    + ", оценок суррогатной моделью: " + surrogateEvaluations());
         }
+    }
 
-        // Поиск лучшего решения
-        Integer best = population.stream()
-                .min(Comparator.comparingDouble(super::fitness))
-                .orElse(0);
-
-        System.out.println("Лучший найденный x = " + best);
-        System.out.println("f(x) = " + fitness(best));
+    @Override
+    protected Integer chromosome(double value) {
+        return (int) value;
     }
 
     /**
@@ -78,7 +114,7 @@ public class GAInteger extends GeneticAlgorithm<Integer> {
     public List<Integer> initPopulation(int populationSize, Integer maxBound, Integer minBound) {
         var pop = new ArrayList<Integer>();
         for (var i = 0; i < populationSize; i++)
-            pop.add(RANDOM.nextInt(maxBound - minBound + 1) + minBound);
+            pop.add(random.nextInt(maxBound - minBound + 1) + minBound);
         return pop;
     }
 
@@ -91,22 +127,22 @@ public class GAInteger extends GeneticAlgorithm<Integer> {
      */
     @Override
     public Integer crossover(Integer p1, Integer p2) {
-        return RANDOM.nextBoolean() ? p1 : p2;
+        return random.nextBoolean() ? p1 : p2;
     }
 
     /**
-     * Мутация: с вероятностью {@link #MUTATION_RATE} изменяет x на -1, 0 или +1.
-     * Гарантирует, что x остаётся в диапазоне [MIN_X, MAX_X].
+     * Мутация: с вероятностью {@link GAConfig#mutationRate()} изменяет x на -1, 0 или +1.
+     * Гарантирует, что x остаётся в диапазоне границ конфигурации.
      *
      * @param x значение для мутации
      * @return мутированное (или исходное) значение
      */
     @Override
     public Integer mutate(Integer x) {
-        if (RANDOM.nextDouble() < MUTATION_RATE) {
-            x += RANDOM.nextInt(3) - 1; // -1, 0 или +1
-            if (x < MIN_X) x = MIN_X;
-            if (x > MAX_X) x = MAX_X;
+        if (random.nextDouble() < config.mutationRate()) {
+            x += random.nextInt(3) - 1; // -1, 0 или +1
+            x = Math.max(x, (int) config.minBound());
+            x = Math.min(x, (int) config.maxBound());
         }
         return x;
     }
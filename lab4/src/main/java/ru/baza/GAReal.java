@@ -1,5 +1,7 @@
 package ru.baza;
 
+import ru.baza.expression.Expression;
+
 import java.util.*;
 
 /**
@@ -10,59 +12,81 @@ import java.util.*;
  *
  * <p>Особенности:
  * <ul>
- *     <li>Инициализация случайных значений в диапазоне [-10, 10].</li>
+ *     <li>Инициализация случайных значений в заданном диапазоне
+ *         (по умолчанию [-10, 10]).</li>
  *     <li>Кроссовер — усреднение двух родителей.</li>
  *     <li>Мутация — добавление гауссовского шума.</li>
  * </ul>
  *
  * <p>Цель алгоритма — минимизация функции {@link #fitness(Double)},
- * определённой в родительском классе.
+ * заданной в {@link GAConfig#fitness()} (по умолчанию x² + 4).
  */
 public class GAReal extends GeneticAlgorithm<Double> {
 
-    /** Размер популяции. */
-    static final int POP_SIZE = 50;
-
-    /** Количество поколений. */
-    static final int GENERATIONS = 10;
-
-    /** Вероятность мутации. */
-    static final double MUTATION_RATE = 0.1;
+    /**
+     * Создаёт параметры по умолчанию: популяция 50, не более 10 поколений
+     * или 5 поколений без улучшения, вероятность мутации 0.1, диапазон [-10, 10].
+     *
+     * @return конфигурация по умолчанию
+     */
+    public static GAConfig defaultConfig() {
+        return GAConfig.builder()
+                .populationSize(50)
+                .bounds(-10, 10)
+                .mutationRate(0.1)
+                .maxGenerations(10)
+                .stagnation(5, 0)
+                .build();
+    }
 
-    /** Минимально возможное значение хромосомы. */
-    static final double MIN_X = -10;
+    /**
+     * Создаёт алгоритм с параметрами {@link #defaultConfig()}.
+     */
+    public GAReal() {
+        this(defaultConfig());
+    }
 
-    /** Максимально возможное значение хромосомы. */
-    static final double MAX_X = 10;
+    /**
+     * Создаёт алгоритм с заданными параметрами.
+     *
+     * @param config параметры запуска
+     */
+    public GAReal(GAConfig config) {
+        super(config);
+    }
 
     /**
-     * Точка входа: запускает пример оптимизации вещественной переменной.
+     * Точка входа: запускает пример с печатью статистики поколений.
+     * Первый аргумент, если он задан, — минимизируемая формула от {@code x},
+     * например {@code "(x - 3)^2"}.
      */
     public static void main(String[] args) {
-        new GAReal().execute();
+        var config = defaultConfig().toBuilder()
+                .listener(new ConsoleGenerationListener());
+        if (args.length > 0) {
+            config.fitness(Expression.compile(args[0]));
+        }
+        new GAReal(config.build()).execute();
     }
 
     /**
-     * Основной цикл выполнения генетического алгоритма:
-     * <ol>
-     *     <li>Генерация начальной популяции.</li>
-     *     <li>Эволюция популяции через {@link #GENERATIONS} поколений.</li>
-     *     <li>Нахождение лучшего решения.</li>
-     * </ol>
+     * Выполняет алгоритм и печатает лучшее найденное решение.
+     * Эволюция продолжается до выполнения условия остановки из {@link GAConfig}.
      */
     public void execute() {
-        List<Double> population = initPopulation(POP_SIZE, MAX_X, MIN_X);
+        var result = run();
 
-        for (int gen = 0; gen < GENERATIONS; gen++) {
-            population = evolve(population, POP_SIZE);
+        System.out.println("Лучший найденный x = " + result.best());
+        System.out.println("f(x) = " + result.bestFitness());
+        if (getSurrogate() != null) {
+            System.out.println("Вычислений fitness: " + evaluations()
+                    + ", оценок суррогатной моделью: " + surrogateEvaluations());
         }
+    }
 
-        Double best = population.stream()
-                .min(Comparator.comparingDouble(super::fitness))
-                .orElse(0.0);
-
-        System.out.println("Лучший найденный x = " + best);
-        System.out.println("f(x) = " + fitness(best));
+    @Override
+    protected Double chromosome(double value) {
+        return value;
     }
 
     /**
@@ -78,7 +102,7 @@ public class GAReal extends GeneticAlgorithm<Double> {
     public List<Double> initPopulation(int populationSize, Double maxBound, Double minBound) {
         var pop = new ArrayList<Double>();
         for (var i = 0; i < populationSize; i++) {
-            pop.add(MIN_X + (MAX_X - MIN_X) * RANDOM.nextDouble());
+            pop.add(minBound + (maxBound - minBound) * random.nextDouble());
         }
         return pop;
     }
@@ -98,18 +122,18 @@ public class GAReal extends GeneticAlgorithm<Double> {
 
     /**
      * Мутация вещественного значения.
-     * <p>С вероятностью {@link #MUTATION_RATE} добавляет гауссовский шум
-     * с коэффициентом 0.5 и ограничивает значение в пределах [MIN_X, MAX_X].
+     * <p>С вероятностью {@link GAConfig#mutationRate()} добавляет гауссовский шум
+     * с коэффициентом 0.5 и ограничивает значение границами конфигурации.
      *
      * @param x исходное значение
      * @return мутированное или исходное значение
      */
     @Override
     public Double mutate(Double x) {
-        if (RANDOM.nextDouble() < MUTATION_RATE) {
-            x += RANDOM.nextGaussian() * 0.5;
-            if (x < MIN_X) x = MIN_X;
-            if (x > MAX_X) x = MAX_X;
+        if (random.nextDouble() < config.mutationRate()) {
+            x += random.nextGaussian() * 0.5;
+            x = Math.max(x, config.minBound());
+            x = Math.min(x, config.maxBound());
         }
         return x;
     }
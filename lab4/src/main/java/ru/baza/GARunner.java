@@ -0,0 +1,87 @@
+package ru.baza;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Выполняет много независимых запусков генетических алгоритмов
+ * одновременно в одной JVM.
+ *
+ * <p>Каждый алгоритм несёт свою {@link GAConfig} и свой генератор случайных
+ * чисел, поэтому задачи с разными параметрами не разделяют изменяемого
+ * состояния и не требуют отдельного процесса на конфигурацию.
+ *
+ * <pre>{@code
+ * try (var runner = new GARunner()) {
+ *     var jobs = new ArrayList<GAInteger>();
+ *     for (var rate : new double[]{0.01, 0.05, 0.1, 0.2}) {
+ *         jobs.add(new GAInteger(GAInteger.defaultConfig().toBuilder()
+ *                 .mutationRate(rate).seed(42).build()));
+ *     }
+ *     var results = runner.runAll(jobs);
+ * }
+ * }</pre>
+ */
+public class GARunner implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    /**
+     * Создаёт исполнитель с потоком на каждое доступное ядро.
+     */
+    public GARunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Создаёт исполнитель с заданным числом потоков.
+     *
+     * @param threads число одновременно выполняемых запусков
+     */
+    public GARunner(int threads) {
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Ставит запуск алгоритма в очередь.
+     *
+     * @param algorithm алгоритм; не должен выполняться в другом месте одновременно
+     * @param <T>       тип хромосомы
+     * @return будущий результат запуска
+     */
+    public <T extends Number> CompletableFuture<EvolutionResult<T>> submit(GeneticAlgorithm<T> algorithm) {
+        return CompletableFuture.supplyAsync(algorithm::run, executor);
+    }
+
+    /**
+     * Выполняет все алгоритмы параллельно и дожидается результатов.
+     *
+     * @param algorithms алгоритмы
+     * @param <T>        тип хромосомы
+     * @return результаты в порядке алгоритмов
+     */
+    public <T extends Number> List<EvolutionResult<T>> runAll(Collection<? extends GeneticAlgorithm<T>> algorithms) {
+        var futures = new ArrayList<CompletableFuture<EvolutionResult<T>>>(algorithms.size());
+        for (var algorithm : algorithms) {
+            futures.add(submit(algorithm));
+        }
+
+        var results = new ArrayList<EvolutionResult<T>>(futures.size());
+        for (var future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Дожидается запущенных задач и освобождает потоки.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
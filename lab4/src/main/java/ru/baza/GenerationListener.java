@@ -0,0 +1,24 @@
+package ru.baza;
+
+/**
+ * Слушатель поколений генетического алгоритма.
+ *
+ * <p>Вызывается один раз после оценки каждого поколения, а не для каждой
+ * особи, поэтому не влияет на скорость внутреннего цикла. По умолчанию
+ * используется {@link #NONE}.
+ *
+ * @see ConsoleGenerationListener
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /** Слушатель, игнорирующий все события. */
+    GenerationListener NONE = stats -> {};
+
+    /**
+     * Поколение построено и оценено.
+     *
+     * @param stats статистика поколения
+     */
+    void generationCompleted(GenerationStats stats);
+}
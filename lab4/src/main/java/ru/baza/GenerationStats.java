@@ -0,0 +1,51 @@
+package ru.baza;
+
+/**
+ * Статистика одного поколения генетического алгоритма.
+ *
+ * @param generation      номер поколения (0 — начальная популяция)
+ * @param bestFitness     лучшая (минимальная) приспособленность поколения
+ * @param meanFitness     средняя приспособленность
+ * @param variance        дисперсия приспособленности
+ * @param evaluations     число вызовов fitness-функции с начала запуска
+ * @param generationNanos время построения и оценки поколения, нс
+ * @param elapsedNanos    время с начала запуска, нс
+ */
+public record GenerationStats(int generation,
+                              double bestFitness,
+                              double meanFitness,
+                              double variance,
+                              long evaluations,
+                              long generationNanos,
+                              long elapsedNanos) {
+
+    /**
+     * Собирает статистику поколения за один проход по массиву
+     * приспособленности (алгоритм Уэлфорда для среднего и дисперсии).
+     *
+     * @param generation      номер поколения
+     * @param fitness         приспособленность особей
+     * @param size            число особей в начале массива
+     * @param evaluations     число вызовов fitness-функции с начала запуска
+     * @param generationNanos время поколения, нс
+     * @param elapsedNanos    время с начала запуска, нс
+     * @return статистика поколения
+     */
+    public static GenerationStats of(int generation, double[] fitness, int size, long evaluations,
+                                     long generationNanos, long elapsedNanos) {
+        var best = Double.POSITIVE_INFINITY;
+        var mean = 0.0;
+        var m2 = 0.0;
+        for (var i = 0; i < size; i++) {
+            var value = fitness[i];
+            if (value < best) {
+                best = value;
+            }
+            var delta = value - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (value - mean);
+        }
+        return new GenerationStats(generation, best, mean, size > 0 ? m2 / size : 0,
+                evaluations, generationNanos, elapsedNanos);
+    }
+}
@@ -1,47 +1,573 @@
 package ru.baza;
 
+import ru.baza.selection.IndexSort;
+import ru.baza.selection.Selector;
+import ru.baza.surrogate.SurrogateModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
 
+/**
+ * Базовый генетический алгоритм над упакованными хромосомами {@code T}.
+ *
+ * <p>Приспособленность каждой особи вычисляется один раз за поколение
+ * ({@link #evaluate(List)}) и хранится в массиве, параллельном списку
+ * популяции; отбор ({@link GAConfig#selection()}) работает по индексам
+ * этого массива. Для дискретных
+ * областей значений можно подключить {@link FitnessCache}, чтобы повторные
+ * генотипы не пересчитывались между поколениями, а для дорогой
+ * fitness-функции — {@link SurrogateModel}, чтобы настоящую оценку
+ * получали только перспективные потомки.
+ *
+ * <p>Метод {@link #run} выполняет эволюцию до выполнения
+ * {@link StoppingCriterion} и сообщает статистику каждого поколения
+ * {@link GenerationListener}.
+ *
+ * <p>Параметры запуска задаются {@link GAConfig}, а генератор случайных
+ * чисел принадлежит экземпляру, поэтому независимые алгоритмы можно
+ * выполнять одновременно в разных потоках ({@link GARunner}).
+ * Сам экземпляр не потокобезопасен.
+ *
+ * <p>Если в конфигурации задан {@link GAConfig#checkpointFile()}, долгий
+ * запуск периодически сохраняет {@link Checkpoint} и после перезапуска
+ * процесса продолжается с последней контрольной точки: популяция,
+ * приспособленность, генератор, кеш, состояние условия остановки и архив
+ * суррогатной модели восстанавливаются точно, поэтому с заданным зерном
+ * результат совпадает с непрерванным запуском. Когда условие остановки
+ * выполнено, файл удаляется, и следующий запуск начинается заново.
+ *
+ * @param <T> тип хромосомы
+ */
 public abstract class GeneticAlgorithm<T extends Number> {
 
+    /** Параметры запуска. */
+    protected final GAConfig config;
+
     /** Генератор случайных чисел, используемый во всех операциях ГА. */
-    protected static final Random RANDOM = new Random();
+    protected final SplitMix64 random;
+
+    /** Минимизируемая функция из конфигурации. */
+    private final DoubleUnaryOperator fitness;
+
+    /** Селектор родителей, построенный по стратегии из конфигурации. */
+    private final Selector selector;
+
+    /** Кеш значений приспособленности или {@code null}, если кеш не используется. */
+    private FitnessCache<T> fitnessCache;
+
+    /** Суррогатная модель или {@code null}, если предварительный отбор не используется. */
+    private SurrogateModel surrogate;
+
+    /** Буфер генов для суррогатной модели. */
+    private final double[] point = new double[1];
+
+    /** Прогнозы суррогатной модели по индексу особи; переиспользуется между поколениями. */
+    private double[] predicted = new double[0];
+
+    /** Индексы особей, которых нет в архиве модели; переиспользуется между поколениями. */
+    private int[] candidates = new int[0];
+
+    /** Журнал обращений к кешу, пока идёт запуск с контрольными точками. */
+    private CacheJournal cacheJournal;
+
+    /** Индексы элитных особей по возрастанию приспособленности; переиспользуется между поколениями. */
+    private int[] elite = new int[0];
+
+    /** Число вызовов fitness-функции (промахов кеша) с момента создания. */
+    private long evaluations;
+
+    /** Число особей, получивших прогноз суррогатной модели вместо вызова fitness-функции. */
+    private long surrogateEvaluations;
+
+    /**
+     * @param config параметры запуска
+     */
+    protected GeneticAlgorithm(GAConfig config) {
+        this(config, null);
+    }
 
     /**
-     * Fitness-функция: f(x) = x² + 4
+     * Создаёт алгоритм с подключённым кешем приспособленности — без вызова
+     * переопределяемого {@link #setFitnessCache(FitnessCache)} из конструктора.
+     *
+     * @param config       параметры запуска
+     * @param fitnessCache кеш или {@code null}
+     */
+    protected GeneticAlgorithm(GAConfig config, FitnessCache<T> fitnessCache) {
+        this.config = config;
+        this.random = config.newRandom();
+        this.fitness = config.fitness();
+        this.selector = config.selection().create();
+        this.fitnessCache = fitnessCache;
+    }
+
+    /** Возвращает параметры запуска. */
+    public GAConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Fitness-функция из {@link GAConfig#fitness()} (по умолчанию f(x) = x² + 4).
      */
     protected double fitness(T x) {
-        return x.doubleValue() * x.doubleValue() + 4;
+        return fitness.applyAsDouble(x.doubleValue());
     }
 
-    protected abstract Collection<T> initPopulation(int populationSize, T maxBound, T minBound);
+    /**
+     * Подключает кеш значений приспособленности.
+     *
+     * @param fitnessCache кеш или {@code null}, чтобы отключить кеширование
+     */
+    public void setFitnessCache(FitnessCache<T> fitnessCache) {
+        this.fitnessCache = fitnessCache;
+    }
+
+    /** Возвращает подключённый кеш приспособленности или {@code null}. */
+    public FitnessCache<T> getFitnessCache() {
+        return fitnessCache;
+    }
 
-    protected T tournamentSelection(List<T> population, Function<T, Double> fitnessFunction) {
-        var a = population.get(RANDOM.nextInt(population.size()));
-        var b = population.get(RANDOM.nextInt(population.size()));
-        return fitnessFunction.apply(a) < fitnessFunction.apply(b) ? a : b;
+    /**
+     * Подключает суррогатную модель для предварительного отбора потомков.
+     *
+     * <p>Пока архив модели меньше порога разогрева, все особи получают
+     * настоящую оценку и пополняют архив. Затем в каждом поколении
+     * особи, уже вычисленные ранее, получают точное значение из архива,
+     * настоящую оценку — доля {@link SurrogateModel#screenFraction()}
+     * остальных с лучшим прогнозом, а прочие — прогноз модели. Особь,
+     * прогноз которой лучше лучшего настоящего значения поколения,
+     * всегда оценивается по-настоящему, поэтому лучшая приспособленность
+     * поколения и результат запуска — настоящие значения; средняя
+     * приспособленность и дисперсия в {@link GenerationStats} включают прогнозы.
+     *
+     * <p>Архив модели сохраняется в {@link Checkpoint}; перед
+     * возобновлением подключите пустую модель с теми же параметрами.
+     *
+     * @param surrogate одномерная модель или {@code null}, чтобы отключить отбор
+     * @throws IllegalArgumentException если размерность модели не равна 1
+     */
+    public void setSurrogate(SurrogateModel surrogate) {
+        if (surrogate != null && surrogate.dimensions() != 1) {
+            throw new IllegalArgumentException("Хромосома одномерна, а модель — размерности " + surrogate.dimensions());
+        }
+        this.surrogate = surrogate;
     }
 
+    /** Возвращает подключённую суррогатную модель или {@code null}. */
+    public SurrogateModel getSurrogate() {
+        return surrogate;
+    }
+
+    /**
+     * Вычисляет приспособленность каждой особи популяции ровно один раз
+     * (через кеш, если он подключён). С суррогатной моделью часть особей
+     * получает прогноз вместо вызова fitness-функции.
+     *
+     * @param population популяция
+     * @return массив приспособленности, параллельный списку популяции
+     */
+    protected double[] evaluate(List<T> population) {
+        if (surrogate != null && surrogate.ready()) {
+            return screen(population);
+        }
+        var values = new double[population.size()];
+        for (var i = 0; i < values.length; i++) {
+            values[i] = trueFitness(population.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * Оценивает популяцию с предварительным отбором по прогнозу
+     * суррогатной модели (см. {@link #setSurrogate(SurrogateModel)}).
+     */
+    private double[] screen(List<T> population) {
+        var values = new double[population.size()];
+        if (predicted.length < values.length) {
+            predicted = new double[values.length];
+            candidates = new int[values.length];
+        }
+        var count = 0;
+        var best = Double.POSITIVE_INFINITY;
+        for (var i = 0; i < values.length; i++) {
+            point[0] = population.get(i).doubleValue();
+            predicted[i] = surrogate.predict(point, 0);
+            if (surrogate.nearestDistance() == 0) {
+                values[i] = predicted[i];
+                best = Math.min(best, values[i]);
+            } else {
+                candidates[count++] = i;
+            }
+        }
+
+        IndexSort.sortIndices(candidates, predicted, count);
+        var promising = (int) Math.ceil(surrogate.screenFraction() * count);
+        for (var c = 0; c < count; c++) {
+            var i = candidates[c];
+            if (c < promising || predicted[i] < best) {
+                values[i] = trueFitness(population.get(i));
+                best = Math.min(best, values[i]);
+            } else {
+                values[i] = predicted[i];
+                surrogateEvaluations++;
+            }
+        }
+        return values;
+    }
+
+    private double trueFitness(T x) {
+        if (fitnessCache == null) {
+            return countedFitness(x);
+        }
+        var value = fitnessCache.get(x, this::countedFitness);
+        if (cacheJournal != null) {
+            cacheJournal.record(x.doubleValue(), value);
+        }
+        return value;
+    }
+
+    private double countedFitness(T x) {
+        evaluations++;
+        var value = fitness(x);
+        if (surrogate != null) {
+            point[0] = x.doubleValue();
+            surrogate.add(point, 0, value);
+        }
+        return value;
+    }
+
+    /** Возвращает число вызовов fitness-функции с момента создания алгоритма. */
+    public long evaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Возвращает число оценок, выданных суррогатной моделью вместо вызова
+     * fitness-функции, с момента создания алгоритма.
+     */
+    public long surrogateEvaluations() {
+        return surrogateEvaluations;
+    }
+
+    protected abstract Collection<T> initPopulation(int populationSize, T maxBound, T minBound);
+
+    /**
+     * Преобразует границу из {@link GAConfig} в значение хромосомы.
+     *
+     * @param value граница
+     * @return значение хромосомы
+     */
+    protected abstract T chromosome(double value);
+
     protected abstract T crossover(T p1, T p2);
 
     protected abstract T mutate(T x);
 
     protected List<T> evolve(List<T> population, int populationSize) {
-        var newPopulation = new ArrayList<T>();
-        for (var i = 0; i < populationSize; i++) {
-            var p1 = tournamentSelection(population, this::fitness);
-            var p2 = tournamentSelection(population, this::fitness);
-            var child = crossover(p1, p2);
-            child = mutate(child);
+        return breed(population, evaluate(population), populationSize);
+    }
 
-            System.out.println("Новый потомок: " + child);
+    /**
+     * Строит следующее поколение по оценённой популяции.
+     *
+     * @param population     текущая популяция
+     * @param fitness        приспособленность особей текущей популяции
+     * @param populationSize размер нового поколения
+     * @return новое поколение
+     */
+    protected List<T> breed(List<T> population, double[] fitness, int populationSize) {
+        var newPopulation = new ArrayList<T>(populationSize);
+        addElite(population, fitness, Math.min(config.elitism(), Math.min(populationSize, fitness.length)), newPopulation);
 
+        selector.prepare(fitness, population.size());
+        while (newPopulation.size() < populationSize) {
+            var p1 = population.get(selector.select(random));
+            var p2 = population.get(selector.select(random));
+            var child = crossover(p1, p2);
+            child = mutate(child);
             newPopulation.add(child);
         }
         return newPopulation;
     }
+
+    /**
+     * Переносит {@code count} лучших особей в новое поколение без изменений.
+     * Лучшие выбираются за один проход вставкой в упорядоченный буфер
+     * длины {@code count}; при равной приспособленности раньше идёт
+     * особь с меньшим индексом.
+     */
+    private void addElite(List<T> population, double[] fitness, int count, List<T> newPopulation) {
+        if (count == 0) {
+            return;
+        }
+        if (elite.length < count) {
+            elite = new int[count];
+        }
+        var size = 0;
+        for (var i = 0; i < fitness.length; i++) {
+            var pos = size;
+            while (pos > 0 && fitness[i] < fitness[elite[pos - 1]]) {
+                pos--;
+            }
+            if (pos == count) {
+                continue;
+            }
+            var last = Math.min(size, count - 1);
+            System.arraycopy(elite, pos, elite, pos + 1, last - pos);
+            elite[pos] = i;
+            size = Math.min(size + 1, count);
+        }
+        for (var e = 0; e < count; e++) {
+            newPopulation.add(population.get(elite[e]));
+        }
+    }
+
+    /**
+     * Выполняет полный запуск по параметрам {@link GAConfig}: создаёт
+     * начальную популяцию и эволюционирует её до выполнения условия остановки.
+     * Если файл контрольной точки из конфигурации существует, запуск
+     * продолжается с него ({@link #resume(Checkpoint)}).
+     *
+     * @return последнее поколение и его статистика
+     * @throws UncheckedIOException     если контрольную точку не удалось прочитать или записать
+     * @throws IllegalArgumentException если контрольная точка создана другим запуском
+     */
+    public EvolutionResult<T> run() {
+        var file = config.checkpointFile();
+        if (file != null && Files.exists(file)) {
+            try {
+                return resume(Checkpoint.read(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        var population = new ArrayList<T>(initPopulation(config.populationSize(),
+                chromosome(config.maxBound()), chromosome(config.minBound())));
+        return run(population, config.populationSize(), config.stoppingCriterion(), config.listener());
+    }
+
+    /**
+     * Продолжает запуск с контрольной точки: восстанавливает популяцию,
+     * её приспособленность, состояние генератора и кеш приспособленности
+     * и эволюционирует до выполнения условия остановки из конфигурации.
+     *
+     * <p>Номер поколения, число вычислений и окно стагнации продолжают
+     * счёт контрольной точки, а время запуска и бюджет времени
+     * отсчитываются заново от момента возобновления. Сохранённое поколение
+     * сообщается слушателю и проверяется условием остановки повторно.
+     *
+     * @param checkpoint контрольная точка
+     * @return последнее поколение и его статистика
+     * @throws IllegalArgumentException если контрольная точка создана с другими параметрами
+     *                                  размножения (см. {@link Checkpoint}), если она содержит
+     *                                  архив суррогатной модели, а пустая модель не подключена,
+     *                                  или если условие остановки из конфигурации другое
+     */
+    public EvolutionResult<T> resume(Checkpoint checkpoint) {
+        var expected = fingerprint();
+        if (!checkpoint.fingerprint().equals(expected)) {
+            throw new IllegalArgumentException("Контрольная точка создана другим запуском: "
+                    + checkpoint.fingerprint() + ", ожидается " + expected);
+        }
+        var genes = checkpoint.population();
+        if (genes.length != config.populationSize() || checkpoint.fitness().length != genes.length) {
+            throw new IllegalArgumentException("Размер популяции контрольной точки " + genes.length
+                    + " не совпадает с конфигурацией: " + config.populationSize());
+        }
+        var archiveValues = checkpoint.archiveValues();
+        if (archiveValues.length > 0) {
+            if (surrogate == null || surrogate.size() != 0) {
+                throw new IllegalArgumentException("Контрольная точка содержит архив суррогатной модели "
+                        + "из " + archiveValues.length + " точек: подключите пустую модель");
+            }
+            if (checkpoint.archivePoints().length != archiveValues.length * surrogate.dimensions()) {
+                throw new IllegalArgumentException("Размерность архива контрольной точки не совпадает с моделью");
+            }
+        }
+        var stop = config.stoppingCriterion();
+        stop.restore(checkpoint.stopState());
+
+        var population = new ArrayList<T>(genes.length);
+        for (var value : genes) {
+            population.add(chromosome(value));
+        }
+        if (fitnessCache != null) {
+            var keys = checkpoint.cacheKeys();
+            var values = checkpoint.cacheValues();
+            for (var i = 0; i < keys.length; i++) {
+                fitnessCache.put(chromosome(keys[i]), values[i]);
+            }
+        }
+        if (archiveValues.length > 0) {
+            var archivePoints = checkpoint.archivePoints();
+            var dimensions = surrogate.dimensions();
+            for (var i = 0; i < archiveValues.length; i++) {
+                surrogate.add(archivePoints, i * dimensions, archiveValues[i]);
+            }
+        }
+        random.restore(checkpoint.randomState(), checkpoint.randomGamma());
+
+        var evaluationsBefore = evaluations;
+        var surrogateEvaluationsBefore = surrogateEvaluations;
+        evaluations += checkpoint.evaluations();
+        surrogateEvaluations += checkpoint.surrogateEvaluations();
+        return evolve(population, checkpoint.fitness().clone(), checkpoint.generation(),
+                evaluationsBefore, surrogateEvaluationsBefore, config.populationSize(), stop, config.listener());
+    }
+
+    /**
+     * Выполняет эволюцию, пока не выполнится условие остановки.
+     *
+     * @param population     начальная популяция
+     * @param populationSize размер поколений
+     * @param stop           условие остановки
+     * @param listener       слушатель поколений
+     * @return последнее поколение и его статистика
+     */
+    public EvolutionResult<T> run(List<T> population, int populationSize,
+                                  StoppingCriterion stop, GenerationListener listener) {
+        return evolve(population, null, 0, evaluations, surrogateEvaluations, populationSize, stop, listener);
+    }
+
+    /**
+     * Цикл эволюции с поколения {@code generation}.
+     *
+     * @param fitness                    приспособленность популяции или {@code null}, если её нужно вычислить
+     * @param evaluationsBefore          значение счётчика вычислений на начало запуска
+     * @param surrogateEvaluationsBefore значение счётчика прогнозов на начало запуска
+     */
+    private EvolutionResult<T> evolve(List<T> population, double[] fitness, int generation,
+                                      long evaluationsBefore, long surrogateEvaluationsBefore, int populationSize,
+                                      StoppingCriterion stop, GenerationListener listener) {
+        var start = System.nanoTime();
+        var generationStart = start;
+        var file = config.checkpointFile();
+        var interval = config.checkpointInterval();
+
+        EvolutionResult<T> result;
+        try (var writer = file != null ? new CheckpointWriter(file) : null) {
+            cacheJournal = writer != null && fitnessCache != null ? new CacheJournal(fitnessCache) : null;
+            for (; ; generation++) {
+                if (fitness == null) {
+                    fitness = evaluate(population);
+                }
+                var now = System.nanoTime();
+                var stats = GenerationStats.of(generation, fitness, fitness.length, evaluations - evaluationsBefore,
+                        now - generationStart, now - start);
+                listener.generationCompleted(stats);
+                if (stop.shouldStop(stats)) {
+                    result = new EvolutionResult<>(population, fitness, stats);
+                    break;
+                }
+                if (writer != null && generation % interval == 0) {
+                    writer.submit(checkpoint(population, fitness, generation, evaluations - evaluationsBefore,
+                            surrogateEvaluations - surrogateEvaluationsBefore, stop));
+                }
+
+                generationStart = System.nanoTime();
+                population = breed(population, fitness, populationSize);
+                fitness = null;
+            }
+        } finally {
+            cacheJournal = null;
+        }
+        if (file != null) {
+            // Запуск завершён: следующий run() не должен продолжать его
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось удалить контрольную точку " + file, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Снимает состояние запуска перед построением следующего поколения.
+     * В потоке ГА копируется O(размер популяции): журнал кеша и архив
+     * модели только дополняются, поэтому фиксируются их срезы, а копирует
+     * их поток записи при сборке {@link Checkpoint}.
+     */
+    private Supplier<Checkpoint> checkpoint(List<T> population, double[] fitness, int generation,
+                                            long runEvaluations, long runSurrogateEvaluations,
+                                            StoppingCriterion stop) {
+        var genes = new double[population.size()];
+        for (var i = 0; i < genes.length; i++) {
+            genes[i] = population.get(i).doubleValue();
+        }
+        var fitnessCopy = fitness.clone();
+        var stopState = stop.state();
+        var randomState = random.state();
+        var randomGamma = random.gamma();
+        var fingerprint = fingerprint();
+        var cacheSize = cacheJournal != null ? cacheJournal.size() : 0;
+        var cacheKeys = cacheJournal != null ? cacheJournal.keys() : new double[0];
+        var cacheValues = cacheJournal != null ? cacheJournal.values() : new double[0];
+        var archive = surrogate != null ? surrogate.archive() : null;
+        return () -> new Checkpoint(fingerprint, generation, runEvaluations, runSurrogateEvaluations,
+                randomState, randomGamma, genes, fitnessCopy,
+                Arrays.copyOf(cacheKeys, cacheSize), Arrays.copyOf(cacheValues, cacheSize), stopState,
+                archive != null ? archive.points() : new double[0],
+                archive != null ? archive.values() : new double[0]);
+    }
+
+    /**
+     * Отпечаток конфигурации для {@link Checkpoint}: параметры, от которых
+     * зависят сохранённая популяция и её дальнейшее размножение, — класс
+     * алгоритма, зерно, границы, размер популяции, вероятность мутации,
+     * элита, отбор, стагнация, fitness-функция и суррогатная модель.
+     * Ограничения запуска (число поколений, целевая приспособленность,
+     * бюджеты), слушатель и интервал контрольных точек не проверяются:
+     * их можно менять при возобновлении.
+     */
+    private String fingerprint() {
+        return getClass().getName() + "; seed=" + config.seed()
+                + "; bounds=[" + config.minBound() + ", " + config.maxBound() + "]"
+                + "; population=" + config.populationSize()
+                + "; mutationRate=" + config.mutationRate()
+                + "; elitism=" + config.elitism()
+                + "; selection=" + describe(selector)
+                + "; stagnation=" + config.stagnationWindow() + "/" + config.stagnationTolerance()
+                + "; fitness=" + describe(config.fitness())
+                + "; surrogate=" + surrogate;
+    }
+
+    /**
+     * Описание объекта для отпечатка: собственный {@code toString()}, если он
+     * объявлен, иначе имя класса. Имя лямбды меняется между запусками JVM,
+     * поэтому лямбда без описания в отпечаток не попадает и не проверяется.
+     */
+    private static String describe(Object value) {
+        try {
+            if (value.getClass().getMethod("toString").getDeclaringClass() != Object.class) {
+                return value.toString();
+            }
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+        return value.getClass().isHidden() ? "?" : value.getClass().getName();
+    }
+
+    /**
+     * Находит лучшую (с минимальной приспособленностью) особь популяции.
+     *
+     * @param fitness приспособленность особей популяции
+     * @return индекс лучшей особи
+     */
+    protected static int bestIndex(double[] fitness) {
+        var best = 0;
+        for (var i = 1; i < fitness.length; i++) {
+            if (fitness[i] < fitness[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
 }
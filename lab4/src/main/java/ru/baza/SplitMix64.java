@@ -0,0 +1,142 @@
+package ru.baza;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Stream;
+
+/**
+ * Генератор SplitMix64 с открытым состоянием.
+ *
+ * <p>Алгоритм совпадает с {@link java.util.SplittableRandom}: при одинаковом
+ * зерне последовательности чисел и результаты {@link #split()} одинаковы.
+ * В отличие от {@code SplittableRandom}, состояние генератора — два числа
+ * {@link #state()} и {@link #gamma()} — можно сохранить в контрольной точке
+ * ({@link Checkpoint}) и восстановить, чтобы продолжить запуск с того же места.
+ *
+ * <p>Генератор не потокобезопасен.
+ */
+public final class SplitMix64 implements SplittableGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+    private long gamma;
+
+    /**
+     * @param seed зерно генератора
+     */
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Создаёт генератор с сохранённым состоянием.
+     *
+     * @param state текущее значение {@link #state()}
+     * @param gamma приращение {@link #gamma()}; должно быть нечётным
+     */
+    public SplitMix64(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("Приращение SplitMix64 должно быть нечётным: " + gamma);
+        }
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Создаёт генератор со случайным зерном.
+     *
+     * @return новый генератор
+     */
+    public static SplitMix64 random() {
+        return new SplitMix64(RandomGenerator.getDefault().nextLong());
+    }
+
+    /** Возвращает текущее состояние генератора. */
+    public long state() {
+        return state;
+    }
+
+    /** Возвращает приращение состояния на каждом шаге. */
+    public long gamma() {
+        return gamma;
+    }
+
+    /**
+     * Переводит генератор в сохранённое состояние.
+     *
+     * @param state значение {@link #state()}
+     * @param gamma значение {@link #gamma()}
+     */
+    public void restore(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("Приращение SplitMix64 должно быть нечётным: " + gamma);
+        }
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    @Override
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public SplitMix64 split(SplittableGenerator source) {
+        return new SplitMix64(source.nextLong(), mixGamma(source.nextLong()));
+    }
+
+    @Override
+    public Stream<SplittableGenerator> splits() {
+        return splits(this);
+    }
+
+    @Override
+    public Stream<SplittableGenerator> splits(long streamSize) {
+        return splits(streamSize, this);
+    }
+
+    @Override
+    public Stream<SplittableGenerator> splits(SplittableGenerator source) {
+        return Stream.generate(() -> (SplittableGenerator) split(source));
+    }
+
+    @Override
+    public Stream<SplittableGenerator> splits(long streamSize, SplittableGenerator source) {
+        return Stream.generate(() -> (SplittableGenerator) split(source)).limit(streamSize);
+    }
+
+    private long nextSeed() {
+        return state += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /** Нечётное приращение с достаточным числом переходов 01/10 между битами. */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        var n = Long.bitCount(z ^ (z >>> 1));
+        return n < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
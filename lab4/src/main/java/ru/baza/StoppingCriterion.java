@@ -0,0 +1,180 @@
+package ru.baza;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Условие остановки генетического алгоритма.
+ *
+ * <p>Проверяется после каждого поколения, включая начальную популяцию.
+ * Условия объединяются через {@link #or(StoppingCriterion)}:
+ * <pre>{@code
+ * var stop = StoppingCriterion.maxGenerations(1_000)
+ *         .or(StoppingCriterion.stagnation(50, 1e-9))
+ *         .or(StoppingCriterion.timeBudget(Duration.ofMinutes(5)));
+ * }</pre>
+ *
+ * <p>Условие {@link #stagnation(int, double)} хранит состояние
+ * и сбрасывает его в начале каждого запуска (на поколении 0), поэтому
+ * один объект можно использовать для последовательных запусков,
+ * но не для одновременных. Состояние сохраняется в {@link Checkpoint}
+ * ({@link #state()}, {@link #restore(double[])}), и после возобновления
+ * окно стагнации продолжает счёт. Повторная проверка того же поколения —
+ * последнего сохранённого при возобновлении — состояние не меняет.
+ */
+@FunctionalInterface
+public interface StoppingCriterion {
+
+    /**
+     * Проверяет, нужно ли остановить эволюцию.
+     *
+     * @param stats статистика последнего поколения
+     * @return {@code true}, если эволюцию пора остановить
+     */
+    boolean shouldStop(GenerationStats stats);
+
+    /**
+     * Возвращает состояние условия для {@link Checkpoint}.
+     *
+     * @return состояние; пустой массив, если условие его не хранит
+     */
+    default double[] state() {
+        return new double[0];
+    }
+
+    /**
+     * Восстанавливает состояние, полученное от {@link #state()} такого же условия.
+     *
+     * @param state состояние
+     * @throws IllegalArgumentException если состояние получено от другого условия
+     */
+    default void restore(double[] state) {
+        if (state.length != 0) {
+            throw new IllegalArgumentException("Условие остановки не хранит состояния, получено значений: "
+                    + state.length);
+        }
+    }
+
+    /**
+     * Объединяет условия: остановка, если выполнено любое из них.
+     * Оба условия проверяются на каждом поколении.
+     *
+     * @param other другое условие
+     * @return объединённое условие
+     */
+    default StoppingCriterion or(StoppingCriterion other) {
+        var first = this;
+        return new StoppingCriterion() {
+            @Override
+            public boolean shouldStop(GenerationStats stats) {
+                return first.shouldStop(stats) | other.shouldStop(stats);
+            }
+
+            @Override
+            public double[] state() {
+                var head = first.state();
+                var tail = other.state();
+                var state = Arrays.copyOf(head, head.length + tail.length);
+                System.arraycopy(tail, 0, state, head.length, tail.length);
+                return state;
+            }
+
+            @Override
+            public void restore(double[] state) {
+                var split = first.state().length;
+                if (state.length < split) {
+                    throw new IllegalArgumentException("Состояние условия остановки короче ожидаемого: "
+                            + state.length);
+                }
+                first.restore(Arrays.copyOfRange(state, 0, split));
+                other.restore(Arrays.copyOfRange(state, split, state.length));
+            }
+        };
+    }
+
+    /**
+     * Остановка после заданного числа поколений.
+     *
+     * @param generations число поколений
+     * @return условие
+     */
+    static StoppingCriterion maxGenerations(int generations) {
+        return stats -> stats.generation() >= generations;
+    }
+
+    /**
+     * Остановка при достижении целевой приспособленности.
+     *
+     * @param target целевое значение (алгоритм минимизирует)
+     * @return условие
+     */
+    static StoppingCriterion targetFitness(double target) {
+        return stats -> stats.bestFitness() <= target;
+    }
+
+    /**
+     * Остановка по исчерпании времени с начала запуска.
+     *
+     * @param budget бюджет времени
+     * @return условие
+     */
+    static StoppingCriterion timeBudget(Duration budget) {
+        var nanos = budget.toNanos();
+        return stats -> stats.elapsedNanos() >= nanos;
+    }
+
+    /**
+     * Остановка по исчерпании числа вызовов fitness-функции.
+     *
+     * @param evaluations бюджет вычислений
+     * @return условие
+     */
+    static StoppingCriterion evaluationBudget(long evaluations) {
+        return stats -> stats.evaluations() >= evaluations;
+    }
+
+    /**
+     * Остановка при стагнации: лучшая приспособленность не улучшалась
+     * больше чем на {@code tolerance} в течение {@code window} поколений.
+     *
+     * @param window    окно стагнации в поколениях
+     * @param tolerance минимальное улучшение, которое считается прогрессом
+     * @return условие
+     */
+    static StoppingCriterion stagnation(int window, double tolerance) {
+        return new StoppingCriterion() {
+            private double best;
+            private int improved;
+            private int last = Integer.MIN_VALUE;
+
+            @Override
+            public boolean shouldStop(GenerationStats stats) {
+                if (stats.generation() != last) {
+                    var restarted = stats.generation() != last + 1;
+                    last = stats.generation();
+                    if (restarted || stats.bestFitness() < best - tolerance) {
+                        best = stats.bestFitness();
+                        improved = stats.generation();
+                    }
+                }
+                return stats.generation() - improved >= window;
+            }
+
+            @Override
+            public double[] state() {
+                return new double[]{best, improved, last};
+            }
+
+            @Override
+            public void restore(double[] state) {
+                if (state.length != 3) {
+                    throw new IllegalArgumentException("Состояние условия стагнации должно содержать 3 значения: "
+                            + state.length);
+                }
+                best = state[0];
+                improved = (int) state[1];
+                last = (int) state[2];
+            }
+        };
+    }
+}
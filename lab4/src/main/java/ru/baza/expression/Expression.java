@@ -0,0 +1,164 @@
+package ru.baza.expression;
+
+import ru.baza.primitive.VectorFitness;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Fitness-функция, заданная формулой в виде строки и скомпилированная
+ * в дерево {@link MethodHandle}.
+ *
+ * <p>Формула разбирается один раз в {@link #compile(String)}; при вычислении
+ * дерево синтаксиса не обходится — вызывается готовый дескриптор, который
+ * JIT компилирует как обычный код. Агрегаты {@code sum}/{@code prod}
+ * собираются в {@link java.lang.invoke.MethodHandles#countedLoop}.
+ *
+ * <pre>{@code
+ * var rastrigin = Expression.compile("10*n + sum(x_i^2 - 10*cos(2*pi*x_i))");
+ * var ga = new VectorGeneticAlgorithm(1000, 30, -5.12, 5.12,
+ *         VectorCrossover.sbx(15), 0.1, 0.1, rastrigin, random);
+ *
+ * var config = GAReal.defaultConfig().toBuilder()
+ *         .fitness(Expression.compile("(x - 3)^2"))
+ *         .build();
+ * }</pre>
+ *
+ * <h3>Синтаксис</h3>
+ * <ul>
+ *     <li>операции {@code + - * / ^} (степень правоассоциативна), скобки, числа;</li>
+ *     <li>переменные: {@code x} — первый ген, {@code x_0}, {@code x_1}, ... —
+ *         ген с номером, {@code n} — число генов;</li>
+ *     <li>{@code sum(expr)} и {@code prod(expr)} — сумма и произведение
+ *         по {@code i} от 0 до {@code n - 1}; внутри доступны {@code i}
+ *         и текущий ген {@code x_i};</li>
+ *     <li>константы {@code pi}, {@code e};</li>
+ *     <li>функции {@code sin cos tan asin acos atan exp log sqrt abs floor ceil}
+ *         и {@code min max pow atan2} от двух аргументов.</li>
+ * </ul>
+ *
+ * <p>Как функция одной переменной ({@link DoubleUnaryOperator}) выражение
+ * вычисляется при {@code n = 1}: {@code x}, {@code x_0} и {@code x_i}
+ * означают один и тот же ген.
+ *
+ * <p>Дескрипторы неизменяемы, поэтому выражение можно вызывать
+ * одновременно из нескольких потоков.
+ */
+public final class Expression implements VectorFitness, DoubleUnaryOperator {
+
+    private final String source;
+
+    /** {@code (double[] genes, int offset, int dims) -> double}. */
+    private final MethodHandle vector;
+
+    /** {@code (double x) -> double} или {@code null}, если формула зависит от нескольких генов. */
+    private final MethodHandle scalar;
+
+    /** Наибольший номер гена {@code x_k} в формуле или {@code -1}. */
+    private final int highestGene;
+
+    private Expression(String source, MethodHandle vector, MethodHandle scalar, int highestGene) {
+        this.source = source;
+        this.vector = vector;
+        this.scalar = scalar;
+        this.highestGene = highestGene;
+    }
+
+    /**
+     * Компилирует формулу.
+     *
+     * @param source текст формулы
+     * @return скомпилированное выражение
+     * @throws IllegalArgumentException если формула некорректна
+     */
+    public static Expression compile(String source) {
+        var vector = ExpressionCompiler.vector(source);
+        MethodHandle scalar;
+        try {
+            scalar = ExpressionCompiler.scalar(source);
+        } catch (IllegalArgumentException e) {
+            // Формула использует x_1, x_2, ...: допустима только как векторная
+            scalar = null;
+        }
+        return new Expression(source, vector.handle(), scalar, vector.highestGene());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException если формула обращается к гену
+     *                                   {@code x_k} при {@code k >= dimensions}
+     */
+    @Override
+    public double evaluate(double[] genes, int offset, int dimensions) {
+        try {
+            return (double) vector.invokeExact(genes, offset, dimensions);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Возвращает наибольший номер гена, к которому формула обращается явно:
+     * {@code 0} для {@code x}, {@code k} для {@code x_k}. Гены внутри
+     * {@code sum}/{@code prod} ({@code x_i}) не учитываются — они всегда
+     * в пределах хромосомы.
+     *
+     * @return номер гена или {@code -1}, если явных обращений нет
+     */
+    public int highestGene() {
+        return highestGene;
+    }
+
+    /** Возвращает {@code highestGene() + 1}. */
+    @Override
+    public int minDimensions() {
+        return highestGene + 1;
+    }
+
+    /**
+     * Вычисляет выражение от одной переменной {@code x}.
+     *
+     * @throws UnsupportedOperationException если формула зависит от нескольких генов
+     */
+    @Override
+    public double applyAsDouble(double x) {
+        if (scalar == null) {
+            throw new UnsupportedOperationException("Выражение зависит от нескольких генов: " + source);
+        }
+        try {
+            return (double) scalar.invokeExact(x);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Возвращает дескриптор {@code (double[] genes, int offset, int dims) -> double}.
+     * Сохранённый в {@code static final} поле, он становится для JIT константой
+     * и встраивается в вызывающий код целиком.
+     *
+     * @return векторный дескриптор
+     */
+    public MethodHandle vectorHandle() {
+        return vector;
+    }
+
+    /**
+     * Возвращает дескриптор {@code (double x) -> double}.
+     *
+     * @return скалярный дескриптор или {@code null}, если формула зависит от нескольких генов
+     */
+    public MethodHandle scalarHandle() {
+        return scalar;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,467 @@
+package ru.baza.expression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Разбор формулы рекурсивным спуском с одновременной сборкой дерева
+ * {@link MethodHandle}.
+ *
+ * <p>Каждый узел формулы — дескриптор с параметрами контекста: для вектора
+ * {@code (double[] genes, int offset, int dims, int i)}, для скаляра
+ * {@code (double x, int i)}, где {@code i} — индекс текущей итерации
+ * {@code sum}/{@code prod}. Бинарные операции объединяются через
+ * {@link MethodHandles#collectArguments} и {@link MethodHandles#permuteArguments},
+ * агрегаты — через {@link MethodHandles#countedLoop}; поддеревья из констант
+ * сворачиваются при разборе.
+ *
+ * <p>Грамматика:
+ * <pre>
+ * expr    = term { ('+' | '-') term }
+ * term    = unary { ('*' | '/') unary }
+ * unary   = '-' unary | power
+ * power   = primary [ '^' unary ]
+ * primary = number | name | name '(' expr { ',' expr } ')' | '(' expr ')'
+ * </pre>
+ */
+final class ExpressionCompiler {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+    private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+
+    private static final MethodHandle ADD = helper("add", BINARY);
+    private static final MethodHandle SUBTRACT = helper("subtract", BINARY);
+    private static final MethodHandle MULTIPLY = helper("multiply", BINARY);
+    private static final MethodHandle DIVIDE = helper("divide", BINARY);
+    private static final MethodHandle NEGATE = helper("negate", UNARY);
+    private static final MethodHandle SQUARE = helper("square", UNARY);
+    private static final MethodHandle POW = math("pow", BINARY);
+    private static final MethodHandle GENE_AT = helper("geneAt",
+            MethodType.methodType(double.class, int.class, double[].class, int.class, int.class, int.class));
+
+    private static final Map<String, MethodHandle> FUNCTIONS = Map.ofEntries(
+            Map.entry("sin", math("sin", UNARY)),
+            Map.entry("cos", math("cos", UNARY)),
+            Map.entry("tan", math("tan", UNARY)),
+            Map.entry("asin", math("asin", UNARY)),
+            Map.entry("acos", math("acos", UNARY)),
+            Map.entry("atan", math("atan", UNARY)),
+            Map.entry("exp", math("exp", UNARY)),
+            Map.entry("log", math("log", UNARY)),
+            Map.entry("sqrt", math("sqrt", UNARY)),
+            Map.entry("abs", math("abs", UNARY)),
+            Map.entry("floor", math("floor", UNARY)),
+            Map.entry("ceil", math("ceil", UNARY)),
+            Map.entry("min", math("min", BINARY)),
+            Map.entry("max", math("max", BINARY)),
+            Map.entry("pow", POW),
+            Map.entry("atan2", math("atan2", BINARY)));
+
+    private static final List<Class<?>> VECTOR = List.of(double[].class, int.class, int.class, int.class);
+    private static final List<Class<?>> SCALAR = List.of(double.class, int.class);
+
+    private final String source;
+    private final boolean scalar;
+    private final List<Class<?>> parameters;
+
+    private int position;
+
+    /** Глубина вложенности {@code sum}/{@code prod}: вне агрегата {@code i} не определён. */
+    private int loops;
+
+    /** Наибольший номер гена, заданный явно ({@code x}, {@code x_k}), или {@code -1}. */
+    private int highestGene = -1;
+
+    private ExpressionCompiler(String source, boolean scalar) {
+        this.source = source;
+        this.scalar = scalar;
+        this.parameters = scalar ? SCALAR : VECTOR;
+    }
+
+    /**
+     * Компилирует формулу над вектором генов.
+     *
+     * @return дескриптор {@code (double[] genes, int offset, int dims) -> double}
+     *         и наибольший номер гена, к которому формула обращается явно
+     */
+    static Vector vector(String source) {
+        var compiler = new ExpressionCompiler(source, false);
+        return new Vector(compiler.compile(), compiler.highestGene);
+    }
+
+    /**
+     * Компилирует формулу одной переменной {@code x}.
+     *
+     * @return дескриптор {@code (double x) -> double}
+     */
+    static MethodHandle scalar(String source) {
+        return new ExpressionCompiler(source, true).compile();
+    }
+
+    private MethodHandle compile() {
+        var term = expression();
+        skipSpaces();
+        if (position < source.length()) {
+            throw error("лишний символ '" + source.charAt(position) + "'");
+        }
+        // Индекс итерации вне агрегатов не используется
+        return MethodHandles.insertArguments(handle(term), parameters.size() - 1, 0);
+    }
+
+    private Term expression() {
+        var left = term();
+        while (true) {
+            if (accept('+')) {
+                left = binary(ADD, left, term());
+            } else if (accept('-')) {
+                left = binary(SUBTRACT, left, term());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Term term() {
+        var left = unary();
+        while (true) {
+            if (accept('*')) {
+                left = binary(MULTIPLY, left, unary());
+            } else if (accept('/')) {
+                left = binary(DIVIDE, left, unary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Term unary() {
+        if (accept('-')) {
+            return unary(NEGATE, unary());
+        }
+        return power();
+    }
+
+    private Term power() {
+        var base = primary();
+        if (!accept('^')) {
+            return base;
+        }
+        var exponent = unary();
+        if (exponent.isConstant() && exponent.value() == 2) {
+            return unary(SQUARE, base);
+        }
+        return binary(POW, base, exponent);
+    }
+
+    private Term primary() {
+        skipSpaces();
+        if (position == source.length()) {
+            throw error("неожиданный конец выражения");
+        }
+        var c = source.charAt(position);
+        if (accept('(')) {
+            var inner = expression();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (Character.isLetter(c)) {
+            var start = position;
+            var name = name();
+            return accept('(') ? call(name, start) : variable(name, start);
+        }
+        throw error("неожиданный символ '" + c + "'");
+    }
+
+    private Term number() {
+        var start = position;
+        while (position < source.length() && isNumberChar(source.charAt(position))) {
+            // Экспонента: 1e-3, 2.5E+10
+            if ((source.charAt(position) == 'e' || source.charAt(position) == 'E')
+                    && position + 1 < source.length()
+                    && (source.charAt(position + 1) == '-' || source.charAt(position + 1) == '+')) {
+                position++;
+            }
+            position++;
+        }
+        try {
+            return Term.constant(Double.parseDouble(source.substring(start, position)));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("некорректное число");
+        }
+    }
+
+    private static boolean isNumberChar(char c) {
+        return Character.isDigit(c) || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private String name() {
+        var start = position;
+        while (position < source.length()
+                && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+            position++;
+        }
+        return source.substring(start, position);
+    }
+
+    private Term variable(String name, int start) {
+        switch (name) {
+            case "pi":
+                return Term.constant(Math.PI);
+            case "e":
+                return Term.constant(Math.E);
+            case "n":
+                return scalar ? Term.constant(1) : Term.of(helper("dimensions", VECTOR));
+            case "i":
+                if (loops == 0) {
+                    position = start;
+                    throw error("индекс i используется вне sum/prod");
+                }
+                return Term.of(helper("index", parameters));
+            case "x":
+                return gene(0, start);
+            case "x_i":
+                if (loops == 0) {
+                    position = start;
+                    throw error("x_i используется вне sum/prod");
+                }
+                return scalar ? gene(0, start) : Term.of(helper("gene", VECTOR));
+            default:
+                if (name.startsWith("x_") && name.length() > 2 && name.substring(2).chars().allMatch(Character::isDigit)) {
+                    return gene(Integer.parseInt(name.substring(2)), start);
+                }
+                position = start;
+                throw error("неизвестная переменная " + name);
+        }
+    }
+
+    private Term gene(int index, int start) {
+        if (scalar) {
+            if (index != 0) {
+                position = start;
+                throw error("у скалярного выражения одна переменная x");
+            }
+            return Term.of(MethodHandles.dropArguments(MethodHandles.identity(double.class), 1, int.class));
+        }
+        highestGene = Math.max(highestGene, index);
+        return Term.of(MethodHandles.insertArguments(GENE_AT, 0, index));
+    }
+
+    private Term call(String name, int start) {
+        if (name.equals("sum") || name.equals("prod")) {
+            loops++;
+            var body = expression();
+            loops--;
+            expect(')');
+            return aggregate(name.equals("sum"), body);
+        }
+
+        var function = FUNCTIONS.get(name);
+        if (function == null) {
+            position = start;
+            throw error("неизвестная функция " + name);
+        }
+        var first = expression();
+        if (function.type().parameterCount() == 1) {
+            expect(')');
+            return unary(function, first);
+        }
+        expect(',');
+        var second = expression();
+        expect(')');
+        return binary(function, first, second);
+    }
+
+    /**
+     * Собирает цикл {@code v = op(v, body(i))} по {@code i} от 0 до {@code n}.
+     * Тело видит собственный индекс, внешний индекс цикла не виден.
+     */
+    private Term aggregate(boolean sum, Term body) {
+        var iterations = scalar
+                ? MethodHandles.dropArguments(MethodHandles.constant(int.class, 1), 0, parameters)
+                : MethodHandles.dropArguments(MethodHandles.dropArguments(
+                        MethodHandles.identity(int.class), 0, double[].class, int.class), 3, int.class);
+        var init = MethodHandles.dropArguments(MethodHandles.constant(double.class, sum ? 0.0 : 1.0), 0, parameters);
+
+        // (v, p0 .. pk-2, i) -> (v, i, p0 .. pk-2, внешний i)
+        var step = MethodHandles.collectArguments(sum ? ADD : MULTIPLY, 1, handle(body));
+        var k = parameters.size();
+        var loopType = MethodType.methodType(double.class, double.class, int.class).appendParameterTypes(parameters);
+        var reorder = new int[k + 1];
+        for (var j = 1; j < k; j++) {
+            reorder[j] = j + 1;
+        }
+        reorder[k] = 1;
+        return Term.of(MethodHandles.countedLoop(iterations, init, MethodHandles.permuteArguments(step, loopType, reorder)));
+    }
+
+    private Term binary(MethodHandle operation, Term left, Term right) {
+        if (left.isConstant() && right.isConstant()) {
+            return Term.constant(fold(operation, left.value(), right.value()));
+        }
+        // (P.., P..) -> (P..): обе ветви получают одни и те же параметры контекста
+        var combined = MethodHandles.collectArguments(
+                MethodHandles.collectArguments(operation, 1, handle(right)), 0, handle(left));
+        var k = parameters.size();
+        var reorder = new int[2 * k];
+        for (var j = 0; j < reorder.length; j++) {
+            reorder[j] = j % k;
+        }
+        return Term.of(MethodHandles.permuteArguments(combined, MethodType.methodType(double.class, parameters), reorder));
+    }
+
+    private Term unary(MethodHandle operation, Term operand) {
+        if (operand.isConstant()) {
+            return Term.constant(fold(operation, operand.value()));
+        }
+        return Term.of(MethodHandles.filterReturnValue(operand.handle(), operation));
+    }
+
+    private MethodHandle handle(Term term) {
+        if (term.isConstant()) {
+            return MethodHandles.dropArguments(MethodHandles.constant(double.class, term.value()), 0, parameters);
+        }
+        return term.handle();
+    }
+
+    private static double fold(MethodHandle operation, double operand) {
+        try {
+            return (double) operation.invokeExact(operand);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double fold(MethodHandle operation, double left, double right) {
+        try {
+            return (double) operation.invokeExact(left, right);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean accept(char c) {
+        skipSpaces();
+        if (position < source.length() && source.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("ожидается '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Ошибка в выражении \"" + source + "\" в позиции " + position + ": " + message);
+    }
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double subtract(double a, double b) {
+        return a - b;
+    }
+
+    private static double multiply(double a, double b) {
+        return a * b;
+    }
+
+    private static double divide(double a, double b) {
+        return a / b;
+    }
+
+    private static double negate(double a) {
+        return -a;
+    }
+
+    private static double square(double a) {
+        return a * a;
+    }
+
+    private static double gene(double[] genes, int offset, int dims, int i) {
+        return genes[offset + i];
+    }
+
+    private static double geneAt(int index, double[] genes, int offset, int dims, int i) {
+        // Без проверки x_k за концом хромосомы читал бы ген соседней особи
+        return genes[offset + Objects.checkIndex(index, dims)];
+    }
+
+    private static double dimensions(double[] genes, int offset, int dims, int i) {
+        return dims;
+    }
+
+    private static double index(double[] genes, int offset, int dims, int i) {
+        return i;
+    }
+
+    private static double index(double x, int i) {
+        return i;
+    }
+
+    private static MethodHandle helper(String name, List<Class<?>> parameters) {
+        return helper(name, MethodType.methodType(double.class, parameters));
+    }
+
+    private static MethodHandle helper(String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(ExpressionCompiler.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle math(String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(Math.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Векторная формула: дескриптор и наибольший номер гена {@code x_k}
+     * ({@code -1}, если формула обращается к генам только через {@code x_i}).
+     */
+    record Vector(MethodHandle handle, int highestGene) {
+    }
+
+    /**
+     * Узел формулы: константа (ещё не превращённая в дескриптор, чтобы её
+     * можно было свернуть) или дескриптор с параметрами контекста.
+     */
+    private record Term(MethodHandle handle, double value) {
+
+        static Term constant(double value) {
+            return new Term(null, value);
+        }
+
+        static Term of(MethodHandle handle) {
+            return new Term(handle, Double.NaN);
+        }
+
+        boolean isConstant() {
+            return handle == null;
+        }
+    }
+}
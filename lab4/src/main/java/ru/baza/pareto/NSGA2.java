@@ -0,0 +1,386 @@
+package ru.baza.pareto;
+
+import ru.baza.expression.Expression;
+import ru.baza.primitive.VectorCrossover;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Многокритериальный генетический алгоритм NSGA-II над векторными
+ * хромосомами.
+ *
+ * <p>В отличие от {@link ru.baza.GAReal}, который минимизирует одну
+ * функцию, алгоритм ищет компромиссы между несколькими целевыми функциями
+ * (например, стоимостью и задержкой) и возвращает {@link ParetoFront}.
+ *
+ * <p>Одно поколение:
+ * <ol>
+ *     <li>бинарный турнир по номеру фронта, при равенстве — по расстоянию
+ *         скученности; кроссовер ({@link VectorCrossover}) и гауссовская
+ *         мутация дают столько же потомков, сколько родителей;</li>
+ *     <li>родители и потомки разбиваются на фронты
+ *         {@link NonDominatedSort} (ENS-BS);</li>
+ *     <li>следующее поколение заполняется фронтами по порядку, последний
+ *         помещающийся частично — особями с наибольшей скученностью.</li>
+ * </ol>
+ *
+ * <p>Гены, значения целевых функций, номера фронтов и скученность хранятся
+ * в плоских примитивных массивах на родителей и потомков вместе; за
+ * поколение объекты не создаются.
+ */
+public class NSGA2 {
+
+    /** Размер популяции. */
+    protected final int populationSize;
+
+    /** Число генов хромосомы. */
+    protected final int dimensions;
+
+    /** Число целевых функций. */
+    protected final int objectiveCount;
+
+    /** Нижние границы переменных. */
+    protected final double[] lowerBounds;
+
+    /** Верхние границы переменных. */
+    protected final double[] upperBounds;
+
+    /** Вероятность мутации отдельного гена. */
+    protected final double mutationRate;
+
+    /** σ гауссовской мутации по каждой переменной. */
+    private final double[] sigma;
+
+    /** {@code 1 / ln(1 - mutationRate)} для выборки пропусков между мутациями. */
+    private final double skipScale;
+
+    private final VectorCrossover crossover;
+    private final ObjectiveFunction objectiveFunction;
+    private final RandomGenerator random;
+    private final NonDominatedSort sorting = new NonDominatedSort();
+
+    // Родители — [0, populationSize), потомки — [populationSize, 2 * populationSize)
+    private double[] genes;
+    private double[] objectives;
+    private int[] rank;
+    private double[] crowding;
+
+    // Буферы следующего поколения
+    private double[] nextGenes;
+    private double[] nextObjectives;
+    private int[] nextRank;
+    private double[] nextCrowding;
+
+    /** Особи, отобранные в следующее поколение. */
+    private final int[] survivors;
+
+    /** Члены одного фронта при отборе. */
+    private final int[] order;
+
+    private int generation;
+    private long evaluations;
+    private boolean initialized;
+
+    /**
+     * @param populationSize    размер популяции
+     * @param lowerBounds       нижние границы переменных; их число задаёт размерность
+     * @param upperBounds       верхние границы переменных
+     * @param objectiveCount    число целевых функций
+     * @param objectiveFunction минимизируемые целевые функции
+     * @param crossover         оператор кроссовера
+     * @param mutationRate      вероятность мутации гена
+     * @param mutationScale     σ мутации как доля ширины области переменной
+     * @param random            генератор случайных чисел
+     */
+    public NSGA2(int populationSize, double[] lowerBounds, double[] upperBounds,
+                 int objectiveCount, ObjectiveFunction objectiveFunction,
+                 VectorCrossover crossover, double mutationRate, double mutationScale,
+                 RandomGenerator random) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Размер популяции должен быть не меньше 2: " + populationSize);
+        }
+        if (lowerBounds.length != upperBounds.length || lowerBounds.length == 0) {
+            throw new IllegalArgumentException("Границы переменных не согласованы");
+        }
+        if (objectiveFunction.minDimensions() > lowerBounds.length) {
+            throw new IllegalArgumentException("Целевым функциям нужно " + objectiveFunction.minDimensions()
+                    + " генов, а хромосома содержит " + lowerBounds.length);
+        }
+        if (objectiveCount < 1) {
+            throw new IllegalArgumentException("Число целевых функций должно быть положительным: " + objectiveCount);
+        }
+        if (!(mutationRate >= 0 && mutationRate <= 1)) {
+            throw new IllegalArgumentException("Вероятность мутации вне [0, 1]: " + mutationRate);
+        }
+        this.populationSize = populationSize;
+        this.dimensions = lowerBounds.length;
+        this.objectiveCount = objectiveCount;
+        this.lowerBounds = lowerBounds.clone();
+        this.upperBounds = upperBounds.clone();
+        this.mutationRate = mutationRate;
+        this.sigma = new double[dimensions];
+        for (var d = 0; d < dimensions; d++) {
+            if (!(lowerBounds[d] <= upperBounds[d])) {
+                throw new IllegalArgumentException("Некорректный диапазон переменной " + d
+                        + ": [" + lowerBounds[d] + ", " + upperBounds[d] + "]");
+            }
+            sigma[d] = mutationScale * (upperBounds[d] - lowerBounds[d]);
+        }
+        this.skipScale = 1 / Math.log1p(-Math.min(mutationRate, 0.999_999));
+        this.objectiveFunction = objectiveFunction;
+        this.crossover = crossover;
+        this.random = random;
+
+        var total = 2 * populationSize;
+        this.genes = new double[total * dimensions];
+        this.objectives = new double[total * objectiveCount];
+        this.rank = new int[total];
+        this.crowding = new double[total];
+        this.nextGenes = new double[total * dimensions];
+        this.nextObjectives = new double[total * objectiveCount];
+        this.nextRank = new int[total];
+        this.nextCrowding = new double[total];
+        this.survivors = new int[populationSize];
+        this.order = new int[total];
+    }
+
+    /**
+     * Создаёт алгоритм с одинаковыми границами всех переменных.
+     */
+    public NSGA2(int populationSize, int dimensions, double minBound, double maxBound,
+                 int objectiveCount, ObjectiveFunction objectiveFunction,
+                 VectorCrossover crossover, double mutationRate, double mutationScale,
+                 RandomGenerator random) {
+        this(populationSize, filled(dimensions, minBound), filled(dimensions, maxBound),
+                objectiveCount, objectiveFunction, crossover, mutationRate, mutationScale, random);
+    }
+
+    private static double[] filled(int length, double value) {
+        var array = new double[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    /**
+     * Точка входа: задача ZDT1 с 30 переменными — компромисс между {@code x_0}
+     * и функцией, которая растёт при удалении остальных переменных от нуля.
+     * Целевые функции заданы формулами {@link Expression}.
+     */
+    public static void main(String[] args) {
+        var g = "(1 + 9 * (sum(x_i) - x_0) / (n - 1))";
+        var nsga = new NSGA2(200, 30, 0, 1, 2,
+                ObjectiveFunction.of(Expression.compile("x_0"),
+                        Expression.compile(g + " * (1 - sqrt(x_0 / " + g + "))")),
+                VectorCrossover.sbx(15), 1.0 / 30, 0.1, new SplittableRandom(42));
+        nsga.run(250);
+
+        var front = nsga.paretoFront();
+        System.out.println("Поколений: " + nsga.generation() + ", особей на фронте Парето: " + front.size());
+        var step = Math.max(1, front.size() / 10);
+        for (var i = 0; i < front.size(); i += step) {
+            System.out.printf("f1 = %.4f, f2 = %.4f%n", front.objective(i, 0), front.objective(i, 1));
+        }
+    }
+
+    /**
+     * Создаёт начальную популяцию и вычисляет её целевые функции.
+     * Вызывается автоматически перед первым поколением.
+     */
+    public void initialize() {
+        for (var i = 0; i < populationSize; i++) {
+            var offset = i * dimensions;
+            for (var d = 0; d < dimensions; d++) {
+                genes[offset + d] = lowerBounds[d] + (upperBounds[d] - lowerBounds[d]) * random.nextDouble();
+            }
+            evaluate(i);
+        }
+        var fronts = sorting.sort(objectives, populationSize, objectiveCount);
+        for (var k = 0; k < fronts; k++) {
+            sorting.crowdingDistance(objectives, k, crowding);
+        }
+        for (var i = 0; i < populationSize; i++) {
+            rank[i] = sorting.rank(i);
+        }
+        generation = 0;
+        initialized = true;
+    }
+
+    /**
+     * Строит следующее поколение.
+     */
+    public void evolve() {
+        if (!initialized) {
+            initialize();
+        }
+        for (var c = populationSize; c < 2 * populationSize; c++) {
+            var offset = c * dimensions;
+            crossover.cross(genes, tournament() * dimensions, tournament() * dimensions,
+                    genes, offset, dimensions, random);
+            mutate(offset);
+            evaluate(c);
+        }
+        selectSurvivors();
+        generation++;
+    }
+
+    /**
+     * Выполняет заданное число поколений.
+     *
+     * @param generations количество поколений
+     */
+    public void run(int generations) {
+        for (var gen = 0; gen < generations; gen++) {
+            evolve();
+        }
+    }
+
+    /**
+     * Отбирает следующее поколение из родителей и потомков: целые фронты
+     * по порядку, из последнего — особи с наибольшей скученностью.
+     */
+    private void selectSurvivors() {
+        var fronts = sorting.sort(objectives, 2 * populationSize, objectiveCount);
+        var taken = 0;
+        for (var k = 0; k < fronts && taken < populationSize; k++) {
+            sorting.crowdingDistance(objectives, k, crowding);
+            var from = sorting.frontStart(k);
+            var size = sorting.frontEnd(k) - from;
+            for (var p = 0; p < size; p++) {
+                order[p] = sorting.member(from + p);
+            }
+            if (taken + size > populationSize) {
+                // Фронт не помещается целиком: оставляем наименее скученных
+                ObjectiveSort.sort(order, 0, size, crowding, 1, 0);
+                for (var p = 0; taken < populationSize; p++) {
+                    survivors[taken++] = order[size - 1 - p];
+                }
+            } else {
+                System.arraycopy(order, 0, survivors, taken, size);
+                taken += size;
+            }
+        }
+
+        for (var i = 0; i < populationSize; i++) {
+            var s = survivors[i];
+            System.arraycopy(genes, s * dimensions, nextGenes, i * dimensions, dimensions);
+            System.arraycopy(objectives, s * objectiveCount, nextObjectives, i * objectiveCount, objectiveCount);
+            nextRank[i] = sorting.rank(s);
+            nextCrowding[i] = crowding[s];
+        }
+
+        var genesTmp = genes;
+        genes = nextGenes;
+        nextGenes = genesTmp;
+        var objectivesTmp = objectives;
+        objectives = nextObjectives;
+        nextObjectives = objectivesTmp;
+        var rankTmp = rank;
+        rank = nextRank;
+        nextRank = rankTmp;
+        var crowdingTmp = crowding;
+        crowding = nextCrowding;
+        nextCrowding = crowdingTmp;
+    }
+
+    /** Бинарный турнир: лучший фронт, при равенстве — большая скученность. */
+    private int tournament() {
+        var a = random.nextInt(populationSize);
+        var b = random.nextInt(populationSize);
+        if (rank[a] != rank[b]) {
+            return rank[a] < rank[b] ? a : b;
+        }
+        return crowding[b] > crowding[a] ? b : a;
+    }
+
+    /**
+     * Гауссовская мутация с геометрическими пропусками между мутирующими
+     * генами и ограничение генов границами.
+     */
+    private void mutate(int offset) {
+        if (mutationRate > 0) {
+            var d = mutationRate >= 1 ? 0 : skip();
+            while (d < dimensions) {
+                genes[offset + d] += random.nextGaussian() * sigma[d];
+                d += mutationRate >= 1 ? 1 : 1 + skip();
+            }
+        }
+        for (var d = 0; d < dimensions; d++) {
+            genes[offset + d] = Math.min(Math.max(genes[offset + d], lowerBounds[d]), upperBounds[d]);
+        }
+    }
+
+    private int skip() {
+        // Число генов без мутации до следующей: ⌊ln U / ln(1 - p)⌋
+        var skip = Math.log(1 - random.nextDouble()) * skipScale;
+        return skip < dimensions ? (int) skip : dimensions;
+    }
+
+    private void evaluate(int index) {
+        objectiveFunction.evaluate(genes, index * dimensions, dimensions, objectives, index * objectiveCount);
+        evaluations++;
+    }
+
+    /**
+     * Возвращает недоминируемые особи текущей популяции.
+     *
+     * @return копия фронта Парето, упорядоченная по первой целевой функции
+     */
+    public ParetoFront paretoFront() {
+        if (!initialized) {
+            initialize();
+        }
+        var members = new int[populationSize];
+        var size = 0;
+        for (var i = 0; i < populationSize; i++) {
+            if (rank[i] == 0) {
+                members[size++] = i;
+            }
+        }
+        ObjectiveSort.sort(members, 0, size, objectives, objectiveCount, 0);
+
+        var frontGenes = new double[size * dimensions];
+        var frontObjectives = new double[size * objectiveCount];
+        for (var i = 0; i < size; i++) {
+            System.arraycopy(genes, members[i] * dimensions, frontGenes, i * dimensions, dimensions);
+            System.arraycopy(objectives, members[i] * objectiveCount, frontObjectives, i * objectiveCount, objectiveCount);
+        }
+        return new ParetoFront(size, dimensions, objectiveCount, frontGenes, frontObjectives);
+    }
+
+    /** Возвращает размер популяции. */
+    public int size() {
+        return populationSize;
+    }
+
+    /** Возвращает номер текущего поколения. */
+    public int generation() {
+        return generation;
+    }
+
+    /** Возвращает число вычислений целевых функций с момента создания. */
+    public long evaluations() {
+        return evaluations;
+    }
+
+    /** Возвращает номер фронта особи (0 — недоминируемые). */
+    public int rank(int index) {
+        return rank[index];
+    }
+
+    /** Возвращает расстояние скученности особи в её фронте. */
+    public double crowding(int index) {
+        return crowding[index];
+    }
+
+    /** Возвращает значение целевой функции {@code j} особи {@code index}. */
+    public double objective(int index, int j) {
+        return objectives[index * objectiveCount + j];
+    }
+
+    /** Возвращает ген {@code d} особи {@code index}. */
+    public double gene(int index, int d) {
+        return genes[index * dimensions + d];
+    }
+}
@@ -0,0 +1,207 @@
+package ru.baza.pareto;
+
+import java.util.Arrays;
+
+/**
+ * Быстрая недоминируемая сортировка ENS-BS (Efficient Non-dominated Sort
+ * with Binary Search) и расстояние скученности NSGA-II.
+ *
+ * <p>Особи упорядочиваются лексикографически по целевым функциям: после
+ * этого особь может быть доминирована только предшественниками. Каждая
+ * следующая особь попадает в первый фронт, ни один член которого её
+ * не доминирует; номер фронта находится двоичным поиском, а члены фронта
+ * проверяются от последнего добавленного к первому. При одной или двух
+ * целевых функциях достаточно сравнить особь с последним членом фронта
+ * (у него наименьшее значение второй функции), и сортировка занимает
+ * O(n log n) — как двумерный алгоритм Йенсена.
+ *
+ * <p>Объект переиспользует буферы между поколениями и не потокобезопасен.
+ */
+public final class NonDominatedSort {
+
+    private int objectiveCount;
+    private int fronts;
+
+    /** Номер фронта каждой особи. */
+    private int[] rank = new int[0];
+
+    /** Предыдущий член того же фронта или -1 — список для проверки доминирования. */
+    private int[] previous = new int[0];
+
+    /** Последний добавленный член каждого фронта. */
+    private int[] frontLast = new int[0];
+
+    /** Особи, сгруппированные по фронтам; фронт {@code k} — {@code [frontStart[k], frontStart[k + 1])}. */
+    private int[] members = new int[0];
+    private int[] frontStart = new int[1];
+
+    /** Буфер особей одного фронта для расчёта скученности. */
+    private int[] scratch = new int[0];
+
+    /**
+     * Разбивает особи на фронты Парето (все функции минимизируются).
+     *
+     * @param objectives     значения целевых функций, {@code objectiveCount} подряд на особь
+     * @param count          число особей в начале массива
+     * @param objectiveCount число целевых функций
+     * @return число фронтов
+     */
+    public int sort(double[] objectives, int count, int objectiveCount) {
+        ensureCapacity(count);
+        this.objectiveCount = objectiveCount;
+
+        var order = scratch;
+        for (var i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        ObjectiveSort.sort(order, 0, count, objectives, objectiveCount, 0);
+
+        fronts = 0;
+        for (var n = 0; n < count; n++) {
+            var s = order[n];
+            // Первый фронт, который не доминирует s: условие монотонно по номеру фронта
+            var low = 0;
+            var high = fronts;
+            while (low < high) {
+                var mid = (low + high) >>> 1;
+                if (dominated(objectives, mid, s)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == fronts) {
+                frontLast[fronts++] = -1;
+            }
+            previous[s] = frontLast[low];
+            frontLast[low] = s;
+            rank[s] = low;
+        }
+
+        // Группировка по фронтам подсчётом, внутри фронта — лексикографический порядок
+        if (frontStart.length < fronts + 1) {
+            frontStart = new int[fronts + 1];
+        }
+        Arrays.fill(frontStart, 0, fronts + 1, 0);
+        for (var i = 0; i < count; i++) {
+            frontStart[rank[i] + 1]++;
+        }
+        for (var k = 0; k < fronts; k++) {
+            frontStart[k + 1] += frontStart[k];
+        }
+        System.arraycopy(frontStart, 0, frontLast, 0, fronts);
+        for (var n = 0; n < count; n++) {
+            var s = order[n];
+            members[frontLast[rank[s]]++] = s;
+        }
+        return fronts;
+    }
+
+    /** Возвращает число фронтов последней сортировки. */
+    public int fronts() {
+        return fronts;
+    }
+
+    /** Возвращает номер фронта особи (0 — недоминируемые). */
+    public int rank(int index) {
+        return rank[index];
+    }
+
+    /** Возвращает позицию первого члена фронта в {@link #member(int)}. */
+    public int frontStart(int front) {
+        return frontStart[front];
+    }
+
+    /** Возвращает позицию после последнего члена фронта. */
+    public int frontEnd(int front) {
+        return frontStart[front + 1];
+    }
+
+    /**
+     * Возвращает особь по позиции в порядке фронтов.
+     *
+     * @param position позиция из {@code [frontStart(k), frontEnd(k))}
+     * @return индекс особи
+     */
+    public int member(int position) {
+        return members[position];
+    }
+
+    /**
+     * Вычисляет расстояние скученности членов фронта: сумму нормированных
+     * расстояний между соседями по каждой целевой функции. Крайние особи
+     * получают бесконечное расстояние.
+     *
+     * @param objectives значения целевых функций, переданные в {@link #sort}
+     * @param front      номер фронта
+     * @param distance   массив расстояний по индексу особи
+     */
+    public void crowdingDistance(double[] objectives, int front, double[] distance) {
+        var from = frontStart[front];
+        var size = frontStart[front + 1] - from;
+        var order = scratch;
+        System.arraycopy(members, from, order, 0, size);
+        for (var i = 0; i < size; i++) {
+            distance[order[i]] = size <= 2 ? Double.POSITIVE_INFINITY : 0;
+        }
+        if (size <= 2) {
+            return;
+        }
+
+        var m = objectiveCount;
+        for (var j = 0; j < m; j++) {
+            ObjectiveSort.sort(order, 0, size, objectives, m, j);
+            var min = objectives[order[0] * m + j];
+            var max = objectives[order[size - 1] * m + j];
+            distance[order[0]] = Double.POSITIVE_INFINITY;
+            distance[order[size - 1]] = Double.POSITIVE_INFINITY;
+            if (!(max > min)) {
+                continue;
+            }
+            var scale = 1 / (max - min);
+            for (var i = 1; i < size - 1; i++) {
+                distance[order[i]] += (objectives[order[i + 1] * m + j] - objectives[order[i - 1] * m + j]) * scale;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, доминирует ли какой-либо член фронта особь {@code s}.
+     */
+    private boolean dominated(double[] objectives, int front, int s) {
+        var p = frontLast[front];
+        if (objectiveCount <= 2) {
+            return dominates(objectives, p, s);
+        }
+        for (; p >= 0; p = previous[p]) {
+            if (dominates(objectives, p, s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean dominates(double[] objectives, int a, int b) {
+        var offsetA = a * objectiveCount;
+        var offsetB = b * objectiveCount;
+        var strictly = false;
+        for (var j = 0; j < objectiveCount; j++) {
+            var c = Double.compare(objectives[offsetA + j], objectives[offsetB + j]);
+            if (c > 0) {
+                return false;
+            }
+            strictly |= c < 0;
+        }
+        return strictly;
+    }
+
+    private void ensureCapacity(int count) {
+        if (rank.length < count) {
+            rank = new int[count];
+            previous = new int[count];
+            frontLast = new int[count];
+            members = new int[count];
+            scratch = new int[count];
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.baza.pareto;
+
+import ru.baza.primitive.VectorFitness;
+
+import java.util.Arrays;
+
+/**
+ * Набор минимизируемых целевых функций векторной хромосомы.
+ *
+ * <p>Хромосома передаётся без копирования — как отрезок плоского массива
+ * популяции, результаты записываются подряд в плоский массив значений.
+ */
+@FunctionalInterface
+public interface ObjectiveFunction {
+
+    /**
+     * Вычисляет целевые функции хромосомы.
+     *
+     * @param genes      плоский массив популяции
+     * @param offset     индекс первого гена хромосомы
+     * @param dimensions число генов хромосомы
+     * @param objectives массив значений целевых функций
+     * @param target     индекс, начиная с которого записываются значения
+     */
+    void evaluate(double[] genes, int offset, int dimensions, double[] objectives, int target);
+
+    /**
+     * Возвращает наименьшее число генов, при котором функции определены
+     * (см. {@link VectorFitness#minDimensions()}).
+     *
+     * @return минимальная длина хромосомы; по умолчанию 0 — любая
+     */
+    default int minDimensions() {
+        return 0;
+    }
+
+    /**
+     * Составляет набор из независимых функций — например, скомпилированных
+     * {@link ru.baza.expression.Expression}.
+     *
+     * @param objectives целевые функции в порядке записи значений
+     * @return набор целевых функций
+     */
+    static ObjectiveFunction of(VectorFitness... objectives) {
+        var functions = objectives.clone();
+        var required = Arrays.stream(functions).mapToInt(VectorFitness::minDimensions).max().orElse(0);
+        return new ObjectiveFunction() {
+            @Override
+            public void evaluate(double[] genes, int offset, int dimensions, double[] values, int target) {
+                for (var j = 0; j < functions.length; j++) {
+                    values[target + j] = functions[j].evaluate(genes, offset, dimensions);
+                }
+            }
+
+            @Override
+            public int minDimensions() {
+                return required;
+            }
+        };
+    }
+}
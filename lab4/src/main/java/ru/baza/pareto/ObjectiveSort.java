@@ -0,0 +1,93 @@
+package ru.baza.pareto;
+
+/**
+ * Сортировка индексов особей по значениям целевых функций без упаковки.
+ *
+ * <p>Значения особи {@code i} занимают {@code keys[i * stride .. (i + 1) * stride)};
+ * особи сравниваются лексикографически, начиная с ключа {@code first}.
+ * NaN считается худшим значением ({@link Double#compare}).
+ */
+final class ObjectiveSort {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    private ObjectiveSort() {}
+
+    /**
+     * Сортирует {@code order[from..to)} по возрастанию.
+     *
+     * @param order  индексы особей
+     * @param from   начало отрезка
+     * @param to     конец отрезка (не включая)
+     * @param keys   значения особей, {@code stride} на особь
+     * @param stride число значений на особь
+     * @param first  номер первого сравниваемого значения
+     */
+    static void sort(int[] order, int from, int to, double[] keys, int stride, int first) {
+        quickSort(order, keys, stride, first, from, to - 1);
+    }
+
+    private static void quickSort(int[] order, double[] keys, int stride, int first, int low, int high) {
+        while (high - low > INSERTION_THRESHOLD) {
+            var pivot = order[medianOfThree(order, keys, stride, first, low, (low + high) >>> 1, high)];
+            var i = low;
+            var j = high;
+            while (i <= j) {
+                while (compare(keys, stride, first, order[i], pivot) < 0) i++;
+                while (compare(keys, stride, first, pivot, order[j]) < 0) j--;
+                if (i <= j) {
+                    swap(order, i++, j--);
+                }
+            }
+            // Рекурсия по меньшей части ограничивает глубину стека O(log n)
+            if (j - low < high - i) {
+                quickSort(order, keys, stride, first, low, j);
+                low = i;
+            } else {
+                quickSort(order, keys, stride, first, i, high);
+                high = j;
+            }
+        }
+        insertionSort(order, keys, stride, first, low, high);
+    }
+
+    private static void insertionSort(int[] order, double[] keys, int stride, int first, int low, int high) {
+        for (var i = low + 1; i <= high; i++) {
+            var index = order[i];
+            var j = i - 1;
+            while (j >= low && compare(keys, stride, first, index, order[j]) < 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    private static int medianOfThree(int[] order, double[] keys, int stride, int first, int a, int b, int c) {
+        var ia = order[a];
+        var ib = order[b];
+        var ic = order[c];
+        if (compare(keys, stride, first, ia, ib) < 0) {
+            return compare(keys, stride, first, ib, ic) < 0 ? b : compare(keys, stride, first, ia, ic) < 0 ? c : a;
+        }
+        return compare(keys, stride, first, ia, ic) < 0 ? a : compare(keys, stride, first, ib, ic) < 0 ? c : b;
+    }
+
+    private static int compare(double[] keys, int stride, int first, int a, int b) {
+        var offsetA = a * stride;
+        var offsetB = b * stride;
+        for (var k = first; k < stride; k++) {
+            var c = Double.compare(keys[offsetA + k], keys[offsetB + k]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        var tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+}
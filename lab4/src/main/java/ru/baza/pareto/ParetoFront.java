@@ -0,0 +1,28 @@
+package ru.baza.pareto;
+
+/**
+ * Фронт Парето — недоминируемые особи популяции.
+ *
+ * <p>Гены и значения целевых функций хранятся в плоских массивах:
+ * особь {@code i} занимает {@code genes[i * dimensions .. (i + 1) * dimensions)}
+ * и {@code objectives[i * objectiveCount .. (i + 1) * objectiveCount)}.
+ * Особи упорядочены по возрастанию первой целевой функции.
+ *
+ * @param size           число особей фронта
+ * @param dimensions     число генов особи
+ * @param objectiveCount число целевых функций
+ * @param genes          гены особей
+ * @param objectives     значения целевых функций
+ */
+public record ParetoFront(int size, int dimensions, int objectiveCount, double[] genes, double[] objectives) {
+
+    /** Возвращает ген {@code d} особи {@code i}. */
+    public double gene(int i, int d) {
+        return genes[i * dimensions + d];
+    }
+
+    /** Возвращает значение целевой функции {@code j} особи {@code i}. */
+    public double objective(int i, int j) {
+        return objectives[i * objectiveCount + j];
+    }
+}
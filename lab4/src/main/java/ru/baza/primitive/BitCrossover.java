@@ -0,0 +1,98 @@
+package ru.baza.primitive;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Кроссовер битовых хромосом, упакованных в {@code long[]}.
+ *
+ * <p>Все операторы работают целыми словами: гены родителей смешиваются
+ * маской {@code (p1 & mask) | (p2 & ~mask)}, поэтому стоимость
+ * пропорциональна числу слов, а не битов.
+ */
+@FunctionalInterface
+public interface BitCrossover {
+
+    /**
+     * Записывает потомка двух родителей.
+     *
+     * @param parents  массив текущего поколения
+     * @param parent1  индекс первого слова первого родителя
+     * @param parent2  индекс первого слова второго родителя
+     * @param children массив потомков
+     * @param child    индекс первого слова потомка
+     * @param bits     длина хромосомы в битах
+     * @param random   генератор блока популяции
+     */
+    void cross(long[] parents, int parent1, int parent2,
+               long[] children, int child, int bits, RandomGenerator random);
+
+    /**
+     * Одноточечный кроссовер: биты до случайной точки разреза берутся
+     * от первого родителя, остальные — от второго.
+     *
+     * @return оператор кроссовера
+     */
+    static BitCrossover singlePoint() {
+        return (parents, parent1, parent2, children, child, bits, random) -> {
+            var cut = bits > 1 ? random.nextInt(1, bits) : 0;
+            splice(parents, parent1, parent2, children, child, bits, cut, bits);
+        };
+    }
+
+    /**
+     * Двухточечный кроссовер: отрезок между двумя случайными точками
+     * берётся от второго родителя, остальное — от первого.
+     *
+     * @return оператор кроссовера
+     */
+    static BitCrossover twoPoint() {
+        return (parents, parent1, parent2, children, child, bits, random) -> {
+            var a = random.nextInt(bits + 1);
+            var b = random.nextInt(bits + 1);
+            splice(parents, parent1, parent2, children, child, bits, Math.min(a, b), Math.max(a, b));
+        };
+    }
+
+    /**
+     * Равномерный кроссовер: каждый бит берётся от случайного родителя;
+     * маска — одно случайное слово на 64 бита.
+     *
+     * @return оператор кроссовера
+     */
+    static BitCrossover uniform() {
+        return (parents, parent1, parent2, children, child, bits, random) -> {
+            var words = words(bits);
+            for (var w = 0; w < words; w++) {
+                var mask = random.nextLong();
+                children[child + w] = (parents[parent1 + w] & mask) | (parents[parent2 + w] & ~mask);
+            }
+        };
+    }
+
+    /**
+     * Копирует первого родителя, заменяя биты {@code [from, to)} битами второго.
+     */
+    private static void splice(long[] parents, int parent1, int parent2,
+                               long[] children, int child, int bits, int from, int to) {
+        var words = words(bits);
+        for (var w = 0; w < words; w++) {
+            var low = w << 6;
+            // Маска битов слова, попадающих в [from, to)
+            var mask = rangeMask(from - low) & ~rangeMask(to - low);
+            children[child + w] = (parents[parent1 + w] & ~mask) | (parents[parent2 + w] & mask);
+        }
+    }
+
+    /** Маска битов слова с номерами {@code >= start}. */
+    private static long rangeMask(int start) {
+        if (start <= 0) {
+            return -1L;
+        }
+        return start >= 64 ? 0L : -1L << start;
+    }
+
+    /** Число слов {@code long} для хромосомы длиной {@code bits}. */
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.baza.primitive;
+
+/**
+ * Fitness-функция битовой хромосомы.
+ *
+ * <p>Хромосома передаётся без копирования — как отрезок
+ * {@code words[offset .. offset + ⌈bits / 64⌉)} общего массива популяции;
+ * бит {@code i} хромосомы — бит {@code i % 64} слова {@code offset + i / 64}.
+ * В параллельном режиме функция вызывается одновременно из нескольких потоков.
+ */
+@FunctionalInterface
+public interface BitFitness {
+
+    /**
+     * Вычисляет приспособленность хромосомы.
+     *
+     * @param words  массив популяции
+     * @param offset индекс первого слова хромосомы
+     * @param bits   длина хромосомы в битах
+     * @return значение приспособленности (меньше — лучше)
+     */
+    double evaluate(long[] words, int offset, int bits);
+}
@@ -0,0 +1,171 @@
+package ru.baza.primitive;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Генетический алгоритм с битовыми хромосомами, упакованными в {@code long[]}.
+ *
+ * <p>Хромосома из {@code bits} битов занимает {@code ⌈bits / 64⌉} слов
+ * общего плоского массива популяции; неиспользуемые старшие биты последнего
+ * слова всегда равны нулю. Кроссовер ({@link BitCrossover}) смешивает
+ * родителей пословно масками, мутация инвертирует отдельные биты через XOR.
+ * Мутирующие биты выбираются геометрическими пропусками, поэтому стоимость
+ * мутации пропорциональна числу инвертированных битов.
+ *
+ * <p>Подходит для целочисленных ({@link GrayIntGeneticAlgorithm})
+ * и комбинаторных задач: популяция из миллиона 64-битных хромосом
+ * занимает 16 МБ на оба буфера.
+ */
+public class BitStringGeneticAlgorithm extends PrimitiveGeneticAlgorithm {
+
+    /** Длина хромосомы в битах. */
+    protected final int bits;
+
+    /** Число слов {@code long} на хромосому. */
+    protected final int words;
+
+    /** Вероятность инверсии отдельного бита. */
+    protected final double mutationRate;
+
+    /** Маска используемых битов последнего слова хромосомы. */
+    private final long lastWordMask;
+
+    /** {@code 1 / ln(1 - mutationRate)} для выборки пропусков между мутациями. */
+    private final double skipScale;
+
+    private final BitCrossover crossover;
+    private final BitFitness fitnessFunction;
+
+    private long[] genes;
+    private long[] offspring;
+
+    /**
+     * @param populationSize  размер популяции
+     * @param bits            длина хромосомы в битах
+     * @param crossover       оператор кроссовера
+     * @param mutationRate    вероятность инверсии бита
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public BitStringGeneticAlgorithm(int populationSize, int bits, BitCrossover crossover, double mutationRate,
+                                     BitFitness fitnessFunction, SplittableGenerator random) {
+        super(populationSize, random);
+        if (bits < 1) {
+            throw new IllegalArgumentException("Длина хромосомы должна быть положительной: " + bits);
+        }
+        this.bits = bits;
+        this.words = (bits + 63) >>> 6;
+        if ((long) populationSize * words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Популяция не помещается в массив: "
+                    + populationSize + " × " + words + " слов");
+        }
+        this.mutationRate = mutationRate;
+        this.lastWordMask = -1L >>> (-bits & 63);
+        this.skipScale = mutationRate > 0 && mutationRate < 1 ? 1 / Math.log1p(-mutationRate) : 0;
+        this.crossover = crossover;
+        this.fitnessFunction = fitnessFunction;
+        this.genes = new long[populationSize * words];
+        this.offspring = new long[populationSize * words];
+    }
+
+    @Override
+    protected void initialize(int index, RandomGenerator random) {
+        var offset = index * words;
+        for (var w = 0; w < words; w++) {
+            genes[offset + w] = random.nextLong();
+        }
+        genes[offset + words - 1] &= lastWordMask;
+    }
+
+    @Override
+    protected void breed(int parent1, int parent2, int child, RandomGenerator random) {
+        var offset = child * words;
+        crossover.cross(genes, parent1 * words, parent2 * words, offspring, offset, bits, random);
+        mutate(offspring, offset, random);
+    }
+
+    /**
+     * Инвертирует биты хромосомы на месте: каждый бит независимо
+     * с вероятностью {@link #mutationRate}.
+     *
+     * @param chromosomes массив популяции
+     * @param offset      индекс первого слова хромосомы
+     * @param random      генератор блока
+     */
+    protected void mutate(long[] chromosomes, int offset, RandomGenerator random) {
+        if (mutationRate <= 0) {
+            return;
+        }
+        var bit = mutationRate >= 1 ? 0 : skip(random);
+        while (bit < bits) {
+            chromosomes[offset + (bit >>> 6)] ^= 1L << bit;
+            bit += mutationRate >= 1 ? 1 : 1 + skip(random);
+        }
+    }
+
+    private int skip(RandomGenerator random) {
+        // Число битов без мутации до следующей: ⌊ln U / ln(1 - p)⌋
+        var skip = Math.log(1 - random.nextDouble()) * skipScale;
+        return skip < bits ? (int) skip : bits;
+    }
+
+    @Override
+    protected void copyToOffspring(int index, int child) {
+        System.arraycopy(genes, index * words, offspring, child * words, words);
+    }
+
+    @Override
+    protected void swapBuffers() {
+        var tmp = genes;
+        genes = offspring;
+        offspring = tmp;
+    }
+
+    @Override
+    protected double evaluate(int index) {
+        return fitnessFunction.evaluate(genes, index * words, bits);
+    }
+
+    @Override
+    protected int genomeWords() {
+        return words;
+    }
+
+    @Override
+    protected void exportGenome(int index, long[] buffer, int offset) {
+        System.arraycopy(genes, index * words, buffer, offset, words);
+    }
+
+    @Override
+    protected void importGenome(int index, long[] buffer, int offset) {
+        System.arraycopy(buffer, offset, genes, index * words, words);
+    }
+
+    /** Возвращает длину хромосомы в битах. */
+    public int bits() {
+        return bits;
+    }
+
+    /**
+     * Возвращает бит хромосомы особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @param bit   номер бита
+     * @return значение бита
+     */
+    public boolean bit(int index, int bit) {
+        return (genes[index * words + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Возвращает слово хромосомы особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @param word  номер слова
+     * @return 64 бита хромосомы, начиная с бита {@code word * 64}
+     */
+    public long word(int index, int word) {
+        return genes[index * words + word];
+    }
+}
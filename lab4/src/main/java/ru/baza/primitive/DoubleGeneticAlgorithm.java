@@ -0,0 +1,169 @@
+package ru.baza.primitive;
+
+import ru.baza.GAConfig;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Генетический алгоритм для вещественной переменной на буферах {@code double[]}.
+ *
+ * <p>Примитивный аналог {@link ru.baza.GAReal}: популяция инициализируется
+ * в диапазоне [minBound, maxBound], кроссовер — среднее родителей, мутация —
+ * гауссовский шум с коэффициентом 0.5. Операторы можно переопределить
+ * в наследнике.
+ *
+ * <pre>{@code
+ * var ga = new DoubleGeneticAlgorithm(1_000_000, -10, 10, 0.1,
+ *         x -> x * x + 4, new SplittableRandom(42));
+ * ga.run(100);
+ * double x = ga.best();
+ * }</pre>
+ */
+public class DoubleGeneticAlgorithm extends PrimitiveGeneticAlgorithm {
+
+    /** Минимально возможное значение хромосомы. */
+    protected final double minBound;
+
+    /** Максимально возможное значение хромосомы. */
+    protected final double maxBound;
+
+    /** Вероятность мутации. */
+    protected final double mutationRate;
+
+    private final DoubleUnaryOperator fitnessFunction;
+
+    private double[] genes;
+    private double[] offspring;
+
+    /**
+     * @param populationSize  размер популяции
+     * @param minBound        нижняя граница значений
+     * @param maxBound        верхняя граница значений
+     * @param mutationRate    вероятность мутации
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public DoubleGeneticAlgorithm(int populationSize, double minBound, double maxBound, double mutationRate,
+                                  DoubleUnaryOperator fitnessFunction, SplittableGenerator random) {
+        super(populationSize, random);
+        if (!(minBound <= maxBound)) {
+            throw new IllegalArgumentException("Некорректный диапазон: [" + minBound + ", " + maxBound + "]");
+        }
+        this.minBound = minBound;
+        this.maxBound = maxBound;
+        this.mutationRate = mutationRate;
+        this.fitnessFunction = fitnessFunction;
+        this.genes = new double[populationSize];
+        this.offspring = new double[populationSize];
+    }
+
+    /**
+     * Создаёт алгоритм по параметрам {@link GAConfig}: размер популяции,
+     * границы, вероятность мутации и зерно генератора.
+     *
+     * @param config          параметры запуска
+     * @param fitnessFunction минимизируемая функция
+     */
+    public DoubleGeneticAlgorithm(GAConfig config, DoubleUnaryOperator fitnessFunction) {
+        this(config.populationSize(), config.minBound(), config.maxBound(), config.mutationRate(),
+                fitnessFunction, config.newRandom());
+    }
+
+    /**
+     * Создаёт алгоритм по параметрам {@link GAConfig}, включая
+     * минимизируемую функцию {@link GAConfig#fitness()}.
+     *
+     * @param config параметры запуска
+     */
+    public DoubleGeneticAlgorithm(GAConfig config) {
+        this(config, config.fitness());
+    }
+
+    @Override
+    protected void initialize(int index, RandomGenerator random) {
+        genes[index] = minBound + (maxBound - minBound) * random.nextDouble();
+    }
+
+    @Override
+    protected void breed(int parent1, int parent2, int child, RandomGenerator random) {
+        offspring[child] = mutate(crossover(genes[parent1], genes[parent2], random), random);
+    }
+
+    @Override
+    protected void copyToOffspring(int index, int child) {
+        offspring[child] = genes[index];
+    }
+
+    @Override
+    protected void swapBuffers() {
+        var tmp = genes;
+        genes = offspring;
+        offspring = tmp;
+    }
+
+    @Override
+    protected double evaluate(int index) {
+        return fitnessFunction.applyAsDouble(genes[index]);
+    }
+
+    @Override
+    protected int genomeWords() {
+        return 1;
+    }
+
+    @Override
+    protected void exportGenome(int index, long[] buffer, int offset) {
+        buffer[offset] = Double.doubleToRawLongBits(genes[index]);
+    }
+
+    @Override
+    protected void importGenome(int index, long[] buffer, int offset) {
+        genes[index] = Double.longBitsToDouble(buffer[offset]);
+    }
+
+    /**
+     * Кроссовер: среднее арифметическое родителей.
+     *
+     * @param p1     родитель 1
+     * @param p2     родитель 2
+     * @param random генератор блока
+     * @return потомок
+     */
+    protected double crossover(double p1, double p2, RandomGenerator random) {
+        return (p1 + p2) / 2.0;
+    }
+
+    /**
+     * Мутация: с вероятностью {@link #mutationRate} добавляет гауссовский шум
+     * с коэффициентом 0.5 и ограничивает значение диапазоном.
+     *
+     * @param x      исходное значение
+     * @param random генератор блока
+     * @return мутированное или исходное значение
+     */
+    protected double mutate(double x, RandomGenerator random) {
+        if (random.nextDouble() < mutationRate) {
+            x += random.nextGaussian() * 0.5;
+            if (x < minBound) x = minBound;
+            if (x > maxBound) x = maxBound;
+        }
+        return x;
+    }
+
+    /**
+     * Возвращает ген особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @return значение хромосомы
+     */
+    public double gene(int index) {
+        return genes[index];
+    }
+
+    /** Возвращает лучшее найденное значение в текущем поколении. */
+    public double best() {
+        return genes[bestIndex()];
+    }
+}
@@ -0,0 +1,69 @@
+package ru.baza.primitive;
+
+/**
+ * Код Грея для целочисленных генов битовых хромосом.
+ *
+ * <p>Соседние целые числа в коде Грея отличаются одним битом, поэтому
+ * одиночная мутация сдвигает значение «недалеко» чаще, чем в обычном
+ * двоичном коде, где переход 7 → 8 требует изменить четыре бита.
+ */
+public final class GrayCode {
+
+    private GrayCode() {}
+
+    /**
+     * Переводит двоичное число в код Грея.
+     *
+     * @param value двоичное число
+     * @return код Грея
+     */
+    public static long encode(long value) {
+        return value ^ (value >>> 1);
+    }
+
+    /**
+     * Переводит код Грея в двоичное число (префиксный XOR за шесть сдвигов).
+     *
+     * @param gray код Грея
+     * @return двоичное число
+     */
+    public static long decode(long gray) {
+        gray ^= gray >>> 1;
+        gray ^= gray >>> 2;
+        gray ^= gray >>> 4;
+        gray ^= gray >>> 8;
+        gray ^= gray >>> 16;
+        gray ^= gray >>> 32;
+        return gray;
+    }
+
+    /**
+     * Возвращает число битов, достаточное для кодирования диапазона [min, max].
+     *
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @return число битов (не меньше 1)
+     */
+    public static int bits(long min, long max) {
+        var span = max - min;
+        return Math.max(1, 64 - Long.numberOfLeadingZeros(span));
+    }
+
+    /**
+     * Декодирует ген в целое число из [min, max]. Коды за пределами диапазона
+     * (если его длина не степень двойки) переносятся в начало диапазона.
+     *
+     * @param gray код Грея из {@link #bits(long, long)} младших битов
+     * @param min  нижняя граница
+     * @param max  верхняя граница
+     * @return значение из [min, max]
+     */
+    public static long decode(long gray, long min, long max) {
+        var offset = decode(gray);
+        var size = max - min + 1;
+        if (size > 0 && Long.compareUnsigned(offset, size) >= 0) {
+            offset -= size;
+        }
+        return min + offset;
+    }
+}
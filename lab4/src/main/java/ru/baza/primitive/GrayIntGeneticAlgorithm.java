@@ -0,0 +1,62 @@
+package ru.baza.primitive;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Генетический алгоритм для целочисленной переменной с хромосомой
+ * в коде Грея.
+ *
+ * <p>В отличие от {@link IntGeneticAlgorithm} и {@link ru.baza.GAInteger},
+ * где кроссовер лишь выбирает одного из родителей, а мутация сдвигает
+ * значение на ±1, здесь потомок действительно наследует биты обоих
+ * родителей, а мутация может изменить значение на любую степень двойки.
+ * Значение из [minBound, maxBound] кодируется {@link GrayCode#bits}
+ * битами одного слова.
+ */
+public class GrayIntGeneticAlgorithm extends BitStringGeneticAlgorithm {
+
+    /** Минимально возможное значение переменной. */
+    protected final int minBound;
+
+    /** Максимально возможное значение переменной. */
+    protected final int maxBound;
+
+    /**
+     * @param populationSize  размер популяции
+     * @param minBound        нижняя граница значений
+     * @param maxBound        верхняя граница значений
+     * @param crossover       оператор кроссовера
+     * @param mutationRate    вероятность инверсии бита
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public GrayIntGeneticAlgorithm(int populationSize, int minBound, int maxBound, BitCrossover crossover,
+                                   double mutationRate, IntToDoubleFunction fitnessFunction,
+                                   SplittableGenerator random) {
+        super(populationSize, GrayCode.bits(minBound, maxBound), crossover, mutationRate,
+                (words, offset, bits) -> fitnessFunction.applyAsDouble(
+                        (int) GrayCode.decode(words[offset], minBound, maxBound)),
+                random);
+        if (minBound > maxBound) {
+            throw new IllegalArgumentException("Некорректный диапазон: [" + minBound + ", " + maxBound + "]");
+        }
+        this.minBound = minBound;
+        this.maxBound = maxBound;
+    }
+
+    /**
+     * Возвращает значение переменной особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @return декодированное значение
+     */
+    public int gene(int index) {
+        return (int) GrayCode.decode(word(index, 0), minBound, maxBound);
+    }
+
+    /** Возвращает лучшее найденное значение в текущем поколении. */
+    public int best() {
+        return gene(bestIndex());
+    }
+}
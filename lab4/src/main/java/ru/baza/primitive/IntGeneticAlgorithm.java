@@ -0,0 +1,162 @@
+package ru.baza.primitive;
+
+import ru.baza.GAConfig;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Генетический алгоритм для целочисленной переменной на буферах {@code int[]}.
+ *
+ * <p>Примитивный аналог {@link ru.baza.GAInteger}: популяция инициализируется
+ * в диапазоне [minBound, maxBound], кроссовер выбирает одного из родителей,
+ * мутация изменяет значение на -1, 0 или +1. Операторы можно переопределить
+ * в наследнике.
+ */
+public class IntGeneticAlgorithm extends PrimitiveGeneticAlgorithm {
+
+    /** Минимально возможное значение переменной. */
+    protected final int minBound;
+
+    /** Максимально возможное значение переменной. */
+    protected final int maxBound;
+
+    /** Вероятность мутации. */
+    protected final double mutationRate;
+
+    private final IntToDoubleFunction fitnessFunction;
+
+    private int[] genes;
+    private int[] offspring;
+
+    /**
+     * @param populationSize  размер популяции
+     * @param minBound        нижняя граница значений
+     * @param maxBound        верхняя граница значений
+     * @param mutationRate    вероятность мутации
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public IntGeneticAlgorithm(int populationSize, int minBound, int maxBound, double mutationRate,
+                               IntToDoubleFunction fitnessFunction, SplittableGenerator random) {
+        super(populationSize, random);
+        if (minBound > maxBound) {
+            throw new IllegalArgumentException("Некорректный диапазон: [" + minBound + ", " + maxBound + "]");
+        }
+        this.minBound = minBound;
+        this.maxBound = maxBound;
+        this.mutationRate = mutationRate;
+        this.fitnessFunction = fitnessFunction;
+        this.genes = new int[populationSize];
+        this.offspring = new int[populationSize];
+    }
+
+    /**
+     * Создаёт алгоритм по параметрам {@link GAConfig}: размер популяции,
+     * границы, вероятность мутации и зерно генератора.
+     *
+     * @param config          параметры запуска
+     * @param fitnessFunction минимизируемая функция
+     */
+    public IntGeneticAlgorithm(GAConfig config, IntToDoubleFunction fitnessFunction) {
+        this(config.populationSize(), (int) config.minBound(), (int) config.maxBound(), config.mutationRate(),
+                fitnessFunction, config.newRandom());
+    }
+
+    /**
+     * Создаёт алгоритм по параметрам {@link GAConfig}, включая
+     * минимизируемую функцию {@link GAConfig#fitness()}.
+     *
+     * @param config параметры запуска
+     */
+    public IntGeneticAlgorithm(GAConfig config) {
+        this(config, config.fitness()::applyAsDouble);
+    }
+
+    @Override
+    protected void initialize(int index, RandomGenerator random) {
+        genes[index] = random.nextInt(minBound, maxBound + 1);
+    }
+
+    @Override
+    protected void breed(int parent1, int parent2, int child, RandomGenerator random) {
+        offspring[child] = mutate(crossover(genes[parent1], genes[parent2], random), random);
+    }
+
+    @Override
+    protected void copyToOffspring(int index, int child) {
+        offspring[child] = genes[index];
+    }
+
+    @Override
+    protected void swapBuffers() {
+        var tmp = genes;
+        genes = offspring;
+        offspring = tmp;
+    }
+
+    @Override
+    protected double evaluate(int index) {
+        return fitnessFunction.applyAsDouble(genes[index]);
+    }
+
+    @Override
+    protected int genomeWords() {
+        return 1;
+    }
+
+    @Override
+    protected void exportGenome(int index, long[] buffer, int offset) {
+        buffer[offset] = genes[index];
+    }
+
+    @Override
+    protected void importGenome(int index, long[] buffer, int offset) {
+        genes[index] = (int) buffer[offset];
+    }
+
+    /**
+     * Кроссовер: случайно выбирает одного из родителей.
+     *
+     * @param p1     родитель 1
+     * @param p2     родитель 2
+     * @param random генератор блока
+     * @return потомок
+     */
+    protected int crossover(int p1, int p2, RandomGenerator random) {
+        return random.nextBoolean() ? p1 : p2;
+    }
+
+    /**
+     * Мутация: с вероятностью {@link #mutationRate} изменяет x на -1, 0 или +1
+     * в пределах диапазона.
+     *
+     * @param x      значение для мутации
+     * @param random генератор блока
+     * @return мутированное (или исходное) значение
+     */
+    protected int mutate(int x, RandomGenerator random) {
+        if (random.nextDouble() < mutationRate) {
+            x += random.nextInt(3) - 1;
+            if (x < minBound) x = minBound;
+            if (x > maxBound) x = maxBound;
+        }
+        return x;
+    }
+
+    /**
+     * Возвращает ген особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @return значение хромосомы
+     */
+    public int gene(int index) {
+        return genes[index];
+    }
+
+    /** Возвращает лучшее найденное значение в текущем поколении. */
+    public int best() {
+        return genes[bestIndex()];
+    }
+}
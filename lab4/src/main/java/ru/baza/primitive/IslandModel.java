@@ -0,0 +1,146 @@
+package ru.baza.primitive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Островная модель: несколько популяций («островов») эволюционируют
+ * одновременно, каждая в своём потоке, и периодически обмениваются
+ * лучшими особями.
+ *
+ * <p>Острова соединены в кольцо: каждые {@code migrationInterval} поколений
+ * остров отправляет копии {@code migrants} лучших особей следующему острову
+ * и заменяет свои худшие особи прибывшими мигрантами. Обмен идёт через
+ * неблокирующие ячейки по одной на остров, острова не ждут друг друга,
+ * поэтому пропускная способность растёт почти линейно с числом ядер.
+ * В ячейке хранится только последняя партия мигрантов: если получатель
+ * отстаёт от соседа, ещё не принятая партия заменяется более свежей,
+ * и память на миграцию не растёт с числом поколений. Изоляция островов
+ * сохраняет разнообразие дольше, чем одна большая популяция, а миграция
+ * распространяет удачные решения.
+ *
+ * <p>Каждый остров — самостоятельный {@link PrimitiveGeneticAlgorithm}
+ * со своим генератором; острова должны кодировать геном одинаково
+ * и минимизировать одну функцию. Момент прибытия мигрантов зависит
+ * от планирования потоков, поэтому при нескольких островах прогон
+ * не воспроизводится побитово.
+ *
+ * <pre>{@code
+ * var islands = new ArrayList<DoubleGeneticAlgorithm>();
+ * for (var i = 0; i < 32; i++) {
+ *     islands.add(new DoubleGeneticAlgorithm(10_000, -10, 10, 0.1, f, new SplittableRandom(i)));
+ * }
+ * var model = new IslandModel(islands, 10, 5);
+ * model.run(1_000);
+ * }</pre>
+ */
+public class IslandModel {
+
+    private final List<? extends PrimitiveGeneticAlgorithm> islands;
+
+    /** Последняя не принятая партия мигрантов по номеру острова-получателя. */
+    private final AtomicReferenceArray<Migrant[]> inboxes;
+
+    private final int migrationInterval;
+    private final int migrants;
+
+    /**
+     * @param islands           популяции островов
+     * @param migrationInterval число поколений между миграциями
+     * @param migrants          число особей, отправляемых за одну миграцию
+     */
+    public IslandModel(List<? extends PrimitiveGeneticAlgorithm> islands, int migrationInterval, int migrants) {
+        if (islands.isEmpty()) {
+            throw new IllegalArgumentException("Нужен хотя бы один остров");
+        }
+        if (migrationInterval < 1 || migrants < 0) {
+            throw new IllegalArgumentException("Некорректные параметры миграции: интервал "
+                    + migrationInterval + ", мигрантов " + migrants);
+        }
+        var words = islands.get(0).genomeWords();
+        for (var island : islands) {
+            if (island.genomeWords() != words) {
+                throw new IllegalArgumentException("Острова кодируют геном по-разному");
+            }
+        }
+        this.islands = List.copyOf(islands);
+        this.inboxes = new AtomicReferenceArray<>(islands.size());
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+    }
+
+    /**
+     * Выполняет заданное число поколений на всех островах параллельно,
+     * по потоку на остров.
+     *
+     * @param generations число поколений каждого острова
+     * @throws InterruptedException если ожидание островов прервано
+     */
+    public void run(int generations) throws InterruptedException {
+        var tasks = new ArrayList<Callable<Void>>(islands.size());
+        for (var i = 0; i < islands.size(); i++) {
+            var island = i;
+            tasks.add(() -> {
+                evolveIsland(island, generations);
+                return null;
+            });
+        }
+
+        try (var executor = Executors.newFixedThreadPool(islands.size())) {
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Ошибка эволюции острова", e.getCause());
+        }
+    }
+
+    private void evolveIsland(int index, int generations) {
+        var island = islands.get(index);
+        var next = (index + 1) % islands.size();
+
+        for (var gen = 1; gen <= generations; gen++) {
+            island.evolve();
+            if (gen % migrationInterval != 0 || migrants == 0 || islands.size() == 1) {
+                continue;
+            }
+
+            inboxes.set(next, island.emigrants(migrants));
+            var arrived = inboxes.getAndSet(index, null);
+            if (arrived != null) {
+                island.immigrate(arrived, arrived.length);
+            }
+        }
+    }
+
+    /** Возвращает острова модели. */
+    public List<? extends PrimitiveGeneticAlgorithm> islands() {
+        return islands;
+    }
+
+    /** Возвращает остров с лучшей особью. */
+    public PrimitiveGeneticAlgorithm bestIsland() {
+        PrimitiveGeneticAlgorithm best = islands.get(0);
+        for (var island : islands) {
+            if (island.bestFitness() < best.bestFitness()) {
+                best = island;
+            }
+        }
+        return best;
+    }
+
+    /** Возвращает приспособленность лучшей особи среди всех островов. */
+    public double bestFitness() {
+        return bestIsland().bestFitness();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.baza.primitive;
+
+/**
+ * Копия особи, переносимая между популяциями островной модели.
+ *
+ * @param genome  геном в представлении {@link PrimitiveGeneticAlgorithm#exportGenome}
+ * @param fitness приспособленность особи
+ */
+record Migrant(long[] genome, double fitness) {
+}
@@ -0,0 +1,450 @@
+package ru.baza.primitive;
+
+import ru.baza.GenerationListener;
+import ru.baza.GenerationStats;
+import ru.baza.StoppingCriterion;
+import ru.baza.selection.Selection;
+import ru.baza.selection.Selector;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Основа генетического алгоритма над примитивными массивами.
+ *
+ * <p>В отличие от {@link ru.baza.GeneticAlgorithm}, особи не упаковываются
+ * в {@code Integer}/{@code Double}: гены популяции лежат в массиве-буфере
+ * наследника, а приспособленность — в параллельном массиве {@code double[]}.
+ * Поколения строятся в двух буферах: потомки записываются во второй буфер,
+ * после чего буферы меняются местами. Поэтому в установившемся режиме цикл
+ * эволюции не создаёт объектов и подходит для популяций в миллионы особей.
+ *
+ * <p>Один шаг {@link #evolve()}:
+ * <ol>
+ *     <li>перенос {@link #elitism(int) элиты} без изменений;</li>
+ *     <li>отбор родителей ({@link Selection}, по умолчанию бинарный турнир)
+ *         по индексам в массиве приспособленности;</li>
+ *     <li>кроссовер и мутация — наследник пишет потомка во второй буфер;</li>
+ *     <li>обмен буферов и вычисление приспособленности каждой особи ровно один раз.</li>
+ * </ol>
+ *
+ * <h2>Параллельный режим</h2>
+ * Популяция делится на блоки по {@value #CHUNK_SIZE} особей. Каждый блок
+ * получает собственный генератор, отщеплённый от исходного при создании
+ * алгоритма, и всегда обрабатывает один и тот же диапазон индексов.
+ * Поэтому результат зависит только от зерна, а не от числа потоков:
+ * после {@link #parallel(ForkJoinPool)} блоки строятся и оцениваются
+ * в пуле параллельно, а последовательный и параллельный запуски дают
+ * одинаковые популяции.
+ *
+ * <p>Алгоритм минимизирует приспособленность, как и {@link ru.baza.GeneticAlgorithm}.
+ * Объект не потокобезопасен.
+ */
+public abstract class PrimitiveGeneticAlgorithm {
+
+    /** Число особей в блоке с общим генератором случайных чисел. */
+    public static final int CHUNK_SIZE = 1024;
+
+    /** Размер популяции. */
+    protected final int populationSize;
+
+    /** Приспособленность особей текущего поколения. */
+    protected final double[] fitness;
+
+    /** Генераторы блоков популяции: блок {@code c} использует {@code streams[c]}. */
+    private final RandomGenerator[] streams;
+
+    private final ChunkAction initializeChunk = this::initializeChunk;
+    private final ChunkAction breedChunk = this::breedChunk;
+    private final ChunkAction evaluateChunk = this::evaluateChunk;
+
+    private Selector selector = Selection.tournament(2).create();
+
+    /** Индексы и приспособленность элиты, переносимой в следующее поколение. */
+    private int[] eliteIndices = new int[0];
+    private double[] eliteFitness = new double[0];
+
+    /** Число первых особей поколения, приспособленность которых уже известна. */
+    private int preserved;
+
+    private ForkJoinPool pool;
+    private int bestIndex;
+    private int generation;
+    private long evaluations;
+    private boolean initialized;
+
+    /**
+     * @param populationSize размер популяции
+     * @param random         исходный генератор; от него отщепляются генераторы блоков
+     */
+    protected PrimitiveGeneticAlgorithm(int populationSize, SplittableGenerator random) {
+        if (populationSize < 1) {
+            throw new IllegalArgumentException("Размер популяции должен быть положительным: " + populationSize);
+        }
+        this.populationSize = populationSize;
+        this.fitness = new double[populationSize];
+        this.streams = new RandomGenerator[(populationSize + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (var c = 0; c < streams.length; c++) {
+            streams[c] = random.split();
+        }
+    }
+
+    /**
+     * Заполняет особь текущего поколения случайными генами.
+     *
+     * @param index  индекс особи
+     * @param random генератор блока, которому принадлежит особь
+     */
+    protected abstract void initialize(int index, RandomGenerator random);
+
+    /**
+     * Создаёт потомка двух родителей текущего поколения (кроссовер и мутация)
+     * и записывает его во второй буфер.
+     *
+     * <p>В параллельном режиме вызывается одновременно из нескольких потоков
+     * для разных {@code child}; реализация может читать текущее поколение
+     * и писать только ячейку потомка.
+     *
+     * @param parent1 индекс первого родителя
+     * @param parent2 индекс второго родителя
+     * @param child   индекс потомка во втором буфере
+     * @param random  генератор блока, которому принадлежит потомок
+     */
+    protected abstract void breed(int parent1, int parent2, int child, RandomGenerator random);
+
+    /**
+     * Меняет местами буфер текущего поколения и буфер потомков.
+     */
+    protected abstract void swapBuffers();
+
+    /**
+     * Вычисляет приспособленность особи текущего поколения.
+     * В параллельном режиме вызывается одновременно из нескольких потоков.
+     *
+     * @param index индекс особи
+     * @return значение приспособленности (меньше — лучше)
+     */
+    protected abstract double evaluate(int index);
+
+    /**
+     * Копирует особь текущего поколения во второй буфер без изменений.
+     *
+     * @param index индекс особи текущего поколения
+     * @param child индекс во втором буфере
+     */
+    protected abstract void copyToOffspring(int index, int child);
+
+    /**
+     * Возвращает число 64-битных слов, которыми кодируется геном одной особи.
+     * Используется для переноса особей между популяциями ({@link IslandModel}).
+     *
+     * @return длина генома в словах {@code long}
+     */
+    protected abstract int genomeWords();
+
+    /**
+     * Записывает геном особи текущего поколения в буфер.
+     *
+     * @param index  индекс особи
+     * @param buffer буфер
+     * @param offset позиция первого слова в буфере
+     */
+    protected abstract void exportGenome(int index, long[] buffer, int offset);
+
+    /**
+     * Заменяет геном особи текущего поколения геномом из буфера.
+     *
+     * @param index  индекс особи
+     * @param buffer буфер, заполненный {@link #exportGenome}
+     * @param offset позиция первого слова в буфере
+     */
+    protected abstract void importGenome(int index, long[] buffer, int offset);
+
+    /**
+     * Включает параллельный режим: построение потомков и вычисление
+     * приспособленности выполняются блоками в заданном пуле.
+     *
+     * @param pool пул потоков или {@code null} для последовательного режима
+     */
+    public void parallel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Задаёт стратегию отбора родителей.
+     *
+     * @param selection стратегия отбора
+     */
+    public void selection(Selection selection) {
+        this.selector = selection.create();
+    }
+
+    /**
+     * Задаёт число лучших особей, переносимых в следующее поколение
+     * без изменений. Их приспособленность не пересчитывается.
+     *
+     * @param count размер элиты; 0 — без элитизма
+     */
+    public void elitism(int count) {
+        if (count < 0 || count > populationSize) {
+            throw new IllegalArgumentException("Размер элиты вне [0, " + populationSize + "]: " + count);
+        }
+        this.eliteIndices = new int[count];
+        this.eliteFitness = new double[count];
+    }
+
+    /**
+     * Создаёт начальную популяцию и вычисляет её приспособленность.
+     * Вызывается автоматически перед первым поколением.
+     */
+    public void initialize() {
+        forEachChunk(initializeChunk);
+        evaluatePopulation();
+        generation = 0;
+        initialized = true;
+    }
+
+    /**
+     * Строит следующее поколение.
+     */
+    public void evolve() {
+        if (!initialized) {
+            initialize();
+        }
+        selector.prepare(fitness, populationSize);
+        var elites = eliteIndices.length;
+        if (elites > 0) {
+            rankedIndices(eliteIndices, elites, true);
+            for (var i = 0; i < elites; i++) {
+                copyToOffspring(eliteIndices[i], i);
+                eliteFitness[i] = fitness[eliteIndices[i]];
+            }
+        }
+        forEachChunk(breedChunk);
+        swapBuffers();
+
+        preserved = elites;
+        evaluatePopulation();
+        preserved = 0;
+        generation++;
+    }
+
+    /**
+     * Выполняет заданное число поколений.
+     *
+     * @param generations количество поколений
+     */
+    public void run(int generations) {
+        for (var gen = 0; gen < generations; gen++) {
+            evolve();
+        }
+    }
+
+    /**
+     * Выполняет эволюцию, пока не выполнится условие остановки. Статистика
+     * собирается одним проходом по массиву приспособленности после каждого
+     * поколения; внутренний цикл построения потомков ничего не печатает.
+     *
+     * @param stop     условие остановки
+     * @param listener слушатель поколений
+     * @return статистика последнего поколения
+     */
+    public GenerationStats run(StoppingCriterion stop, GenerationListener listener) {
+        var start = System.nanoTime();
+        var evaluationsBefore = evaluations;
+        if (!initialized) {
+            initialize();
+        }
+
+        var generationStart = start;
+        while (true) {
+            var now = System.nanoTime();
+            var stats = GenerationStats.of(generation, fitness, populationSize, evaluations - evaluationsBefore,
+                    now - generationStart, now - start);
+            listener.generationCompleted(stats);
+            if (stop.shouldStop(stats)) {
+                return stats;
+            }
+            generationStart = System.nanoTime();
+            evolve();
+        }
+    }
+
+    private void initializeChunk(int from, int to, RandomGenerator random) {
+        for (var i = from; i < to; i++) {
+            initialize(i, random);
+        }
+    }
+
+    private void breedChunk(int from, int to, RandomGenerator random) {
+        for (var child = Math.max(from, eliteIndices.length); child < to; child++) {
+            breed(selector.select(random), selector.select(random), child, random);
+        }
+    }
+
+    private void evaluateChunk(int from, int to, RandomGenerator random) {
+        for (var i = from; i < to; i++) {
+            fitness[i] = i < preserved ? eliteFitness[i] : evaluate(i);
+        }
+    }
+
+    /**
+     * Возвращает копии {@code count} лучших особей текущего поколения.
+     *
+     * @param count число особей
+     * @return мигранты в порядке от лучшего к худшему
+     */
+    Migrant[] emigrants(int count) {
+        var best = new int[Math.min(count, populationSize)];
+        rankedIndices(best, best.length, true);
+        var migrants = new Migrant[best.length];
+        for (var i = 0; i < best.length; i++) {
+            var genome = new long[genomeWords()];
+            exportGenome(best[i], genome, 0);
+            migrants[i] = new Migrant(genome, fitness[best[i]]);
+        }
+        return migrants;
+    }
+
+    /**
+     * Заменяет худшие особи текущего поколения мигрантами. Приспособленность
+     * мигрантов не пересчитывается: все популяции используют одну функцию.
+     *
+     * @param migrants мигранты
+     * @param count    число мигрантов из начала массива
+     */
+    void immigrate(Migrant[] migrants, int count) {
+        var worst = new int[Math.min(count, populationSize)];
+        rankedIndices(worst, worst.length, false);
+        for (var i = 0; i < worst.length; i++) {
+            importGenome(worst[i], migrants[i].genome(), 0);
+            fitness[worst[i]] = migrants[i].fitness();
+        }
+        updateBest();
+    }
+
+    /**
+     * Записывает в {@code ranked} индексы {@code count} лучших или худших
+     * особей за один проход по массиву приспособленности (вставкой
+     * в упорядоченный массив длины {@code count}).
+     */
+    private void rankedIndices(int[] ranked, int count, boolean best) {
+        var size = 0;
+        for (var i = 0; i < populationSize; i++) {
+            var pos = size;
+            while (pos > 0 && better(i, ranked[pos - 1], best)) {
+                pos--;
+            }
+            if (pos == count) {
+                continue;
+            }
+            var last = Math.min(size, count - 1);
+            System.arraycopy(ranked, pos, ranked, pos + 1, last - pos);
+            ranked[pos] = i;
+            size = Math.min(size + 1, count);
+        }
+    }
+
+    private boolean better(int a, int b, boolean lower) {
+        return lower ? fitness[a] < fitness[b] : fitness[a] > fitness[b];
+    }
+
+    private void evaluatePopulation() {
+        forEachChunk(evaluateChunk);
+        evaluations += populationSize - preserved;
+        updateBest();
+    }
+
+    private void updateBest() {
+        var best = 0;
+        for (var i = 1; i < populationSize; i++) {
+            if (fitness[i] < fitness[best]) {
+                best = i;
+            }
+        }
+        bestIndex = best;
+    }
+
+    private void forEachChunk(ChunkAction action) {
+        if (pool == null || streams.length == 1) {
+            for (var c = 0; c < streams.length; c++) {
+                runChunk(action, c);
+            }
+        } else {
+            pool.invoke(new ChunkTask(action, 0, streams.length));
+        }
+    }
+
+    private void runChunk(ChunkAction action, int chunk) {
+        var from = chunk * CHUNK_SIZE;
+        action.apply(from, Math.min(from + CHUNK_SIZE, populationSize), streams[chunk]);
+    }
+
+    /** Возвращает размер популяции. */
+    public int size() {
+        return populationSize;
+    }
+
+    /** Возвращает номер текущего поколения (0 — начальная популяция). */
+    public int generation() {
+        return generation;
+    }
+
+    /** Возвращает число вызовов fitness-функции с момента создания алгоритма. */
+    public long evaluations() {
+        return evaluations;
+    }
+
+    /** Возвращает индекс лучшей особи текущего поколения. */
+    public int bestIndex() {
+        return bestIndex;
+    }
+
+    /** Возвращает приспособленность лучшей особи текущего поколения. */
+    public double bestFitness() {
+        return fitness[bestIndex];
+    }
+
+    /**
+     * Возвращает приспособленность особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @return значение приспособленности
+     */
+    public double fitness(int index) {
+        return fitness[index];
+    }
+
+    /** Обработка диапазона особей одного блока. */
+    @FunctionalInterface
+    private interface ChunkAction {
+        void apply(int from, int to, RandomGenerator random);
+    }
+
+    /** Делит диапазон блоков пополам, пока не останется один блок. */
+    @SuppressWarnings("serial") // задачи ForkJoin не сериализуются, Serializable унаследован от ForkJoinTask
+    private final class ChunkTask extends RecursiveAction {
+
+        private final ChunkAction action;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ChunkAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                runChunk(action, from);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(action, from, mid), new ChunkTask(action, mid, to));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.baza.primitive;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Кроссовер векторных хромосом в плоском массиве популяции.
+ *
+ * <p>Операторы проходят гены подряд по смежным отрезкам массива
+ * и не создают объектов. Выход за границы области исправляет
+ * {@link VectorGeneticAlgorithm} после мутации.
+ */
+@FunctionalInterface
+public interface VectorCrossover {
+
+    /**
+     * Записывает потомка двух родителей.
+     *
+     * @param parents    плоский массив текущего поколения
+     * @param parent1    индекс первого гена первого родителя
+     * @param parent2    индекс первого гена второго родителя
+     * @param children   плоский массив потомков
+     * @param child      индекс первого гена потомка
+     * @param dimensions число генов хромосомы
+     * @param random     генератор блока популяции
+     */
+    void cross(double[] parents, int parent1, int parent2,
+               double[] children, int child, int dimensions, RandomGenerator random);
+
+    /**
+     * Смешанный кроссовер BLX-α: ген потомка выбирается равномерно из отрезка
+     * между генами родителей, расширенного на {@code alpha} его длины в обе стороны.
+     *
+     * @param alpha коэффициент расширения (обычно 0.5)
+     * @return оператор кроссовера
+     */
+    static VectorCrossover blxAlpha(double alpha) {
+        return (parents, parent1, parent2, children, child, dimensions, random) -> {
+            for (var d = 0; d < dimensions; d++) {
+                var x1 = parents[parent1 + d];
+                var x2 = parents[parent2 + d];
+                var min = Math.min(x1, x2);
+                var span = Math.abs(x1 - x2);
+                children[child + d] = min - alpha * span + (1 + 2 * alpha) * span * random.nextDouble();
+            }
+        };
+    }
+
+    /**
+     * Имитация двоичного кроссовера (SBX, Deb и Agrawal): потомок
+     * распределён вокруг родителей с плотностью, зависящей от индекса {@code eta}.
+     * Чем больше {@code eta}, тем ближе потомок к родителям.
+     *
+     * @param eta индекс распределения (обычно 2–20)
+     * @return оператор кроссовера
+     */
+    static VectorCrossover sbx(double eta) {
+        var exponent = 1.0 / (eta + 1);
+        return (parents, parent1, parent2, children, child, dimensions, random) -> {
+            for (var d = 0; d < dimensions; d++) {
+                var x1 = parents[parent1 + d];
+                var x2 = parents[parent2 + d];
+                var u = random.nextDouble();
+                var beta = u <= 0.5
+                        ? Math.pow(2 * u, exponent)
+                        : Math.pow(1 / (2 * (1 - u)), exponent);
+                // Один из двух симметричных потомков SBX
+                var spread = random.nextBoolean() ? beta : -beta;
+                children[child + d] = 0.5 * ((x1 + x2) + spread * (x2 - x1));
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package ru.baza.primitive;
+
+/**
+ * Fitness-функция векторной хромосомы.
+ *
+ * <p>Хромосома передаётся без копирования — как отрезок общего плоского
+ * массива популяции {@code genes[offset .. offset + dimensions)}.
+ * Реализация не должна изменять массив; в параллельном режиме она
+ * вызывается одновременно из нескольких потоков.
+ */
+@FunctionalInterface
+public interface VectorFitness {
+
+    /**
+     * Вычисляет приспособленность хромосомы.
+     *
+     * @param genes      плоский массив популяции
+     * @param offset     индекс первого гена хромосомы
+     * @param dimensions число генов хромосомы
+     * @return значение приспособленности (меньше — лучше)
+     */
+    double evaluate(double[] genes, int offset, int dimensions);
+
+    /**
+     * Возвращает наименьшее число генов, при котором функция определена, —
+     * например, 3 для формулы с {@code x_2}. Алгоритм проверяет его
+     * при создании и отклоняет слишком короткую хромосому.
+     *
+     * @return минимальная длина хромосомы; по умолчанию 0 — любая
+     */
+    default int minDimensions() {
+        return 0;
+    }
+
+    /**
+     * Сферическая функция: сумма квадратов генов.
+     */
+    VectorFitness SPHERE = (genes, offset, dimensions) -> {
+        var sum = 0.0;
+        for (int i = offset, end = offset + dimensions; i < end; i++) {
+            sum += genes[i] * genes[i];
+        }
+        return sum;
+    };
+}
@@ -0,0 +1,240 @@
+package ru.baza.primitive;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Генетический алгоритм с векторными хромосомами из сотен и тысяч
+ * вещественных переменных.
+ *
+ * <p>Вся популяция хранится в одном плоском массиве {@code double[]}
+ * размером «особи × размерность»: хромосома {@code i} занимает отрезок
+ * {@code [i * dimensions, (i + 1) * dimensions)}. Операторы проходят
+ * гены подряд по смежной памяти, поэтому пропускная способность
+ * сохраняется с ростом размерности.
+ *
+ * <ul>
+ *     <li>инициализация — равномерно в границах каждой переменной;</li>
+ *     <li>кроссовер — {@link VectorCrossover#blxAlpha(double)} или
+ *         {@link VectorCrossover#sbx(double)};</li>
+ *     <li>мутация — гауссовский шум с σ, пропорциональной ширине области
+ *         переменной; мутирующие гены выбираются геометрическими пропусками,
+ *         поэтому стоимость мутации пропорциональна числу изменённых генов;</li>
+ *     <li>после мутации гены ограничиваются границами своих переменных.</li>
+ * </ul>
+ */
+public class VectorGeneticAlgorithm extends PrimitiveGeneticAlgorithm {
+
+    /** Число переменных (генов) хромосомы. */
+    protected final int dimensions;
+
+    /** Нижние границы переменных. */
+    protected final double[] lowerBounds;
+
+    /** Верхние границы переменных. */
+    protected final double[] upperBounds;
+
+    /** Вероятность мутации отдельного гена. */
+    protected final double mutationRate;
+
+    /** σ гауссовской мутации по каждой переменной. */
+    private final double[] sigma;
+
+    /** {@code 1 / ln(1 - mutationRate)} для выборки пропусков между мутациями. */
+    private final double skipScale;
+
+    private final VectorCrossover crossover;
+    private final VectorFitness fitnessFunction;
+
+    private double[] genes;
+    private double[] offspring;
+
+    /**
+     * @param populationSize  размер популяции
+     * @param lowerBounds     нижние границы переменных; их число задаёт размерность
+     * @param upperBounds     верхние границы переменных
+     * @param crossover       оператор кроссовера
+     * @param mutationRate    вероятность мутации гена
+     * @param mutationScale   σ мутации как доля ширины области переменной
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public VectorGeneticAlgorithm(int populationSize, double[] lowerBounds, double[] upperBounds,
+                                  VectorCrossover crossover, double mutationRate, double mutationScale,
+                                  VectorFitness fitnessFunction, SplittableGenerator random) {
+        super(populationSize, random);
+        if (lowerBounds.length == 0 || lowerBounds.length != upperBounds.length) {
+            throw new IllegalArgumentException("Границы должны быть непустыми и одной длины: "
+                    + lowerBounds.length + " и " + upperBounds.length);
+        }
+        if ((long) populationSize * lowerBounds.length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Популяция не помещается в массив: "
+                    + populationSize + " × " + lowerBounds.length);
+        }
+        if (fitnessFunction.minDimensions() > lowerBounds.length) {
+            throw new IllegalArgumentException("Fitness-функции нужно " + fitnessFunction.minDimensions()
+                    + " генов, а хромосома содержит " + lowerBounds.length);
+        }
+        this.dimensions = lowerBounds.length;
+        this.lowerBounds = lowerBounds.clone();
+        this.upperBounds = upperBounds.clone();
+        this.sigma = new double[dimensions];
+        for (var d = 0; d < dimensions; d++) {
+            if (!(lowerBounds[d] <= upperBounds[d])) {
+                throw new IllegalArgumentException("Некорректный диапазон переменной " + d + ": ["
+                        + lowerBounds[d] + ", " + upperBounds[d] + "]");
+            }
+            sigma[d] = mutationScale * (upperBounds[d] - lowerBounds[d]);
+        }
+        this.mutationRate = mutationRate;
+        this.skipScale = mutationRate > 0 && mutationRate < 1 ? 1 / Math.log1p(-mutationRate) : 0;
+        this.crossover = crossover;
+        this.fitnessFunction = fitnessFunction;
+        this.genes = new double[populationSize * dimensions];
+        this.offspring = new double[populationSize * dimensions];
+    }
+
+    /**
+     * Создаёт алгоритм с одинаковыми границами для всех переменных.
+     *
+     * @param populationSize  размер популяции
+     * @param dimensions      число переменных
+     * @param minBound        нижняя граница каждой переменной
+     * @param maxBound        верхняя граница каждой переменной
+     * @param crossover       оператор кроссовера
+     * @param mutationRate    вероятность мутации гена
+     * @param mutationScale   σ мутации как доля ширины области
+     * @param fitnessFunction минимизируемая функция
+     * @param random          исходный генератор случайных чисел
+     */
+    public VectorGeneticAlgorithm(int populationSize, int dimensions, double minBound, double maxBound,
+                                  VectorCrossover crossover, double mutationRate, double mutationScale,
+                                  VectorFitness fitnessFunction, SplittableGenerator random) {
+        this(populationSize, filled(dimensions, minBound), filled(dimensions, maxBound),
+                crossover, mutationRate, mutationScale, fitnessFunction, random);
+    }
+
+    private static double[] filled(int length, double value) {
+        var array = new double[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    @Override
+    protected void initialize(int index, RandomGenerator random) {
+        var offset = index * dimensions;
+        for (var d = 0; d < dimensions; d++) {
+            genes[offset + d] = lowerBounds[d] + (upperBounds[d] - lowerBounds[d]) * random.nextDouble();
+        }
+    }
+
+    @Override
+    protected void breed(int parent1, int parent2, int child, RandomGenerator random) {
+        var offset = child * dimensions;
+        crossover.cross(genes, parent1 * dimensions, parent2 * dimensions, offspring, offset, dimensions, random);
+        mutate(offspring, offset, random);
+        clamp(offspring, offset);
+    }
+
+    /**
+     * Гауссовская мутация хромосомы на месте. Номера мутирующих генов
+     * выбираются пропусками с геометрическим распределением, что эквивалентно
+     * независимой проверке вероятности для каждого гена.
+     *
+     * @param chromosomes плоский массив
+     * @param offset      индекс первого гена хромосомы
+     * @param random      генератор блока
+     */
+    protected void mutate(double[] chromosomes, int offset, RandomGenerator random) {
+        if (mutationRate <= 0) {
+            return;
+        }
+        var d = mutationRate >= 1 ? 0 : skip(random);
+        while (d < dimensions) {
+            chromosomes[offset + d] += random.nextGaussian() * sigma[d];
+            d += mutationRate >= 1 ? 1 : 1 + skip(random);
+        }
+    }
+
+    private int skip(RandomGenerator random) {
+        // Число генов без мутации до следующей: ⌊ln U / ln(1 - p)⌋
+        var skip = Math.log(1 - random.nextDouble()) * skipScale;
+        return skip < dimensions ? (int) skip : dimensions;
+    }
+
+    private void clamp(double[] chromosomes, int offset) {
+        for (var d = 0; d < dimensions; d++) {
+            chromosomes[offset + d] = Math.min(Math.max(chromosomes[offset + d], lowerBounds[d]), upperBounds[d]);
+        }
+    }
+
+    @Override
+    protected void copyToOffspring(int index, int child) {
+        System.arraycopy(genes, index * dimensions, offspring, child * dimensions, dimensions);
+    }
+
+    @Override
+    protected void swapBuffers() {
+        var tmp = genes;
+        genes = offspring;
+        offspring = tmp;
+    }
+
+    @Override
+    protected double evaluate(int index) {
+        return fitnessFunction.evaluate(genes, index * dimensions, dimensions);
+    }
+
+    @Override
+    protected int genomeWords() {
+        return dimensions;
+    }
+
+    @Override
+    protected void exportGenome(int index, long[] buffer, int offset) {
+        var from = index * dimensions;
+        for (var d = 0; d < dimensions; d++) {
+            buffer[offset + d] = Double.doubleToRawLongBits(genes[from + d]);
+        }
+    }
+
+    @Override
+    protected void importGenome(int index, long[] buffer, int offset) {
+        var to = index * dimensions;
+        for (var d = 0; d < dimensions; d++) {
+            genes[to + d] = Double.longBitsToDouble(buffer[offset + d]);
+        }
+    }
+
+    /** Возвращает число переменных хромосомы. */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Возвращает ген особи текущего поколения.
+     *
+     * @param index     индекс особи
+     * @param dimension номер переменной
+     * @return значение гена
+     */
+    public double gene(int index, int dimension) {
+        return genes[index * dimensions + dimension];
+    }
+
+    /**
+     * Копирует хромосому особи текущего поколения.
+     *
+     * @param index индекс особи
+     * @return новый массив генов
+     */
+    public double[] chromosome(int index) {
+        return Arrays.copyOfRange(genes, index * dimensions, (index + 1) * dimensions);
+    }
+
+    /** Возвращает копию лучшей хромосомы текущего поколения. */
+    public double[] best() {
+        return chromosome(bestIndex());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Таблица Уокера для выборки из дискретного распределения за O(1)
+ * (вариант Vose). Строится за O(n) по неотрицательным весам;
+ * массивы переиспользуются при повторном построении.
+ */
+final class AliasTable {
+
+    private double[] probability = new double[0];
+    private int[] alias = new int[0];
+    private int[] small = new int[0];
+    private int[] large = new int[0];
+    private int size;
+
+    /**
+     * Строит таблицу. Если сумма весов не положительна или не конечна,
+     * распределение считается равномерным.
+     *
+     * @param weights веса; массив используется как рабочий и портится
+     * @param size    число весов
+     */
+    void build(double[] weights, int size) {
+        ensureCapacity(size);
+        this.size = size;
+
+        var sum = 0.0;
+        for (var i = 0; i < size; i++) {
+            sum += weights[i];
+        }
+        if (!(sum > 0) || Double.isInfinite(sum)) {
+            for (var i = 0; i < size; i++) {
+                probability[i] = 1;
+                alias[i] = i;
+            }
+            return;
+        }
+
+        var smallSize = 0;
+        var largeSize = 0;
+        var scale = size / sum;
+        for (var i = 0; i < size; i++) {
+            weights[i] *= scale;
+            if (weights[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            var less = small[--smallSize];
+            var more = large[--largeSize];
+            probability[less] = weights[less];
+            alias[less] = more;
+            weights[more] = (weights[more] + weights[less]) - 1;
+            if (weights[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // Остатки из-за погрешности округления имеют вероятность 1
+        while (largeSize > 0) {
+            var i = large[--largeSize];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+        while (smallSize > 0) {
+            var i = small[--smallSize];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+    int sample(RandomGenerator random) {
+        var i = random.nextInt(size);
+        return random.nextDouble() < probability[i] ? i : alias[i];
+    }
+
+    private void ensureCapacity(int size) {
+        if (probability.length < size) {
+            probability = new double[size];
+            alias = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
+    }
+}
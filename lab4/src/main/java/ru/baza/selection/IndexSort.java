@@ -0,0 +1,101 @@
+package ru.baza.selection;
+
+/**
+ * Сортировка индексов особей по приспособленности без упаковки
+ * и без дополнительной памяти.
+ *
+ * <p>Используется селекторами и предварительным отбором по прогнозу
+ * суррогатной модели в {@link ru.baza.GeneticAlgorithm}.
+ */
+public final class IndexSort {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    private IndexSort() {}
+
+    /**
+     * Заполняет {@code order[0..size)} индексами особей в порядке
+     * возрастания приспособленности (лучшие — первыми).
+     *
+     * @param order   массив индексов
+     * @param fitness приспособленность особей
+     * @param size    число особей
+     */
+    public static void sort(int[] order, double[] fitness, int size) {
+        for (var i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        quickSort(order, fitness, 0, size - 1);
+    }
+
+    /**
+     * Упорядочивает уже заполненные индексы {@code order[0..size)}
+     * по возрастанию {@code fitness[order[k]]} — например, подмножество
+     * особей популяции.
+     *
+     * @param order   массив индексов
+     * @param fitness приспособленность особей
+     * @param size    число индексов
+     */
+    public static void sortIndices(int[] order, double[] fitness, int size) {
+        quickSort(order, fitness, 0, size - 1);
+    }
+
+    private static void quickSort(int[] order, double[] fitness, int low, int high) {
+        while (high - low > INSERTION_THRESHOLD) {
+            var pivot = fitness[order[medianOfThree(order, fitness, low, (low + high) >>> 1, high)]];
+            var i = low;
+            var j = high;
+            while (i <= j) {
+                while (less(fitness[order[i]], pivot)) i++;
+                while (less(pivot, fitness[order[j]])) j--;
+                if (i <= j) {
+                    swap(order, i++, j--);
+                }
+            }
+            // Рекурсия по меньшей части ограничивает глубину стека O(log n)
+            if (j - low < high - i) {
+                quickSort(order, fitness, low, j);
+                low = i;
+            } else {
+                quickSort(order, fitness, i, high);
+                high = j;
+            }
+        }
+        insertionSort(order, fitness, low, high);
+    }
+
+    private static void insertionSort(int[] order, double[] fitness, int low, int high) {
+        for (var i = low + 1; i <= high; i++) {
+            var index = order[i];
+            var value = fitness[index];
+            var j = i - 1;
+            while (j >= low && less(value, fitness[order[j]])) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    private static int medianOfThree(int[] order, double[] fitness, int a, int b, int c) {
+        var fa = fitness[order[a]];
+        var fb = fitness[order[b]];
+        var fc = fitness[order[c]];
+        if (less(fa, fb)) {
+            return less(fb, fc) ? b : less(fa, fc) ? c : a;
+        }
+        return less(fa, fc) ? a : less(fb, fc) ? c : b;
+    }
+
+    /** Порядок {@link Double#compare}: NaN считается худшим значением. */
+    private static boolean less(double a, double b) {
+        return Double.compare(a, b) < 0;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        var tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Линейное ранжирование: особи упорядочиваются по приспособленности,
+ * ранг выбирается по таблице Уокера и переводится в индекс особи.
+ */
+final class RankSelector implements Selector {
+
+    private final double pressure;
+    private final AliasTable table = new AliasTable();
+
+    private int[] order = new int[0];
+    private double[] weights = new double[0];
+
+    RankSelector(double pressure) {
+        this.pressure = pressure;
+    }
+
+    @Override
+    public void prepare(double[] fitness, int size) {
+        if (order.length < size) {
+            order = new int[size];
+            weights = new double[size];
+        }
+        IndexSort.sort(order, fitness, size);
+
+        // Ранг 0 — лучшая особь
+        for (var rank = 0; rank < size; rank++) {
+            weights[rank] = size == 1 ? 1 : pressure - (2 * pressure - 2) * rank / (size - 1);
+        }
+        table.build(weights, size);
+    }
+
+    @Override
+    public int select(RandomGenerator random) {
+        return order[table.sample(random)];
+    }
+
+    @Override
+    public String toString() {
+        return "rank(" + pressure + ")";
+    }
+}
@@ -0,0 +1,40 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Рулетка для минимизации: вес особи — {@code fmax - f}.
+ * Особи с неконечной приспособленностью получают нулевой вес.
+ */
+final class RouletteSelector implements Selector {
+
+    private final AliasTable table = new AliasTable();
+    private double[] weights = new double[0];
+
+    @Override
+    public void prepare(double[] fitness, int size) {
+        if (weights.length < size) {
+            weights = new double[size];
+        }
+        var max = Double.NEGATIVE_INFINITY;
+        for (var i = 0; i < size; i++) {
+            if (Double.isFinite(fitness[i]) && fitness[i] > max) {
+                max = fitness[i];
+            }
+        }
+        for (var i = 0; i < size; i++) {
+            weights[i] = Double.isFinite(fitness[i]) ? max - fitness[i] : 0;
+        }
+        table.build(weights, size);
+    }
+
+    @Override
+    public int select(RandomGenerator random) {
+        return table.sample(random);
+    }
+
+    @Override
+    public String toString() {
+        return "roulette";
+    }
+}
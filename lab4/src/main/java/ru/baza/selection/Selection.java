@@ -0,0 +1,76 @@
+package ru.baza.selection;
+
+/**
+ * Стратегия отбора родителей.
+ *
+ * <p>Стратегия неизменяема и может разделяться между алгоритмами
+ * (например, храниться в {@link ru.baza.GAConfig}). Для каждого запуска
+ * она создаёт {@link Selector} — объект с буферами под размер популяции,
+ * который раз в поколение строит таблицы выборки по массиву
+ * приспособленности, а затем выбирает родителей за O(1) или O(k).
+ *
+ * <p>Все стратегии минимизируют приспособленность.
+ */
+@FunctionalInterface
+public interface Selection {
+
+    /**
+     * Создаёт селектор для одного алгоритма.
+     *
+     * @return новый селектор
+     */
+    Selector create();
+
+    /**
+     * Турнир из {@code k} случайных особей: побеждает лучшая. O(k) на выбор.
+     *
+     * @param k размер турнира (2 — бинарный турнир)
+     * @return стратегия отбора
+     */
+    static Selection tournament(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Размер турнира должен быть положительным: " + k);
+        }
+        return () -> new TournamentSelector(k);
+    }
+
+    /**
+     * Рулетка: вероятность выбора пропорциональна {@code fmax - f}.
+     * Таблица Уокера (alias method) строится за O(n) на поколение,
+     * выбор — O(1).
+     *
+     * @return стратегия отбора
+     */
+    static Selection roulette() {
+        return RouletteSelector::new;
+    }
+
+    /**
+     * Линейное ранжирование: вероятность зависит только от ранга особи,
+     * от {@code pressure / n} для лучшей до {@code (2 - pressure) / n}
+     * для худшей. Сортировка O(n log n) на поколение, выбор — O(1).
+     *
+     * @param pressure давление отбора из [1, 2]
+     * @return стратегия отбора
+     */
+    static Selection rank(double pressure) {
+        if (!(pressure >= 1 && pressure <= 2)) {
+            throw new IllegalArgumentException("Давление отбора вне [1, 2]: " + pressure);
+        }
+        return () -> new RankSelector(pressure);
+    }
+
+    /**
+     * Усечение: родитель выбирается равновероятно из доли {@code fraction}
+     * лучших особей. Выбор — O(1).
+     *
+     * @param fraction доля лучших особей из (0, 1]
+     * @return стратегия отбора
+     */
+    static Selection truncation(double fraction) {
+        if (!(fraction > 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Доля отбора вне (0, 1]: " + fraction);
+        }
+        return () -> new TruncationSelector(fraction);
+    }
+}
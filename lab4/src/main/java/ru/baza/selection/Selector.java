@@ -0,0 +1,30 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Селектор одного запуска алгоритма, созданный {@link Selection#create()}.
+ *
+ * <p>{@link #prepare} вызывается один раз на поколение из одного потока;
+ * после него {@link #select} можно вызывать одновременно из нескольких
+ * потоков — каждый со своим генератором. Буферы переиспользуются между
+ * поколениями, поэтому в установившемся режиме селектор не создаёт объектов.
+ */
+public interface Selector {
+
+    /**
+     * Готовит таблицы выборки по приспособленности поколения.
+     *
+     * @param fitness приспособленность особей
+     * @param size    число особей в начале массива
+     */
+    void prepare(double[] fitness, int size);
+
+    /**
+     * Выбирает родителя.
+     *
+     * @param random генератор вызывающего потока
+     * @return индекс выбранной особи
+     */
+    int select(RandomGenerator random);
+}
@@ -0,0 +1,41 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Турнирный отбор из {@code k} особей.
+ */
+final class TournamentSelector implements Selector {
+
+    private final int k;
+
+    private double[] fitness;
+    private int size;
+
+    TournamentSelector(int k) {
+        this.k = k;
+    }
+
+    @Override
+    public void prepare(double[] fitness, int size) {
+        this.fitness = fitness;
+        this.size = size;
+    }
+
+    @Override
+    public int select(RandomGenerator random) {
+        var best = random.nextInt(size);
+        for (var i = 1; i < k; i++) {
+            var candidate = random.nextInt(size);
+            if (fitness[candidate] < fitness[best]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "tournament(" + k + ")";
+    }
+}
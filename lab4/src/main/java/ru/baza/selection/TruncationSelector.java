@@ -0,0 +1,37 @@
+package ru.baza.selection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Отбор усечением: равновероятный выбор из доли лучших особей.
+ */
+final class TruncationSelector implements Selector {
+
+    private final double fraction;
+
+    private int[] order = new int[0];
+    private int count;
+
+    TruncationSelector(double fraction) {
+        this.fraction = fraction;
+    }
+
+    @Override
+    public void prepare(double[] fitness, int size) {
+        if (order.length < size) {
+            order = new int[size];
+        }
+        IndexSort.sort(order, fitness, size);
+        count = Math.max(1, (int) (fraction * size));
+    }
+
+    @Override
+    public int select(RandomGenerator random) {
+        return order[random.nextInt(count)];
+    }
+
+    @Override
+    public String toString() {
+        return "truncation(" + fraction + ")";
+    }
+}
@@ -0,0 +1,248 @@
+package ru.baza.surrogate;
+
+import java.util.Arrays;
+
+/**
+ * Пополняемое k-d дерево точек со значениями для поиска ближайших соседей.
+ *
+ * <p>Точки хранятся в плоском массиве координат, дерево неявное:
+ * узел отрезка {@code [from, to)} массива перестановки — его середина,
+ * левое и правое поддеревья — половины отрезка, ось разбиения чередуется
+ * с глубиной. Новые точки сначала попадают в неиндексированный хвост,
+ * который просматривается перебором; когда хвост вырастает до четверти
+ * индексированной части, дерево перестраивается целиком. Амортизированная
+ * стоимость добавления — O(log n), поиска — O(log n + хвост).
+ *
+ * <p>Дерево не потокобезопасно.
+ */
+public final class KdTree {
+
+    /** Наименьший хвост, при котором дерево перестраивается. */
+    private static final int MIN_TAIL = 64;
+
+    private final int dimensions;
+
+    private double[] points;
+    private double[] values;
+    private int[] order;
+    private int size;
+    private int indexed;
+
+    /**
+     * @param dimensions размерность точек
+     */
+    public KdTree(int dimensions) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("Размерность должна быть положительной: " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.points = new double[16 * dimensions];
+        this.values = new double[16];
+        this.order = new int[16];
+    }
+
+    /** Возвращает размерность точек. */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /** Возвращает число точек. */
+    public int size() {
+        return size;
+    }
+
+    /** Возвращает значение точки {@code i} в порядке добавления. */
+    public double value(int i) {
+        return values[i];
+    }
+
+    /**
+     * Возвращает срез уже добавленных точек за O(1). Массивы координат
+     * и значений только дополняются (при перестройке меняется лишь
+     * перестановка), а при росте заменяются копиями, поэтому срез можно
+     * копировать в другом потоке, пока дерево пополняется.
+     *
+     * @return срез точек в порядке добавления
+     */
+    public Slice slice() {
+        return new Slice(points, values, size, dimensions);
+    }
+
+    /**
+     * Добавляет точку.
+     *
+     * @param point  массив координат
+     * @param offset индекс первой координаты точки
+     * @param value  значение в точке
+     */
+    public void add(double[] point, int offset, double value) {
+        if (size == values.length) {
+            var capacity = size * 2;
+            points = Arrays.copyOf(points, capacity * dimensions);
+            values = Arrays.copyOf(values, capacity);
+            order = Arrays.copyOf(order, capacity);
+        }
+        System.arraycopy(point, offset, points, size * dimensions, dimensions);
+        values[size] = value;
+        order[size] = size;
+        size++;
+        if (size - indexed > Math.max(MIN_TAIL, indexed / 4)) {
+            build(0, size, 0);
+            indexed = size;
+        }
+    }
+
+    /**
+     * Находит до {@code k} ближайших точек к запросу.
+     *
+     * @param query     массив координат
+     * @param offset    индекс первой координаты запроса
+     * @param k         число соседей
+     * @param neighbours индексы найденных точек в порядке добавления, от ближайшей
+     * @param distances квадраты расстояний до найденных точек, параллельно {@code neighbours}
+     * @return число найденных точек, не больше {@code k} и {@link #size()}
+     */
+    public int nearest(double[] query, int offset, int k, int[] neighbours, double[] distances) {
+        var found = search(query, offset, k, neighbours, distances, 0, indexed, 0, 0);
+        for (var i = indexed; i < size; i++) {
+            found = offer(i, distance(query, offset, i), k, neighbours, distances, found);
+        }
+        return found;
+    }
+
+    private int search(double[] query, int offset, int k, int[] neighbours, double[] distances,
+                       int from, int to, int axis, int found) {
+        while (from < to) {
+            var mid = (from + to) >>> 1;
+            var point = order[mid];
+            found = offer(point, distance(query, offset, point), k, neighbours, distances, found);
+
+            var delta = query[offset + axis] - points[point * dimensions + axis];
+            var next = axis + 1 == dimensions ? 0 : axis + 1;
+            int nearFrom, nearTo, farFrom, farTo;
+            if (delta < 0) {
+                nearFrom = from;
+                nearTo = mid;
+                farFrom = mid + 1;
+                farTo = to;
+            } else {
+                nearFrom = mid + 1;
+                nearTo = to;
+                farFrom = from;
+                farTo = mid;
+            }
+            found = search(query, offset, k, neighbours, distances, nearFrom, nearTo, next, found);
+            if (found == k && delta * delta >= distances[found - 1]) {
+                return found;
+            }
+            from = farFrom;
+            to = farTo;
+            axis = next;
+        }
+        return found;
+    }
+
+    /** Вставляет точку в упорядоченный список соседей, если она ближе худшего. */
+    private static int offer(int point, double distance, int k, int[] neighbours, double[] distances, int found) {
+        if (found == k && distance >= distances[k - 1]) {
+            return found;
+        }
+        var i = found < k ? found++ : k - 1;
+        while (i > 0 && distances[i - 1] > distance) {
+            neighbours[i] = neighbours[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        neighbours[i] = point;
+        distances[i] = distance;
+        return found;
+    }
+
+    private double distance(double[] query, int offset, int point) {
+        var base = point * dimensions;
+        var sum = 0.0;
+        for (var d = 0; d < dimensions; d++) {
+            var delta = query[offset + d] - points[base + d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    /** Строит поддерево отрезка {@code [from, to)}: медиана по оси в середине. */
+    private void build(int from, int to, int axis) {
+        while (to - from > 1) {
+            var mid = (from + to) >>> 1;
+            select(from, to - 1, mid, axis);
+            var next = axis + 1 == dimensions ? 0 : axis + 1;
+            build(from, mid, next);
+            from = mid + 1;
+            axis = next;
+        }
+    }
+
+    /** Quickselect: ставит на место {@code k} точку с k-й координатой по оси. */
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            var pivot = coordinate(order[(left + right) >>> 1], axis);
+            var i = left;
+            var j = right;
+            while (i <= j) {
+                while (coordinate(order[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(order[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    var t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int point, int axis) {
+        return points[point * dimensions + axis];
+    }
+
+    /**
+     * Неизменяемый срез точек {@link KdTree} в порядке добавления.
+     */
+    public static final class Slice {
+
+        private final double[] points;
+        private final double[] values;
+        private final int size;
+        private final int dimensions;
+
+        private Slice(double[] points, double[] values, int size, int dimensions) {
+            this.points = points;
+            this.values = values;
+            this.size = size;
+            this.dimensions = dimensions;
+        }
+
+        /** Возвращает число точек среза. */
+        public int size() {
+            return size;
+        }
+
+        /** Копирует координаты точек подряд, {@code dimensions} чисел на точку. */
+        public double[] points() {
+            return Arrays.copyOf(points, size * dimensions);
+        }
+
+        /** Копирует значения точек. */
+        public double[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.baza.surrogate;
+
+/**
+ * Суррогатная модель дорогой fitness-функции: регрессия по k ближайшим
+ * соседям в архиве уже вычисленных особей ({@link KdTree}).
+ *
+ * <p>Прогноз — среднее значений соседей с весами, обратными квадрату
+ * расстояния; если запрос совпадает с точкой архива, возвращается
+ * её точное значение. Модель используется для предварительного отбора
+ * потомков ({@link ru.baza.GeneticAlgorithm#setSurrogate(SurrogateModel)}):
+ * настоящую fitness-функцию получает только доля {@link #screenFraction()}
+ * самых перспективных по прогнозу, остальным достаётся прогноз.
+ *
+ * <p>Модель не потокобезопасна.
+ */
+public final class SurrogateModel {
+
+    private final KdTree archive;
+    private final int neighbourCount;
+    private final int warmup;
+    private final double screenFraction;
+
+    private final int[] neighbours;
+    private final double[] distances;
+    private double nearestDistance;
+
+    private long predictions;
+
+    /**
+     * @param dimensions     размерность хромосомы
+     * @param neighbourCount число соседей в прогнозе
+     * @param warmup         размер архива, начиная с которого модель используется
+     * @param screenFraction доля новых особей поколения, получающих настоящую оценку, в (0, 1]
+     */
+    public SurrogateModel(int dimensions, int neighbourCount, int warmup, double screenFraction) {
+        if (neighbourCount < 1) {
+            throw new IllegalArgumentException("Число соседей должно быть положительным: " + neighbourCount);
+        }
+        if (warmup < neighbourCount) {
+            throw new IllegalArgumentException("Размер архива для запуска модели меньше числа соседей: " + warmup);
+        }
+        if (!(screenFraction > 0 && screenFraction <= 1)) {
+            throw new IllegalArgumentException("Доля настоящих оценок вне (0, 1]: " + screenFraction);
+        }
+        this.archive = new KdTree(dimensions);
+        this.neighbourCount = neighbourCount;
+        this.warmup = warmup;
+        this.screenFraction = screenFraction;
+        this.neighbours = new int[neighbourCount];
+        this.distances = new double[neighbourCount];
+    }
+
+    /** Возвращает размерность хромосомы. */
+    public int dimensions() {
+        return archive.dimensions();
+    }
+
+    /** Возвращает долю новых особей поколения, получающих настоящую оценку. */
+    public double screenFraction() {
+        return screenFraction;
+    }
+
+    /** Возвращает {@code true}, если архив достаточно велик для прогнозов. */
+    public boolean ready() {
+        return archive.size() >= warmup;
+    }
+
+    /**
+     * Добавляет в архив настоящее значение fitness-функции.
+     *
+     * @param genes  массив генов
+     * @param offset индекс первого гена хромосомы
+     * @param value  значение fitness-функции
+     */
+    public void add(double[] genes, int offset, double value) {
+        archive.add(genes, offset, value);
+    }
+
+    /**
+     * Прогнозирует значение fitness-функции.
+     *
+     * @param genes  массив генов
+     * @param offset индекс первого гена хромосомы
+     * @return прогноз или точное значение, если хромосома уже в архиве
+     * @throws IllegalStateException если архив пуст
+     */
+    public double predict(double[] genes, int offset) {
+        var found = archive.nearest(genes, offset, neighbourCount, neighbours, distances);
+        if (found == 0) {
+            throw new IllegalStateException("Архив суррогатной модели пуст");
+        }
+        predictions++;
+        nearestDistance = distances[0];
+        if (nearestDistance == 0) {
+            return archive.value(neighbours[0]);
+        }
+        var weighted = 0.0;
+        var weights = 0.0;
+        for (var i = 0; i < found; i++) {
+            var weight = 1 / distances[i];
+            weighted += weight * archive.value(neighbours[i]);
+            weights += weight;
+        }
+        return weighted / weights;
+    }
+
+    /**
+     * Возвращает квадрат расстояния до ближайшей точки архива при последнем
+     * прогнозе; 0 означает, что прогноз — точное значение.
+     */
+    public double nearestDistance() {
+        return nearestDistance;
+    }
+
+    /** Возвращает число точек в архиве. */
+    public int size() {
+        return archive.size();
+    }
+
+    /**
+     * Возвращает срез архива за O(1) (см. {@link KdTree#slice()}):
+     * добавление его точек через {@link #add} в том же порядке
+     * восстанавливает архив. Срез можно копировать в другом потоке,
+     * пока модель пополняется.
+     *
+     * @return срез архива в порядке добавления
+     */
+    public KdTree.Slice archive() {
+        return archive.slice();
+    }
+
+    /** Возвращает число сделанных прогнозов. */
+    public long predictions() {
+        return predictions;
+    }
+
+    @Override
+    public String toString() {
+        return "SurrogateModel[dimensions=" + dimensions() + ", neighbours=" + neighbourCount
+                + ", warmup=" + warmup + ", screenFraction=" + screenFraction + "]";
+    }
+}